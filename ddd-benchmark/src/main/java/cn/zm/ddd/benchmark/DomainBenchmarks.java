@@ -0,0 +1,38 @@
+package cn.zm.ddd.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 领域模型基准入口
+ * 
+ * 依次运行订单聚合、值对象、DTO转换和金额计算基准，始终启用GC分析器，
+ * 控制台输出每次操作的吞吐量和分配字节数（gc.alloc.rate.norm），
+ * 同时把结果写入JSON文件，便于在领域模型改动前后对比：
+ * 
+ * java -cp ddd-benchmark/target/benchmarks.jar cn.zm.ddd.benchmark.DomainBenchmarks [结果文件]
+ */
+public final class DomainBenchmarks {
+    
+    private static final String DEFAULT_RESULT_FILE = "domain-benchmarks.json";
+    
+    private DomainBenchmarks() {
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(OrderAggregateBenchmark.class.getSimpleName())
+            .include(ValueObjectBenchmark.class.getSimpleName())
+            .include(DtoMappingBenchmark.class.getSimpleName())
+            .include(MoneyBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(args.length > 0 ? args[0] : DEFAULT_RESULT_FILE)
+            .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package cn.zm.ddd.benchmark;
+
+import cn.zm.ddd.application.dto.OrderDto;
+import cn.zm.ddd.application.dto.ProductDto;
+import cn.zm.ddd.domain.model.customer.CustomerId;
+import cn.zm.ddd.domain.model.order.Order;
+import cn.zm.ddd.domain.model.product.Product;
+import cn.zm.ddd.domain.model.product.ProductId;
+import cn.zm.ddd.shared.valueobject.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 领域对象到DTO的转换基准
+ * 
+ * 每个查询接口的响应都要经过这一步，订单项越多OrderDto.from的分配越大：
+ * 
+ * java -jar ddd-benchmark/target/benchmarks.jar DtoMappingBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+    
+    @Param({"1", "10", "100"})
+    public int lines;
+    
+    private Order order;
+    private Product product;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        order = Order.create(CustomerId.generate());
+        for (int i = 0; i < lines; i++) {
+            order.addItem(ProductId.generate(), "商品" + i, Money.cny(BigDecimal.valueOf(1999 + i, 2)), 1 + i % 5);
+        }
+        product = Product.create("iPhone 15 Pro", "苹果最新款智能手机",
+            Money.cny(new BigDecimal("8999.00")), 50);
+    }
+    
+    @Benchmark
+    public OrderDto orderDtoFrom() {
+        return OrderDto.from(order);
+    }
+    
+    @Benchmark
+    public ProductDto productDtoFrom() {
+        return ProductDto.from(product);
+    }
+}
\ No newline at end of file
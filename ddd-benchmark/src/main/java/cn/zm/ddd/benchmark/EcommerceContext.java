@@ -0,0 +1,68 @@
+package cn.zm.ddd.benchmark;
+
+import cn.zm.ddd.EcommerceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.stream.Stream;
+
+/**
+ * 基准测试用的应用上下文
+ * 
+ * 在独立的H2内存库上启动EcommerceApplication（默认不带Web容器），
+ * 并关闭SQL标准输出，避免日志开销干扰测量结果
+ */
+public final class EcommerceContext {
+    
+    private static final String CONCURRENCY_LIMIT = "ddd.web.concurrency.enabled=";
+    
+    private EcommerceContext() {
+    }
+    
+    /**
+     * 启动应用上下文
+     * 
+     * @param name H2内存库名称，不同基准使用不同库互不干扰
+     */
+    public static ConfigurableApplicationContext start(String name, String... extraProperties) {
+        return run(WebApplicationType.NONE, name, extraProperties);
+    }
+    
+    /**
+     * 启动带内嵌Web容器的应用，监听随机端口，供端到端压测使用
+     * 
+     * 默认关闭接口并发限制，压测测量的是应用本身的处理能力而不是限流后的拒绝；
+     * 需要压测限流效果时显式传入ddd.web.concurrency.enabled=true
+     */
+    public static ConfigurableApplicationContext startServer(String name, String... extraProperties) {
+        boolean limitConfigured = Stream.of(extraProperties)
+            .anyMatch(property -> property.startsWith(CONCURRENCY_LIMIT));
+        Stream<String> defaults = limitConfigured
+            ? Stream.of("server.port=0")
+            : Stream.of("server.port=0", CONCURRENCY_LIMIT + "false");
+        return run(WebApplicationType.SERVLET, name,
+            Stream.concat(defaults, Stream.of(extraProperties)).toArray(String[]::new));
+    }
+    
+    /**
+     * 获取Web容器实际监听的端口
+     */
+    public static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+    
+    private static ConfigurableApplicationContext run(WebApplicationType type, String name,
+                                                      String... extraProperties) {
+        // 以命令行参数传入，优先级高于application.yml
+        Stream<String> properties = Stream.concat(Stream.of(
+                "spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                "mybatis-plus.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl",
+                "logging.level.root=WARN"),
+            Stream.of(extraProperties));
+        return new SpringApplicationBuilder(EcommerceApplication.class)
+            .web(type)
+            .run(properties.map(property -> "--" + property).toArray(String[]::new));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package cn.zm.ddd.benchmark;
+
+import cn.zm.ddd.domain.model.product.ProductId;
+import cn.zm.ddd.domain.repository.ProductRepository;
+import cn.zm.ddd.infrastructure.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 热点商品库存预留吞吐量基准
+ * 
+ * 对比数据库条件更新（database）与内存分段库存引擎（engine）在同一商品上的每秒预留次数，
+ * main方法按1、2、4……直到CPU核数的线程数依次运行，观察吞吐量随线程数的变化：
+ * 
+ * java -cp ddd-benchmark/target/benchmarks.jar cn.zm.ddd.benchmark.InventoryReservationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class InventoryReservationBenchmark {
+    
+    private static final ProductId PRODUCT_ID = ProductId.of("550e8400-e29b-41d4-a716-446655440104");
+    
+    @Param({"database", "engine"})
+    public String mode;
+    
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EcommerceContext.start("inventory-benchmark-" + mode,
+            "ddd.inventory.engine.enabled=" + "engine".equals(mode));
+        productRepository = context.getBean(ProductRepository.class);
+        // 备足库存，测量期间不会出现库存不足
+        context.getBean(ProductMapper.class)
+            .increaseStock(PRODUCT_ID.toUuid(), Integer.MAX_VALUE / 2, LocalDateTime.now());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public boolean reserve() {
+        return productRepository.reserveStock(PRODUCT_ID, 1);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            Options options = new OptionsBuilder()
+                .include(InventoryReservationBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
\ No newline at end of file
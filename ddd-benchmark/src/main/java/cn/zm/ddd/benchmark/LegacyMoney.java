@@ -0,0 +1,49 @@
+package cn.zm.ddd.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * 基于BigDecimal的旧金额实现，仅作为基准对照
+ */
+record LegacyMoney(BigDecimal amount, Currency currency) {
+    
+    LegacyMoney {
+        if (amount == null) {
+            throw new IllegalArgumentException("金额不能为空");
+        }
+        
+        if (amount.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("金额不能为负数: " + amount);
+        }
+        
+        if (currency == null) {
+            throw new IllegalArgumentException("货币类型不能为空");
+        }
+        
+        amount = amount.setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    static LegacyMoney cny(BigDecimal amount) {
+        return new LegacyMoney(amount, Currency.getInstance("CNY"));
+    }
+    
+    LegacyMoney add(LegacyMoney other) {
+        if (!this.currency.equals(other.currency)) {
+            throw new IllegalArgumentException("不能对不同货币进行运算");
+        }
+        return new LegacyMoney(this.amount.add(other.amount), this.currency);
+    }
+    
+    LegacyMoney subtract(LegacyMoney other) {
+        if (!this.currency.equals(other.currency)) {
+            throw new IllegalArgumentException("不能对不同货币进行运算");
+        }
+        return new LegacyMoney(this.amount.subtract(other.amount), this.currency);
+    }
+    
+    LegacyMoney multiply(BigDecimal multiplier) {
+        return new LegacyMoney(this.amount.multiply(multiplier), this.currency);
+    }
+}
\ No newline at end of file
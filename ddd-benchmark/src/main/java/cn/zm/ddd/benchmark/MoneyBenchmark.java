@@ -0,0 +1,116 @@
+package cn.zm.ddd.benchmark;
+
+import cn.zm.ddd.domain.model.order.OrderItem;
+import cn.zm.ddd.domain.model.product.ProductId;
+import cn.zm.ddd.shared.valueobject.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 金额计算基准
+ * 
+ * 对比旧的BigDecimal金额（逐项map/reduce）与以分存储的金额（long累加）
+ * 计算订单总额并应用折扣的吞吐量，配合GC分析器观察每次操作的分配字节数：
+ * 
+ * java -jar ddd-benchmark/target/benchmarks.jar MoneyBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    
+    private static final BigDecimal DISCOUNT_RATE = new BigDecimal("0.05");
+    
+    @Param({"5", "50", "500"})
+    public int lines;
+    
+    private List<LegacyItem> legacyItems;
+    private List<OrderItem> items;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        legacyItems = new ArrayList<>(lines);
+        items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+            int quantity = 1 + random.nextInt(20);
+            legacyItems.add(new LegacyItem(LegacyMoney.cny(price), quantity));
+            items.add(new OrderItem(ProductId.generate(), "商品" + i, Money.cny(price), quantity));
+        }
+        
+        verifySameResults(random);
+    }
+    
+    /**
+     * 旧实现：每个订单项创建小计金额，stream归约求和，再用BigDecimal计算折扣
+     */
+    @Benchmark
+    public LegacyMoney bigDecimalTotalWithDiscount() {
+        LegacyMoney total = legacyItems.stream()
+            .map(LegacyItem::subtotal)
+            .reduce(LegacyMoney.cny(BigDecimal.ZERO), LegacyMoney::add);
+        return total.subtract(total.multiply(DISCOUNT_RATE));
+    }
+    
+    /**
+     * 新实现：以分为单位累加小计，折扣在long上计算
+     */
+    @Benchmark
+    public long minorUnitsTotalWithDiscount() {
+        long total = 0;
+        for (OrderItem item : items) {
+            total = Math.addExact(total, item.subtotalMinorUnits());
+        }
+        return total - Money.multiplyMinorUnits(total, DISCOUNT_RATE);
+    }
+    
+    /**
+     * 新实现按Money对象逐项累加，对比对象分配的影响
+     */
+    @Benchmark
+    public Money moneyTotalWithDiscount() {
+        Money total = Money.zero(items.get(0).unitPrice().currency());
+        for (OrderItem item : items) {
+            total = total.add(item.calculateSubtotal());
+        }
+        return total.subtract(total.multiply(DISCOUNT_RATE));
+    }
+    
+    /**
+     * 校验两种实现在随机金额和折扣率下的舍入结果完全一致
+     */
+    private void verifySameResults(Random random) {
+        long minorUnits = minorUnitsTotalWithDiscount();
+        BigDecimal legacy = bigDecimalTotalWithDiscount().amount();
+        if (BigDecimal.valueOf(minorUnits, 2).compareTo(legacy) != 0) {
+            throw new IllegalStateException("订单总额不一致：" + minorUnits + " / " + legacy);
+        }
+        
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(1_000_000_000_000L), 2);
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(100_000), random.nextInt(6));
+            BigDecimal expected = LegacyMoney.cny(amount).multiply(rate).amount();
+            BigDecimal actual = Money.cny(amount).multiply(rate).amount();
+            if (expected.compareTo(actual) != 0) {
+                throw new IllegalStateException("乘法舍入不一致：" + amount + " × " + rate
+                    + " 期望 " + expected + " 实际 " + actual);
+            }
+        }
+    }
+    
+    record LegacyItem(LegacyMoney unitPrice, int quantity) {
+        
+        LegacyMoney subtotal() {
+            return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+}
\ No newline at end of file
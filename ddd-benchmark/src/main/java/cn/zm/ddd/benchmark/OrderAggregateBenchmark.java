@@ -0,0 +1,128 @@
+package cn.zm.ddd.benchmark;
+
+import cn.zm.ddd.domain.model.customer.CustomerId;
+import cn.zm.ddd.domain.model.order.Order;
+import cn.zm.ddd.domain.model.product.ProductId;
+import cn.zm.ddd.shared.valueobject.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单聚合操作基准
+ * 
+ * 在已有若干订单项的待支付订单上测量添加、合并、移除订单项和应用折扣的开销，
+ * 订单项数量通过lines参数调整，用于观察聚合内部数据结构变化的效果。
+ * 每次调用都在同样规模的订单上执行：折扣作用于每次调用前重建的订单，合并的数量有上限，
+ * 避免折扣在同一订单上反复叠加到0元、合并数量无限增长，测到的不是正常路径：
+ * 
+ * java -jar ddd-benchmark/target/benchmarks.jar OrderAggregateBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderAggregateBenchmark {
+    
+    private static final BigDecimal DISCOUNT_RATE = new BigDecimal("0.05");
+    private static final Money UNIT_PRICE = Money.cny(new BigDecimal("199.90"));
+    /**
+     * 合并订单项的数量上限，达到后把该订单项恢复为1件
+     */
+    private static final int MAX_MERGED_QUANTITY = 100;
+    
+    @Param({"1", "10", "100"})
+    public int lines;
+    
+    private CustomerId customerId;
+    private ProductId[] productIds;
+    private ProductId extraProductId;
+    private Order order;
+    private int mergedQuantity;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        customerId = CustomerId.generate();
+        productIds = new ProductId[lines];
+        for (int i = 0; i < lines; i++) {
+            productIds[i] = ProductId.generate();
+        }
+        extraProductId = ProductId.generate();
+    }
+    
+    @Setup(Level.Iteration)
+    public void resetOrder() {
+        order = createOrder();
+        mergedQuantity = 1;
+    }
+    
+    /**
+     * 从空订单开始逐个添加lines个订单项
+     */
+    @Benchmark
+    public Order createAndAddItems() {
+        return createOrder();
+    }
+    
+    /**
+     * 向已有订单添加一个新商品再移除，订单状态在每次调用后复原
+     */
+    @Benchmark
+    public Money addThenRemoveItem() {
+        order.addItem(extraProductId, "新增商品", UNIT_PRICE, 1);
+        order.removeItem(extraProductId);
+        return order.getTotalAmount();
+    }
+    
+    /**
+     * 对已有商品增加数量（合并到原订单项），数量达到上限后恢复为1件，
+     * 恢复每MAX_MERGED_QUANTITY次调用发生一次，对结果的影响可以忽略
+     */
+    @Benchmark
+    public Money mergeExistingItem() {
+        ProductId productId = productIds[lines - 1];
+        if (mergedQuantity < MAX_MERGED_QUANTITY) {
+            order.addItem(productId, "商品", UNIT_PRICE, 1);
+            mergedQuantity++;
+        } else {
+            order.removeItem(productId);
+            order.addItem(productId, "商品", UNIT_PRICE, 1);
+            mergedQuantity = 1;
+        }
+        return order.getTotalAmount();
+    }
+    
+    /**
+     * 应用折扣，金额在分上计算；每次调用作用于新建的订单，只有一次折扣
+     */
+    @Benchmark
+    public Money applyDiscount(DiscountState state) {
+        state.order.applyDiscount(DISCOUNT_RATE);
+        return state.order.getTotalAmount();
+    }
+    
+    private Order createOrder() {
+        Order created = Order.create(customerId);
+        for (ProductId productId : productIds) {
+            created.addItem(productId, "商品", UNIT_PRICE, 1);
+        }
+        return created;
+    }
+    
+    /**
+     * 折扣基准的订单，每次调用前重建，重建不计入测量时间
+     */
+    @State(Scope.Thread)
+    public static class DiscountState {
+        
+        private Order order;
+        
+        @Setup(Level.Invocation)
+        public void resetOrder(OrderAggregateBenchmark benchmark) {
+            order = benchmark.createOrder();
+        }
+    }
+}
\ No newline at end of file
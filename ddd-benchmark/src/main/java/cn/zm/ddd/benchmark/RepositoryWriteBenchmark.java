@@ -0,0 +1,141 @@
+package cn.zm.ddd.benchmark;
+
+import cn.zm.ddd.domain.model.customer.Customer;
+import cn.zm.ddd.domain.model.customer.CustomerId;
+import cn.zm.ddd.domain.model.customer.CustomerType;
+import cn.zm.ddd.domain.model.product.Product;
+import cn.zm.ddd.domain.model.product.ProductId;
+import cn.zm.ddd.domain.repository.CustomerRepository;
+import cn.zm.ddd.domain.repository.ProductRepository;
+import cn.zm.ddd.infrastructure.mapper.CustomerMapper;
+import cn.zm.ddd.infrastructure.mapper.ProductMapper;
+import cn.zm.ddd.infrastructure.persistence.CustomerEntity;
+import cn.zm.ddd.infrastructure.persistence.ProductEntity;
+import cn.zm.ddd.shared.valueobject.Email;
+import cn.zm.ddd.shared.valueobject.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 仓储写入吞吐量基准
+ * 
+ * 对比写前查询（旧实现：先selectById再决定insert/update）
+ * 与基于聚合持久化状态的单语句写入（新实现）在H2上的每秒写入次数：
+ * 
+ * java -jar ddd-benchmark/target/benchmarks.jar RepositoryWriteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryWriteBenchmark {
+    
+    private static final ProductId PRODUCT_ID = ProductId.of("550e8400-e29b-41d4-a716-446655440104");
+    private static final CustomerId CUSTOMER_ID = CustomerId.of("550e8400-e29b-41d4-a716-446655440001");
+    
+    private final AtomicLong sequence = new AtomicLong();
+    
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private ProductRepository productRepository;
+    private CustomerMapper customerMapper;
+    private ProductMapper productMapper;
+    private Customer loadedCustomer;
+    private Product loadedProduct;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EcommerceContext.start("write-benchmark");
+        customerRepository = context.getBean(CustomerRepository.class);
+        productRepository = context.getBean(ProductRepository.class);
+        customerMapper = context.getBean(CustomerMapper.class);
+        productMapper = context.getBean(ProductMapper.class);
+        loadedCustomer = customerRepository.findById(CUSTOMER_ID).orElseThrow();
+        loadedProduct = productRepository.findById(PRODUCT_ID).orElseThrow();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    /**
+     * 旧实现：更新前先按主键查询
+     */
+    @Benchmark
+    public int updateProductSelectBeforeWrite() {
+        ProductEntity entity = ProductEntity.from(loadedProduct);
+        if (productMapper.selectById(entity.getId()) != null) {
+            return productMapper.updateById(entity);
+        }
+        return productMapper.insert(entity);
+    }
+    
+    /**
+     * 新实现：已加载的聚合直接更新
+     */
+    @Benchmark
+    public void updateProduct() {
+        productRepository.save(loadedProduct);
+    }
+    
+    /**
+     * 旧实现：更新客户前先按主键查询
+     */
+    @Benchmark
+    public int updateCustomerSelectBeforeWrite() {
+        CustomerEntity entity = CustomerEntity.from(loadedCustomer);
+        if (customerMapper.selectById(entity.getId()) != null) {
+            return customerMapper.updateById(entity);
+        }
+        return customerMapper.insert(entity);
+    }
+    
+    /**
+     * 新实现：已加载的客户直接更新
+     */
+    @Benchmark
+    public void updateCustomer() {
+        customerRepository.save(loadedCustomer);
+    }
+    
+    /**
+     * 旧实现：插入前先按主键查询
+     */
+    @Benchmark
+    public int insertCustomerSelectBeforeWrite() {
+        CustomerEntity entity = CustomerEntity.from(newCustomer());
+        if (customerMapper.selectById(entity.getId()) != null) {
+            return customerMapper.updateById(entity);
+        }
+        return customerMapper.insert(entity);
+    }
+    
+    /**
+     * 新实现：新建聚合直接插入
+     */
+    @Benchmark
+    public void insertCustomer() {
+        customerRepository.save(newCustomer());
+    }
+    
+    /**
+     * 新实现：新建商品直接插入
+     */
+    @Benchmark
+    public void insertProduct() {
+        productRepository.save(Product.create(
+            "基准商品-" + sequence.incrementAndGet(), "", Money.cny(new BigDecimal("9.90")), 100));
+    }
+    
+    private Customer newCustomer() {
+        return Customer.create("基准客户",
+            new Email("bench" + sequence.incrementAndGet() + "@example.com"), CustomerType.REGULAR);
+    }
+}
\ No newline at end of file
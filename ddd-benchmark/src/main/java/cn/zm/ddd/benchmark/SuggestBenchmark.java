@@ -0,0 +1,93 @@
+package cn.zm.ddd.benchmark;
+
+import cn.zm.ddd.infrastructure.search.PrefixTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 商品输入联想基准
+ * 
+ * 在装有N个合成商品（英文词组与常用汉字混合的名称、Zipf式热度）的前缀树上，
+ * 测量1个字符、3个字符前缀的联想耗时，以及修改名称、累加热度这两种增量更新的耗时：
+ * 
+ * java -jar ddd-benchmark/target/benchmarks.jar SuggestBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestBenchmark {
+    
+    private static final String[] WORDS = {"iphone", "ipad", "airpods", "macbook", "pro", "max", "mini",
+        "ultra", "air", "watch", "pixel", "galaxy", "note", "phone", "case", "charger", "cable", "stand"};
+    private static final String HANZI = "苹果手机平板电脑耳机手表充电器数据线保护壳支架键盘鼠标显示器音箱相机";
+    private static final int LIMIT = 10;
+    
+    @Param({"10000", "100000"})
+    public int products;
+    
+    private PrefixTrie trie;
+    private Random random;
+    private String[] shortPrefixes;
+    private String[] longPrefixes;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(42);
+        trie = new PrefixTrie(20);
+        for (int i = 0; i < products; i++) {
+            String name = randomName(i);
+            trie.put("product-" + i, name.toLowerCase(Locale.ROOT), name);
+            trie.addWeight("product-" + i, products / (i + 1));
+        }
+        shortPrefixes = new String[]{"i", "a", "m", "p", "苹", "手"};
+        longPrefixes = new String[]{"iph", "air", "mac", "pro", "苹果手", "充电器"};
+    }
+    
+    @Benchmark
+    public List<PrefixTrie.Suggestion> suggestOneChar() {
+        return trie.suggest(shortPrefixes[next++ % shortPrefixes.length], LIMIT);
+    }
+    
+    @Benchmark
+    public List<PrefixTrie.Suggestion> suggestThreeChars() {
+        return trie.suggest(longPrefixes[next++ % longPrefixes.length], LIMIT);
+    }
+    
+    @Benchmark
+    public void rename() {
+        int i = random.nextInt(products);
+        String name = randomName(i);
+        trie.put("product-" + i, name.toLowerCase(Locale.ROOT), name);
+    }
+    
+    @Benchmark
+    public void addWeight() {
+        trie.addWeight("product-" + random.nextInt(products), 1);
+    }
+    
+    private String randomName(int i) {
+        StringBuilder name = new StringBuilder();
+        if (random.nextBoolean()) {
+            for (int j = 0; j < 3; j++) {
+                name.append(HANZI.charAt(random.nextInt(HANZI.length())));
+            }
+        } else {
+            int words = 2 + random.nextInt(2);
+            for (int j = 0; j < words; j++) {
+                if (j > 0) {
+                    name.append(' ');
+                }
+                name.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+        }
+        return name.append(' ').append(i).toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package cn.zm.ddd.benchmark;
+
+import cn.zm.ddd.domain.model.order.OrderId;
+import cn.zm.ddd.domain.model.order.OrderItem;
+import cn.zm.ddd.domain.model.product.ProductId;
+import cn.zm.ddd.shared.valueobject.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 值对象基准
+ * 
+ * 测量金额加减乘、订单项小计以及实体ID生成和解析的吞吐量与分配，
+ * 这些操作在每次请求的领域逻辑和DTO转换中都会大量出现：
+ * 
+ * java -jar ddd-benchmark/target/benchmarks.jar ValueObjectBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueObjectBenchmark {
+    
+    private static final BigDecimal DISCOUNT_RATE = new BigDecimal("0.05");
+    
+    private Money price;
+    private Money shipping;
+    private OrderItem item;
+    private String orderIdValue;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        price = Money.cny(new BigDecimal("8999.00"));
+        shipping = Money.cny(new BigDecimal("12.50"));
+        item = new OrderItem(ProductId.generate(), "iPhone 15 Pro", price, 3);
+        orderIdValue = OrderId.generate().value();
+    }
+    
+    @Benchmark
+    public Money moneyAdd() {
+        return price.add(shipping);
+    }
+    
+    @Benchmark
+    public Money moneySubtract() {
+        return price.subtract(shipping);
+    }
+    
+    @Benchmark
+    public Money moneyMultiplyQuantity() {
+        return price.multiply(3);
+    }
+    
+    @Benchmark
+    public Money moneyMultiplyRate() {
+        return price.multiply(DISCOUNT_RATE);
+    }
+    
+    @Benchmark
+    public BigDecimal moneyAmount() {
+        return price.amount();
+    }
+    
+    @Benchmark
+    public Money orderItemCalculateSubtotal() {
+        return item.calculateSubtotal();
+    }
+    
+    @Benchmark
+    public long orderItemSubtotalMinorUnits() {
+        return item.subtotalMinorUnits();
+    }
+    
+    /**
+     * 生成时间有序的UUID并格式化为字符串
+     */
+    @Benchmark
+    public OrderId entityIdGenerate() {
+        return OrderId.generate();
+    }
+    
+    /**
+     * 解析并校验请求路径中的ID字符串
+     */
+    @Benchmark
+    public OrderId entityIdOf() {
+        return OrderId.of(orderIdValue);
+    }
+}
\ No newline at end of file
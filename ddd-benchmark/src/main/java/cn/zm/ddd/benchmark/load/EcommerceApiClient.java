@@ -0,0 +1,111 @@
+package cn.zm.ddd.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压测用的REST客户端
+ * 
+ * 每次调用按接口模板（如 POST /api/orders/{id}/items）记录延迟，
+ * HTTP状态非2xx或响应体success为false都计为失败，503（并发限制拒绝）单独计为拒绝。
+ * 每个压测线程持有一个实例，记录结果互不干扰
+ */
+final class EcommerceApiClient {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SERVICE_UNAVAILABLE = 503;
+    
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Map<String, LatencyHistogram> histograms = new HashMap<>();
+    private volatile boolean recording;
+    
+    EcommerceApiClient(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+    }
+    
+    /**
+     * 预热结束后开始记录
+     */
+    void startRecording() {
+        this.recording = true;
+    }
+    
+    Map<String, LatencyHistogram> histograms() {
+        return histograms;
+    }
+    
+    JsonNode get(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(uri(path)).GET());
+    }
+    
+    JsonNode post(String endpoint, String path, Object body) {
+        HttpRequest.BodyPublisher publisher = body == null
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofByteArray(toJson(body));
+        return send(endpoint, HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/json")
+            .POST(publisher));
+    }
+    
+    /**
+     * 发送请求并记录延迟
+     * 
+     * @return 成功时返回响应中的data节点，失败时返回null
+     */
+    private JsonNode send(String endpoint, HttpRequest.Builder builder) {
+        HttpRequest request = builder.timeout(REQUEST_TIMEOUT).build();
+        long start = System.nanoTime();
+        JsonNode data = null;
+        boolean rejected = false;
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            rejected = response.statusCode() == SERVICE_UNAVAILABLE;
+            if (response.statusCode() / 100 == 2) {
+                JsonNode body = objectMapper.readTree(response.body());
+                if (body.path("success").asBoolean()) {
+                    data = body.path("data");
+                }
+            }
+        } catch (IOException e) {
+            // 连接失败计为一次失败请求
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        if (recording) {
+            LatencyHistogram histogram = histograms.computeIfAbsent(endpoint, key -> new LatencyHistogram());
+            if (rejected) {
+                histogram.recordRejected();
+            } else {
+                histogram.record(System.nanoTime() - start, data != null);
+            }
+        }
+        return data;
+    }
+    
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+    
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
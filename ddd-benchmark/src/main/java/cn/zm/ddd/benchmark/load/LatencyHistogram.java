@@ -0,0 +1,114 @@
+package cn.zm.ddd.benchmark.load;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟直方图
+ * 
+ * 以微秒记录延迟，小于128微秒精确计数，更大的值按2的幂分段、每段再分64个子桶，
+ * 相对误差不超过1/64，内存占用固定，不随请求数增长。
+ * 被限流拒绝（503）的请求只计数，不计入延迟分布和失败数，避免快速拒绝拉低延迟分位数。
+ * 非线程安全，每个压测线程各自记录，结束后合并
+ */
+final class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT << 1;
+    private static final int MAX_SHIFT = 30;
+    private static final long MAX_VALUE = (1L << (MAX_SHIFT + SUB_BUCKET_BITS + 1)) - 1;
+    
+    private final long[] counts = new long[LINEAR_LIMIT + MAX_SHIFT * SUB_BUCKET_COUNT];
+    private long totalCount;
+    private long errorCount;
+    private long rejectedCount;
+    private long sumMicros;
+    private long maxMicros;
+    
+    void record(long nanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_VALUE);
+        counts[indexOf(micros)]++;
+        totalCount++;
+        sumMicros += micros;
+        maxMicros = Math.max(maxMicros, micros);
+        if (!success) {
+            errorCount++;
+        }
+    }
+    
+    void recordRejected() {
+        rejectedCount++;
+    }
+    
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        errorCount += other.errorCount;
+        rejectedCount += other.rejectedCount;
+        sumMicros += other.sumMicros;
+        maxMicros = Math.max(maxMicros, other.maxMicros);
+    }
+    
+    long totalCount() {
+        return totalCount;
+    }
+    
+    long errorCount() {
+        return errorCount;
+    }
+    
+    long rejectedCount() {
+        return rejectedCount;
+    }
+    
+    double meanMillis() {
+        return totalCount == 0 ? 0 : sumMicros / 1000.0 / totalCount;
+    }
+    
+    double maxMillis() {
+        return maxMicros / 1000.0;
+    }
+    
+    /**
+     * 百分位延迟（毫秒），取所在桶的中点
+     * 
+     * @param percentile 0-100
+     */
+    double percentileMillis(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(midpointOf(i), maxMicros) / 1000.0;
+            }
+        }
+        return maxMillis();
+    }
+    
+    private static int indexOf(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+        
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >>> shift) - SUB_BUCKET_COUNT;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+    
+    private static long midpointOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKET_COUNT + 1;
+        long lowerBound = (long) ((index - LINEAR_LIMIT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+        return lowerBound + (1L << (shift - 1));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+package cn.zm.ddd.benchmark.load;
+
+import cn.zm.ddd.benchmark.EcommerceContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端压测入口
+ * 
+ * 在H2内存库上启动带Web容器的EcommerceApplication（或指定--base-url压测已运行的实例），
+ * 以固定并发的闭环方式反复执行购物流程，预热后统计各接口的吞吐量和p50/p95/p99延迟，
+ * 结果输出到控制台并写入JSON文件，便于在不同构建之间对比：
+ * 
+ * java -cp ddd-benchmark/target/benchmarks.jar cn.zm.ddd.benchmark.load.LoadTest \
+ *     --concurrency=16 --duration=60 --warmup=10 --output=load-test.json
+ * 
+ * 其余--key=value参数作为应用配置传入，例如 --ddd.inventory.engine.enabled=true
+ * 应用默认关闭接口并发限制（见EcommerceContext.startServer），传入--ddd.web.concurrency.enabled=true
+ * 可压测限流效果，被拒绝（503）的请求单独统计，不计入失败数和延迟
+ */
+public final class LoadTest {
+    
+    private static final int PRODUCT_STOCK = 1_000_000_000;
+    
+    private LoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.baseUrl();
+        if (baseUrl == null) {
+            context = EcommerceContext.startServer("load-test", options.appProperties().toArray(String[]::new));
+            baseUrl = "http://localhost:" + EcommerceContext.port(context);
+        }
+        
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        try {
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            List<String> productIds = createProducts(
+                new EcommerceApiClient(httpClient, objectMapper, baseUrl), options.products(), runId);
+            PurchaseScenario scenario = new PurchaseScenario(productIds, runId);
+            
+            List<EcommerceApiClient> clients = new ArrayList<>();
+            for (int i = 0; i < options.concurrency(); i++) {
+                clients.add(new EcommerceApiClient(httpClient, objectMapper, baseUrl));
+            }
+            
+            Instant startedAt = Instant.now();
+            System.out.printf("压测 %s：并发 %d，预热 %ds，测量 %ds%n",
+                baseUrl, options.concurrency(), options.warmupSeconds(), options.durationSeconds());
+            run(clients, scenario, options);
+            
+            Map<String, LatencyHistogram> merged = merge(clients);
+            LoadTestReport report = LoadTestReport.of(startedAt, baseUrl, options, merged);
+            report.print(System.out);
+            report.write(objectMapper, Path.of(options.output()));
+            System.out.println("结果已写入 " + Path.of(options.output()).toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+    
+    /**
+     * 创建压测专用商品，库存充足，避免库存耗尽导致的业务失败干扰延迟统计
+     */
+    private static List<String> createProducts(EcommerceApiClient client, int count, String runId) {
+        List<String> productIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            JsonNode product = client.post("POST /api/products", "/api/products", Map.of(
+                "name", "压测商品" + runId + "-" + i,
+                "description", "压测商品",
+                "price", BigDecimal.valueOf(1999 + i * 1000L, 2),
+                "currency", "CNY",
+                "stockQuantity", PRODUCT_STOCK));
+            if (product == null) {
+                throw new IllegalStateException("创建压测商品失败");
+            }
+            productIds.add(product.path("id").asText());
+        }
+        return productIds;
+    }
+    
+    /**
+     * 每个线程循环执行购物流程直到结束时间，预热期间的请求不计入统计
+     */
+    private static void run(List<EcommerceApiClient> clients, PurchaseScenario scenario, Options options)
+            throws InterruptedException {
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        
+        ExecutorService executor = Executors.newFixedThreadPool(clients.size());
+        for (EcommerceApiClient client : clients) {
+            executor.execute(() -> {
+                while (System.nanoTime() < end) {
+                    if (System.nanoTime() >= warmupEnd) {
+                        client.startRecording();
+                    }
+                    scenario.run(client);
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(options.durationSeconds() + options.warmupSeconds() + 60L, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("压测线程未能按时结束");
+        }
+    }
+    
+    private static Map<String, LatencyHistogram> merge(List<EcommerceApiClient> clients) {
+        Map<String, LatencyHistogram> merged = new LinkedHashMap<>();
+        clients.stream()
+            .flatMap(client -> client.histograms().entrySet().stream())
+            .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+            .forEach(entry -> merged.computeIfAbsent(entry.getKey(), key -> new LatencyHistogram())
+                .merge(entry.getValue()));
+        return merged;
+    }
+    
+    /**
+     * 压测参数
+     */
+    record Options(
+        int concurrency,
+        int durationSeconds,
+        int warmupSeconds,
+        int products,
+        String output,
+        String baseUrl,
+        List<String> appProperties
+    ) {
+        
+        static Options parse(String[] args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            List<String> appProperties = new ArrayList<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("参数格式应为--key=value：" + arg);
+                }
+                String key = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (key) {
+                    case "concurrency", "duration", "warmup", "products", "output", "base-url" -> values.put(key, value);
+                    default -> appProperties.add(key + "=" + value);
+                }
+            }
+            
+            Options options = new Options(
+                Integer.parseInt(values.getOrDefault("concurrency", "8")),
+                Integer.parseInt(values.getOrDefault("duration", "30")),
+                Integer.parseInt(values.getOrDefault("warmup", "5")),
+                Integer.parseInt(values.getOrDefault("products", "20")),
+                values.getOrDefault("output", "load-test-result.json"),
+                values.get("base-url"),
+                List.copyOf(appProperties));
+            if (options.concurrency() <= 0 || options.durationSeconds() <= 0
+                || options.warmupSeconds() < 0 || options.products() <= 0) {
+                throw new IllegalArgumentException("并发数、测量时长和商品数必须大于0，预热时长不能为负");
+            }
+            return options;
+        }
+    }
+}
\ No newline at end of file
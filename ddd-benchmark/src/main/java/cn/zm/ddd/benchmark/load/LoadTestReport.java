@@ -0,0 +1,96 @@
+package cn.zm.ddd.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测结果
+ * 
+ * 字段即JSON文件的结构，延迟单位为毫秒，吞吐量单位为每秒请求数。
+ * 请求数、失败数和延迟只统计实际处理的请求，被并发限制拒绝（503）的请求单独计入rejected
+ */
+record LoadTestReport(
+    String startedAt,
+    String baseUrl,
+    int concurrency,
+    int warmupSeconds,
+    int durationSeconds,
+    long totalRequests,
+    long totalErrors,
+    long totalRejected,
+    double throughput,
+    List<EndpointStats> endpoints
+) {
+    
+    static LoadTestReport of(Instant startedAt, String baseUrl, LoadTest.Options options,
+                             Map<String, LatencyHistogram> histograms) {
+        LatencyHistogram total = new LatencyHistogram();
+        histograms.values().forEach(total::merge);
+        double seconds = options.durationSeconds();
+        
+        List<EndpointStats> endpoints = histograms.entrySet().stream()
+            .map(entry -> EndpointStats.of(entry.getKey(), entry.getValue(), seconds))
+            .toList();
+        return new LoadTestReport(startedAt.toString(), baseUrl, options.concurrency(),
+            options.warmupSeconds(), options.durationSeconds(), total.totalCount(), total.errorCount(),
+            total.rejectedCount(), round(total.totalCount() / seconds), endpoints);
+    }
+    
+    void print(PrintStream out) {
+        out.printf("%-34s %9s %7s %7s %10s %9s %9s %9s %9s%n",
+            "接口", "请求数", "失败", "拒绝", "吞吐(/s)", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+        for (EndpointStats stats : endpoints) {
+            out.printf("%-34s %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                stats.endpoint(), stats.requests(), stats.errors(), stats.rejected(), stats.throughput(),
+                stats.p50Ms(), stats.p95Ms(), stats.p99Ms(), stats.maxMs());
+        }
+        out.printf("合计 %d 请求，%d 失败，%d 被拒绝，%.1f 请求/秒%n", totalRequests, totalErrors, totalRejected,
+            throughput);
+    }
+    
+    void write(ObjectMapper objectMapper, Path file) {
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+    
+    /**
+     * 单个接口的统计
+     */
+    record EndpointStats(
+        String endpoint,
+        long requests,
+        long errors,
+        long rejected,
+        double throughput,
+        double meanMs,
+        double p50Ms,
+        double p95Ms,
+        double p99Ms,
+        double maxMs
+    ) {
+        
+        static EndpointStats of(String endpoint, LatencyHistogram histogram, double seconds) {
+            return new EndpointStats(endpoint, histogram.totalCount(), histogram.errorCount(),
+                histogram.rejectedCount(), round(histogram.totalCount() / seconds),
+                round(histogram.meanMillis()),
+                round(histogram.percentileMillis(50)),
+                round(histogram.percentileMillis(95)),
+                round(histogram.percentileMillis(99)),
+                round(histogram.maxMillis()));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package cn.zm.ddd.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一次完整的购物流程
+ * 
+ * 浏览商品 → 创建客户 → 创建订单 → 查看并添加1-3个商品 → 查看订单 →
+ * 支付（约10%取消）→ 发货（约70%）→ 查询客户订单列表。
+ * 前一步失败时放弃本次流程的后续步骤，失败已计入对应接口
+ */
+final class PurchaseScenario {
+    
+    private static final AtomicLong CUSTOMER_SEQUENCE = new AtomicLong();
+    private static final String[] SEARCH_KEYWORDS = {"压测", "商品", "1", "pro"};
+    
+    private final List<String> productIds;
+    private final String runId;
+    
+    PurchaseScenario(List<String> productIds, String runId) {
+        this.productIds = List.copyOf(productIds);
+        this.runId = runId;
+    }
+    
+    void run(EcommerceApiClient client) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        if (random.nextInt(4) == 0) {
+            client.get("GET /api/products/search", "/api/products/search?name="
+                + SEARCH_KEYWORDS[random.nextInt(SEARCH_KEYWORDS.length)]);
+        } else {
+            client.get("GET /api/products", "/api/products");
+        }
+        
+        JsonNode customer = client.post("POST /api/customers", "/api/customers", Map.of(
+            "name", "压测客户",
+            "email", "load-" + runId + "-" + CUSTOMER_SEQUENCE.incrementAndGet() + "@example.com",
+            "customerType", randomCustomerType(random)));
+        if (customer == null) {
+            return;
+        }
+        String customerId = customer.path("id").asText();
+        
+        JsonNode order = client.post("POST /api/orders", "/api/orders", Map.of("customerId", customerId));
+        if (order == null) {
+            return;
+        }
+        String orderId = order.path("id").asText();
+        
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            String productId = productIds.get(random.nextInt(productIds.size()));
+            client.get("GET /api/products/{id}", "/api/products/" + productId);
+            JsonNode added = client.post("POST /api/orders/{id}/items", "/api/orders/" + orderId + "/items",
+                Map.of("productId", productId, "quantity", 1 + random.nextInt(3)));
+            if (added == null) {
+                return;
+            }
+        }
+        
+        client.get("GET /api/orders/{id}", "/api/orders/" + orderId);
+        
+        if (random.nextInt(10) == 0) {
+            client.post("POST /api/orders/{id}/cancel", "/api/orders/" + orderId + "/cancel", null);
+        } else if (client.post("POST /api/orders/{id}/pay", "/api/orders/" + orderId + "/pay", null) != null
+            && random.nextInt(10) < 7) {
+            client.post("POST /api/orders/{id}/ship", "/api/orders/" + orderId + "/ship", null);
+        }
+        
+        client.get("GET /api/orders/customer/{id}", "/api/orders/customer/" + customerId);
+    }
+    
+    private static String randomCustomerType(ThreadLocalRandom random) {
+        int roll = random.nextInt(10);
+        return roll < 7 ? "REGULAR" : roll < 9 ? "VIP" : "ENTERPRISE";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,254 @@
+package cn.zm.ddd.benchmark.load;
+
+import cn.zm.ddd.benchmark.EcommerceContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 平台线程与虚拟线程的对比压测
+ * 
+ * 依次以平台线程（Tomcat默认线程池）和虚拟线程（spring.threads.virtual.enabled=true）启动应用，
+ * 在同样的高并发闭环负载下分别压测两个接口：
+ * 1. POST /api/orders/{id}/items：每个压测线程向自己的待支付订单反复添加商品（写路径，扣减库存）
+ * 2. GET /api/orders/customer/{id}：随机查询预置了订单的客户的订单列表（读路径）
+ * 
+ * 输出每种线程模型下各接口的吞吐量、延迟分位数、JVM峰值线程数和虚拟线程固定次数，并写入JSON文件：
+ * 
+ * java -cp ddd-benchmark/target/benchmarks.jar cn.zm.ddd.benchmark.load.ThreadModelComparison \
+ *     --concurrency=400 --duration=20 --warmup=5 --output=thread-model.json
+ * 
+ * 压测客户端与应用在同一JVM中，压测线程使用虚拟线程，峰值线程数包含客户端的少量平台线程。
+ * 其余--key=value参数作为应用配置传入，例如 --spring.datasource.hikari.maximum-pool-size=50
+ * 应用默认关闭接口并发限制（见EcommerceContext.startServer），传入--ddd.web.concurrency.enabled=true
+ * 可压测限流效果，被拒绝（503）的请求单独统计，不计入失败数和延迟
+ */
+public final class ThreadModelComparison {
+    
+    private static final String ADD_ITEM = "POST /api/orders/{id}/items";
+    private static final String CUSTOMER_ORDERS = "GET /api/orders/customer/{id}";
+    private static final int PRODUCT_STOCK = 1_000_000_000;
+    private static final int PRODUCTS = 50;
+    private static final int QUERY_CUSTOMERS = 50;
+    private static final int ORDERS_PER_CUSTOMER = 20;
+    private static final String PINNED_TIMER = "ddd.threads.virtual.pinned";
+    
+    private ThreadModelComparison() {
+    }
+    
+    public static void main(String[] args) {
+        LoadTest.Options options = LoadTest.Options.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        
+        List<ModelResult> results = new ArrayList<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            results.add(run(virtual, options, objectMapper));
+        }
+        
+        Report report = new Report(Instant.now().toString(), options.concurrency(), options.warmupSeconds(),
+            options.durationSeconds(), results);
+        report.print();
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(Path.of(options.output()).toFile(), report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.println("结果已写入 " + Path.of(options.output()).toAbsolutePath());
+    }
+    
+    private static ModelResult run(boolean virtual, LoadTest.Options options, ObjectMapper objectMapper) {
+        String model = virtual ? "virtual" : "platform";
+        List<String> properties = new ArrayList<>();
+        // 高并发排队时大量请求会超过慢查询阈值，关闭SQL剖析的告警日志，避免日志开销干扰测量
+        properties.add("logging.level.cn.zm.ddd.infrastructure.sql=ERROR");
+        properties.addAll(options.appProperties());
+        properties.add("spring.threads.virtual.enabled=" + virtual);
+        ConfigurableApplicationContext context = EcommerceContext.startServer(
+            "thread-model-" + model, properties.toArray(String[]::new));
+        try {
+            String baseUrl = "http://localhost:" + EcommerceContext.port(context);
+            HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            EcommerceApiClient setup = new EcommerceApiClient(httpClient, objectMapper, baseUrl);
+            String runId = model + "-" + Long.toString(System.currentTimeMillis(), 36);
+            List<String> productIds = createProducts(setup, runId);
+            
+            // 写路径：每个压测线程一个待支付订单，互不争用同一订单
+            List<String> orderIds = new ArrayList<>(options.concurrency());
+            for (int i = 0; i < options.concurrency(); i++) {
+                orderIds.add(createOrder(setup, createCustomer(setup, runId + "-w" + i)));
+            }
+            // 读路径：若干客户各预置一批订单
+            List<String> customerIds = new ArrayList<>(QUERY_CUSTOMERS);
+            for (int i = 0; i < QUERY_CUSTOMERS; i++) {
+                String customerId = createCustomer(setup, runId + "-r" + i);
+                List<Map<String, String>> orders = new ArrayList<>(ORDERS_PER_CUSTOMER);
+                for (int j = 0; j < ORDERS_PER_CUSTOMER; j++) {
+                    orders.add(Map.of("customerId", customerId));
+                }
+                require(setup.post("POST /api/orders/bulk", "/api/orders/bulk", orders), "预置订单失败");
+                customerIds.add(customerId);
+            }
+            
+            System.out.printf("%s线程：压测 %s，并发 %d%n", virtual ? "虚拟" : "平台", baseUrl, options.concurrency());
+            List<EndpointResult> endpoints = new ArrayList<>();
+            endpoints.add(measure(ADD_ITEM, options, httpClient, objectMapper, baseUrl, (client, index) -> {
+                String productId = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+                client.post(ADD_ITEM, "/api/orders/" + orderIds.get(index) + "/items",
+                    Map.of("productId", productId, "quantity", 1));
+            }));
+            endpoints.add(measure(CUSTOMER_ORDERS, options, httpClient, objectMapper, baseUrl, (client, index) -> {
+                String customerId = customerIds.get(ThreadLocalRandom.current().nextInt(customerIds.size()));
+                client.get(CUSTOMER_ORDERS, "/api/orders/customer/" + customerId);
+            }));
+            return new ModelResult(model, endpoints, pinnedEvents(context));
+        } finally {
+            context.close();
+        }
+    }
+    
+    /**
+     * 单个接口的一轮压测：并发个虚拟线程闭环调用，预热期间的请求不计入统计
+     */
+    private static EndpointResult measure(String endpoint, LoadTest.Options options, HttpClient httpClient,
+                                          ObjectMapper objectMapper, String baseUrl, Call call) {
+        List<EcommerceApiClient> clients = new ArrayList<>(options.concurrency());
+        for (int i = 0; i < options.concurrency(); i++) {
+            clients.add(new EcommerceApiClient(httpClient, objectMapper, baseUrl));
+        }
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients.size(); i++) {
+                EcommerceApiClient client = clients.get(i);
+                int index = i;
+                executor.execute(() -> {
+                    while (System.nanoTime() < end) {
+                        if (System.nanoTime() >= warmupEnd) {
+                            client.startRecording();
+                        }
+                        call.run(client, index);
+                    }
+                });
+            }
+        }
+        
+        LatencyHistogram merged = new LatencyHistogram();
+        clients.forEach(client -> {
+            LatencyHistogram histogram = client.histograms().get(endpoint);
+            if (histogram != null) {
+                merged.merge(histogram);
+            }
+        });
+        return new EndpointResult(LoadTestReport.EndpointStats.of(endpoint, merged, options.durationSeconds()),
+            threads.getPeakThreadCount());
+    }
+    
+    private static List<String> createProducts(EcommerceApiClient client, String runId) {
+        List<String> productIds = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            JsonNode product = require(client.post("POST /api/products", "/api/products", Map.of(
+                "name", "线程模型压测商品" + runId + "-" + i,
+                "description", "压测商品",
+                "price", BigDecimal.valueOf(1999 + i * 100L, 2),
+                "currency", "CNY",
+                "stockQuantity", PRODUCT_STOCK)), "创建压测商品失败");
+            productIds.add(product.path("id").asText());
+        }
+        return productIds;
+    }
+    
+    private static String createCustomer(EcommerceApiClient client, String suffix) {
+        return require(client.post("POST /api/customers", "/api/customers", Map.of(
+            "name", "线程模型压测客户",
+            "email", "thread-" + suffix + "@example.com",
+            "customerType", "REGULAR")), "创建压测客户失败").path("id").asText();
+    }
+    
+    private static String createOrder(EcommerceApiClient client, String customerId) {
+        return require(client.post("POST /api/orders", "/api/orders", Map.of("customerId", customerId)),
+            "创建压测订单失败").path("id").asText();
+    }
+    
+    private static JsonNode require(JsonNode data, String message) {
+        if (data == null) {
+            throw new IllegalStateException(message);
+        }
+        return data;
+    }
+    
+    /**
+     * 应用记录的虚拟线程固定次数，平台线程模式下为0
+     */
+    private static long pinnedEvents(ConfigurableApplicationContext context) {
+        return context.getBean(MeterRegistry.class).find(PINNED_TIMER).timers().stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+    
+    @FunctionalInterface
+    private interface Call {
+        
+        void run(EcommerceApiClient client, int index);
+    }
+    
+    /**
+     * 对比结果，即JSON文件的结构
+     */
+    record Report(
+        String startedAt,
+        int concurrency,
+        int warmupSeconds,
+        int durationSeconds,
+        List<ModelResult> models
+    ) {
+        
+        void print() {
+            System.out.printf("%-9s %-32s %9s %7s %7s %10s %9s %9s %9s %9s %8s%n", "线程模型", "接口",
+                "请求数", "失败", "拒绝", "吞吐(/s)", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)", "峰值线程");
+            for (ModelResult model : models) {
+                for (EndpointResult result : model.endpoints()) {
+                    LoadTestReport.EndpointStats stats = result.stats();
+                    System.out.printf("%-9s %-32s %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                        model.model(), stats.endpoint(), stats.requests(), stats.errors(), stats.rejected(),
+                        stats.throughput(),
+                        stats.p50Ms(), stats.p95Ms(), stats.p99Ms(), stats.maxMs(), result.peakThreads());
+                }
+            }
+            Map<String, Long> pinned = new LinkedHashMap<>();
+            models.forEach(model -> pinned.put(model.model(), model.pinnedEvents()));
+            System.out.println("虚拟线程固定次数：" + pinned);
+        }
+    }
+    
+    record ModelResult(String model, List<EndpointResult> endpoints, long pinnedEvents) {
+    }
+    
+    record EndpointResult(LoadTestReport.EndpointStats stats, int peakThreads) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package cn.zm.ddd.application.analytics;
+
+import cn.zm.ddd.application.dto.BestSellersDto;
+import cn.zm.ddd.domain.model.order.Order;
+
+/**
+ * 热销商品跟踪器
+ * 
+ * 订单支付时按商品累加销量，在有界内存中近似统计滑动时间窗口内的热销商品，
+ * 查询不扫描订单项。结果为近似值，误差上界随结果一起返回
+ */
+public interface BestSellerTracker {
+    
+    int MAX_LIMIT = 100;
+    
+    /**
+     * 记录已支付订单的商品销量
+     * 在事务内调用时于提交后生效，事务回滚则不计入
+     */
+    void recordPaid(Order order);
+    
+    /**
+     * 查询窗口内销量最高的limit个商品
+     */
+    BestSellersDto topProducts(BestSellerWindow window, int limit);
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package cn.zm.ddd.application.analytics;
+
+import java.time.Duration;
+
+/**
+ * 热销商品统计的滑动时间窗口
+ */
+public enum BestSellerWindow {
+    HOUR(Duration.ofHours(1), "最近一小时"),
+    DAY(Duration.ofDays(1), "最近一天");
+    
+    private final Duration length;
+    private final String description;
+    
+    BestSellerWindow(Duration length, String description) {
+        this.length = length;
+        this.description = description;
+    }
+    
+    public Duration getLength() {
+        return length;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
\ No newline at end of file
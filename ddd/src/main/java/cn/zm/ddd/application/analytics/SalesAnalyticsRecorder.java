@@ -0,0 +1,24 @@
+package cn.zm.ddd.application.analytics;
+
+import cn.zm.ddd.domain.model.customer.CustomerType;
+import cn.zm.ddd.domain.model.order.Order;
+import cn.zm.ddd.domain.model.order.OrderStatus;
+
+/**
+ * 销售统计记录器
+ * 
+ * 应用服务在订单支付、退款、取消后调用，把本次状态变化增量累加到
+ * 按天、按客户类型、按商品的汇总桶中。汇总与订单在同一事务中提交
+ */
+public interface SalesAnalyticsRecorder {
+    
+    /**
+     * 记录订单状态变化
+     * 只有变为PAID、REFUNDED、CANCELLED时计入统计，其他状态忽略
+     * 
+     * @param order 已完成状态变化的订单
+     * @param previousStatus 变化前的状态，决定取消是否冲减已支付金额
+     * @param customerType 下单客户当前的类型
+     */
+    void recordTransition(Order order, OrderStatus previousStatus, CustomerType customerType);
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package cn.zm.ddd.application.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 热销商品数据传输对象
+ * 
+ * 每个商品的真实销量落在[guaranteedQuantity, estimatedQuantity]之间，
+ * 且estimatedQuantity - 真实销量 <= maxError；窗口内真实销量超过maxError的商品不会漏报
+ */
+public record BestSellersDto(
+    String window,
+    String windowDescription,
+    LocalDateTime from,
+    LocalDateTime to,
+    long totalQuantity,
+    long maxError,
+    List<BestSellerDto> products
+) {
+    
+    /**
+     * 单个热销商品
+     */
+    public record BestSellerDto(
+        String productId,
+        String productName,
+        long estimatedQuantity,
+        long guaranteedQuantity
+    ) {
+    }
+}
\ No newline at end of file
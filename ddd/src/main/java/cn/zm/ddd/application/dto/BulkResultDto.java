@@ -0,0 +1,55 @@
+package cn.zm.ddd.application.dto;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 批量命令执行结果
+ * 
+ * 每一项对应请求中的一条记录，index为该记录在请求列表中的位置（从0开始），
+ * 失败项给出原因，不影响其他项
+ */
+public record BulkResultDto<T>(
+    int total,
+    int succeeded,
+    int failed,
+    List<ItemResult<T>> items
+) {
+    
+    /**
+     * 按index排序并统计成功、失败数
+     */
+    public static <T> BulkResultDto<T> of(List<ItemResult<T>> items) {
+        List<ItemResult<T>> sorted = items.stream()
+            .sorted(Comparator.comparingInt(ItemResult::index))
+            .toList();
+        int succeeded = (int) sorted.stream().filter(ItemResult::success).count();
+        return new BulkResultDto<>(sorted.size(), succeeded, sorted.size() - succeeded, sorted);
+    }
+    
+    /**
+     * 单项结果
+     */
+    public record ItemResult<T>(
+        int index,
+        boolean success,
+        T data,
+        String error
+    ) {
+        
+        public static <T> ItemResult<T> success(int index, T data) {
+            return new ItemResult<>(index, true, data, null);
+        }
+        
+        public static <T> ItemResult<T> failure(int index, String error) {
+            return new ItemResult<>(index, false, null, error);
+        }
+        
+        /**
+         * 调整index，用于把子列表的结果映射回原请求中的位置
+         */
+        public ItemResult<T> withIndex(int newIndex) {
+            return new ItemResult<>(newIndex, success, data, error);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package cn.zm.ddd.application.dto;
+
+import java.util.List;
+
+/**
+ * 批量状态变更结果
+ * 
+ * succeeded为已变更为目标状态的订单ID，rejected为未变更的订单及原因
+ * （订单不存在、当前状态不允许变更、写入失败等）
+ */
+public record BulkTransitionResultDto(
+    String targetStatus,
+    int total,
+    List<String> succeeded,
+    List<Rejection> rejected
+) {
+    
+    /**
+     * 未变更的订单
+     */
+    public record Rejection(
+        String orderId,
+        String reason
+    ) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package cn.zm.ddd.application.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 订单摘要数据传输对象
+ * 
+ * 订单列表使用，不包含订单项明细
+ */
+public record OrderSummaryDto(
+    String id,
+    String customerId,
+    String status,
+    String statusDescription,
+    int itemCount,
+    int totalQuantity,
+    BigDecimal totalAmount,
+    String currency,
+    LocalDateTime createdAt,
+    LocalDateTime lastModifiedAt
+) {
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package cn.zm.ddd.application.dto;
+
+/**
+ * 商品联想数据传输对象
+ * 
+ * popularity为商品热度：近期支付的商品数量
+ */
+public record ProductSuggestionDto(
+    String productId,
+    String name,
+    long popularity
+) {
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package cn.zm.ddd.application.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 销售统计数据传输对象
+ * 
+ * 一个汇总桶或若干汇总桶在[from, to]日期区间内的合计。
+ * 净收入 = 支付金额 - 退款金额 - 已支付订单的取消金额
+ */
+public record SalesStatsDto(
+    String dimension,
+    String key,
+    String label,
+    LocalDate from,
+    LocalDate to,
+    String currency,
+    long paidOrders,
+    long paidQuantity,
+    BigDecimal paidAmount,
+    long refundedOrders,
+    long refundedQuantity,
+    BigDecimal refundedAmount,
+    long cancelledOrders,
+    long cancelledQuantity,
+    BigDecimal cancelledAmount,
+    BigDecimal netRevenue
+) {
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package cn.zm.ddd.application.query;
+
+import cn.zm.ddd.application.dto.OrderSummaryDto;
+
+import java.util.List;
+
+/**
+ * 订单摘要查询服务 - CQRS读侧
+ * 
+ * 直接查询订单摘要读模型，不经过仓储，不重建订单聚合。
+ * 读模型在订单保存时同步更新，与订单数据在同一事务中提交
+ */
+public interface OrderSummaryQueryService {
+    
+    /**
+     * 查询客户的订单列表，按创建时间倒序
+     */
+    List<OrderSummaryDto> findByCustomerId(String customerId);
+}
\ No newline at end of file
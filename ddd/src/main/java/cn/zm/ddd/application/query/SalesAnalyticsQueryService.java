@@ -0,0 +1,40 @@
+package cn.zm.ddd.application.query;
+
+import cn.zm.ddd.application.dto.SalesStatsDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 销售统计查询服务 - CQRS读侧
+ * 
+ * 只读取预先汇总的统计桶，不扫描订单和订单项，
+ * 查询代价与所覆盖的桶数（维度键数×天数）成正比，与订单量无关。
+ * 日期区间为闭区间，跨度不超过MAX_RANGE_DAYS天
+ */
+public interface SalesAnalyticsQueryService {
+    
+    int MAX_RANGE_DAYS = 366;
+    
+    int MAX_LIMIT = 100;
+    
+    /**
+     * 全站逐日销售统计
+     */
+    List<SalesStatsDto> findDaily(LocalDate from, LocalDate to);
+    
+    /**
+     * 各客户类型在日期区间内的销售合计
+     */
+    List<SalesStatsDto> findByCustomerType(LocalDate from, LocalDate to);
+    
+    /**
+     * 日期区间内净收入最高的商品
+     */
+    List<SalesStatsDto> findTopProducts(LocalDate from, LocalDate to, int limit);
+    
+    /**
+     * 单个商品的逐日销售统计
+     */
+    List<SalesStatsDto> findProductDaily(String productId, LocalDate from, LocalDate to);
+}
\ No newline at end of file
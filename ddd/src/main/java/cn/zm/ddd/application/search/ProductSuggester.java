@@ -0,0 +1,35 @@
+package cn.zm.ddd.application.search;
+
+import cn.zm.ddd.application.dto.ProductSuggestionDto;
+import cn.zm.ddd.domain.model.order.Order;
+import cn.zm.ddd.domain.model.product.Product;
+
+import java.util.List;
+
+/**
+ * 商品输入联想
+ * 
+ * 在内存中维护在售商品名称的前缀结构，按热度返回前缀匹配的商品，查询不访问数据库。
+ * 商品创建、修改、上下架时由应用服务增量更新，支付的商品数量计入热度
+ */
+public interface ProductSuggester {
+    
+    int MAX_LIMIT = 20;
+    
+    /**
+     * 同步商品的联想条目：在售商品加入或更新，已下架商品移除
+     * 在事务内调用时于提交后生效，事务回滚则不生效
+     */
+    void update(Product product);
+    
+    /**
+     * 已支付订单的商品数量计入热度
+     * 在事务内调用时于提交后生效，事务回滚则不计入
+     */
+    void recordPaid(Order order);
+    
+    /**
+     * 名称（或名称中任一词）以prefix开头的在售商品，按热度倒序最多返回limit个
+     */
+    List<ProductSuggestionDto> suggest(String prefix, int limit);
+}
\ No newline at end of file
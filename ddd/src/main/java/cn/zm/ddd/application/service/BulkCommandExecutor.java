@@ -0,0 +1,161 @@
+package cn.zm.ddd.application.service;
+
+import cn.zm.ddd.application.dto.BulkResultDto;
+import cn.zm.ddd.application.dto.BulkResultDto.ItemResult;
+import cn.zm.ddd.shared.exception.BusinessRuleException;
+import cn.zm.ddd.shared.exception.DomainException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 批量命令执行器
+ * 
+ * 批量创建的执行流程：
+ * 1. 逐项校验命令并构造聚合，校验失败的项直接记为失败
+ * 2. 通过校验的聚合按chunk-size分块，每块一个事务：事务内只登记到工作单元，
+ *    提交前由工作单元经MyBatis批处理执行器（JDBC batch）一次写入整块
+ * 3. 某一块提交失败（如并发写入造成唯一约束冲突）时整块回滚，
+ *    再对该块逐项重新构造并各自提交，只有真正出错的项记为失败
+ * 
+ * 批量状态变更等集合操作通过executeInChunks同样按块分事务执行，每块一次条件更新
+ * 
+ * 调用方不能处于事务中，否则各块会加入外层事务，一项失败即导致整体回滚
+ */
+@Slf4j
+@Component
+public class BulkCommandExecutor {
+    
+    /**
+     * 单次请求的最大条数
+     */
+    public static final int MAX_ITEMS = 1000;
+    
+    /**
+     * 批量状态变更单次请求的最大条数，只涉及ID和状态，上限高于批量创建
+     */
+    public static final int MAX_TRANSITION_ITEMS = 10000;
+    
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    
+    public BulkCommandExecutor(PlatformTransactionManager transactionManager,
+                               @Value("${ddd.bulk.chunk-size:200}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(
+            Objects.requireNonNull(transactionManager, "事务管理器不能为空"));
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("批量写入块大小必须大于0");
+        }
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * 校验命令并构造聚合
+     * 
+     * @param <C> 命令类型
+     * @param <A> 聚合类型
+     */
+    @FunctionalInterface
+    public interface Preparer<C, A> {
+        
+        /**
+         * @param index 命令在列表中的位置
+         * @throws DomainException 违反业务规则时该项失败
+         * @throws IllegalArgumentException 参数不合法时该项失败
+         */
+        A prepare(int index, C command);
+    }
+    
+    /**
+     * 执行批量命令
+     * 
+     * @param commands 命令列表，结果的index为命令在列表中的位置
+     * @param preparer 校验命令并构造聚合，块提交失败后逐项重试时会再次调用
+     * @param persist 在事务内保存一个聚合
+     * @param toResult 提交成功后把聚合转换为结果
+     */
+    public <C, A, R> BulkResultDto<R> execute(List<C> commands, Preparer<C, A> preparer,
+                                              Consumer<A> persist, Function<A, R> toResult) {
+        if (commands.size() > MAX_ITEMS) {
+            throw new BusinessRuleException("一次最多批量处理" + MAX_ITEMS + "条记录");
+        }
+        
+        List<ItemResult<R>> results = new ArrayList<>(commands.size());
+        List<Prepared<C, A>> prepared = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            try {
+                prepared.add(new Prepared<>(i, commands.get(i), preparer.prepare(i, commands.get(i))));
+            } catch (DomainException | IllegalArgumentException e) {
+                results.add(ItemResult.failure(i, e.getMessage()));
+            }
+        }
+        
+        for (int from = 0; from < prepared.size(); from += chunkSize) {
+            List<Prepared<C, A>> chunk = prepared.subList(from, Math.min(from + chunkSize, prepared.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    chunk.forEach(item -> persist.accept(item.aggregate())));
+                chunk.forEach(item -> results.add(ItemResult.success(item.index(), toResult.apply(item.aggregate()))));
+            } catch (RuntimeException e) {
+                log.warn("批量写入第{}-{}项失败，改为逐项写入：{}", chunk.get(0).index(),
+                    chunk.get(chunk.size() - 1).index(), e.getMessage());
+                chunk.forEach(item -> results.add(executeOne(item, preparer, persist, toResult)));
+            }
+        }
+        return BulkResultDto.of(results);
+    }
+    
+    /**
+     * 分块执行集合操作，每块一个事务
+     * 
+     * @param action 在事务内处理一块，返回的结果在提交成功后才计入
+     * @param onFailure 某一块失败（已回滚）时给出该块的结果，不影响其他块
+     * @return 各块结果按顺序合并
+     */
+    public <T, R> List<R> executeInChunks(List<T> items, Function<List<T>, List<R>> action,
+                                          BiFunction<List<T>, RuntimeException, List<R>> onFailure) {
+        List<R> results = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<T> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+            try {
+                results.addAll(transactionTemplate.execute(status -> action.apply(chunk)));
+            } catch (RuntimeException e) {
+                log.warn("批量处理第{}-{}项失败：{}", from, from + chunk.size() - 1, e.getMessage());
+                results.addAll(onFailure.apply(chunk, e));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * 单项重试：重新构造聚合（回滚前的聚合可能已被标记为已持久化），单独提交
+     */
+    private <C, A, R> ItemResult<R> executeOne(Prepared<C, A> item, Preparer<C, A> preparer,
+                                               Consumer<A> persist, Function<A, R> toResult) {
+        try {
+            A aggregate = preparer.prepare(item.index(), item.command());
+            transactionTemplate.executeWithoutResult(status -> persist.accept(aggregate));
+            return ItemResult.success(item.index(), toResult.apply(aggregate));
+        } catch (DomainException | IllegalArgumentException e) {
+            return ItemResult.failure(item.index(), e.getMessage());
+        } catch (DuplicateKeyException e) {
+            return ItemResult.failure(item.index(), "记录已存在（唯一约束冲突）");
+        } catch (RuntimeException e) {
+            log.warn("批量写入第{}项失败", item.index(), e);
+            return ItemResult.failure(item.index(), "写入失败: " + e.getClass().getSimpleName());
+        }
+    }
+    
+    private record Prepared<C, A>(int index, C command, A aggregate) {
+    }
+}
\ No newline at end of file
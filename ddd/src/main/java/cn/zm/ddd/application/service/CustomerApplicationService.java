@@ -3,6 +3,7 @@ package cn.zm.ddd.application.service;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.zm.ddd.application.command.CreateCustomerCommand;
+import cn.zm.ddd.application.dto.BulkResultDto;
 import cn.zm.ddd.application.dto.CustomerDto;
 import cn.zm.ddd.application.query.CustomerQuery;
 import cn.zm.ddd.domain.model.customer.Customer;
@@ -13,9 +14,15 @@ import cn.zm.ddd.shared.valueobject.Email;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
 
 /**
  * 客户应用服务 - Lombok + Hutool优化版本
@@ -32,6 +39,7 @@ import java.util.Optional;
 public class CustomerApplicationService {
 
     private final CustomerRepository customerRepository;
+    private final BulkCommandExecutor bulkCommandExecutor;
 
     /**
      * 创建客户 - 使用Hutool进行参数验证
@@ -63,6 +71,45 @@ public class CustomerApplicationService {
         return CustomerDto.from(customer);
     }
 
+    /**
+     * 批量创建客户
+     * <p>
+     * 逐项校验后用一条IN查询检查全部邮箱是否已注册，同一批次内重复的邮箱只保留第一条；
+     * 通过校验的客户分块批量写入，单项失败不影响其他项
+     *
+     * @param requestIndex 命令位置到原请求位置的映射，重复邮箱的消息引用原请求中的位置
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResultDto<CustomerDto> createCustomers(List<CreateCustomerCommand> commands,
+                                                      IntUnaryOperator requestIndex) {
+        // 记录每个邮箱第一次出现的位置，格式不正确的邮箱留给逐项校验报告
+        Map<Email, Integer> firstIndexByEmail = new HashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            try {
+                firstIndexByEmail.putIfAbsent(commands.get(i).getEmailValueObject(), i);
+            } catch (IllegalArgumentException ignored) {
+                // 由下方逐项校验报告
+            }
+        }
+        Set<Email> existingEmails = customerRepository.findExistingEmails(firstIndexByEmail.keySet());
+
+        return bulkCommandExecutor.execute(commands,
+                (index, command) -> {
+                    validateCreateCustomerCommand(command);
+                    Email email = command.getEmailValueObject();
+                    if (existingEmails.contains(email)) {
+                        throw new BusinessRuleException("邮箱已存在: " + command.email());
+                    }
+                    if (firstIndexByEmail.get(email) != index) {
+                        throw new BusinessRuleException("邮箱与第" + requestIndex.applyAsInt(firstIndexByEmail.get(email))
+                                + "项重复: " + command.email());
+                    }
+                    return Customer.create(command.name(), email, command.getCustomerTypeEnum());
+                },
+                customerRepository::save,
+                CustomerDto::from);
+    }
+
     /**
      * 查询客户
      */
@@ -1,25 +1,42 @@
 package cn.zm.ddd.application.service;
 
+import cn.zm.ddd.application.analytics.BestSellerTracker;
+import cn.zm.ddd.application.analytics.SalesAnalyticsRecorder;
 import cn.zm.ddd.application.command.AddProductToOrderCommand;
 import cn.zm.ddd.application.command.CreateOrderCommand;
+import cn.zm.ddd.application.dto.BulkResultDto;
+import cn.zm.ddd.application.dto.BulkTransitionResultDto;
+import cn.zm.ddd.application.dto.BulkTransitionResultDto.Rejection;
 import cn.zm.ddd.application.dto.OrderDto;
 import cn.zm.ddd.application.query.OrderQuery;
+import cn.zm.ddd.application.search.ProductSuggester;
 import cn.zm.ddd.domain.model.customer.Customer;
 import cn.zm.ddd.domain.model.customer.CustomerId;
 import cn.zm.ddd.domain.model.order.Order;
 import cn.zm.ddd.domain.model.order.OrderId;
+import cn.zm.ddd.domain.model.order.OrderStatus;
 import cn.zm.ddd.domain.model.product.ProductId;
 import cn.zm.ddd.domain.repository.CustomerRepository;
 import cn.zm.ddd.domain.repository.OrderRepository;
 import cn.zm.ddd.domain.service.OrderDomainService;
 import cn.zm.ddd.shared.exception.BusinessRuleException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * 订单应用服务
@@ -28,6 +45,8 @@ import java.util.Optional;
  * 1. 协调多个聚合（订单、客户、商品）
  * 2. 使用领域服务处理跨聚合业务逻辑
  * 3. 管理事务边界
+ * 4. 支付、退款、取消后在同一事务内记录销售统计，支付提交后累加热销商品销量和商品联想热度
+ * 5. 批量发货、批量取消不逐个加载聚合，按块以条件更新变更状态，转换规则取自OrderStatus
  */
 @Service
 @Transactional
@@ -36,13 +55,25 @@ public class OrderApplicationService {
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final OrderDomainService orderDomainService;
+    private final SalesAnalyticsRecorder salesAnalyticsRecorder;
+    private final BestSellerTracker bestSellerTracker;
+    private final ProductSuggester productSuggester;
+    private final BulkCommandExecutor bulkCommandExecutor;
     
     public OrderApplicationService(OrderRepository orderRepository,
                                  CustomerRepository customerRepository,
-                                 OrderDomainService orderDomainService) {
+                                 OrderDomainService orderDomainService,
+                                 SalesAnalyticsRecorder salesAnalyticsRecorder,
+                                 BestSellerTracker bestSellerTracker,
+                                 ProductSuggester productSuggester,
+                                 BulkCommandExecutor bulkCommandExecutor) {
         this.orderRepository = Objects.requireNonNull(orderRepository, "订单仓储不能为空");
         this.customerRepository = Objects.requireNonNull(customerRepository, "客户仓储不能为空");
         this.orderDomainService = Objects.requireNonNull(orderDomainService, "订单领域服务不能为空");
+        this.salesAnalyticsRecorder = Objects.requireNonNull(salesAnalyticsRecorder, "销售统计记录器不能为空");
+        this.bestSellerTracker = Objects.requireNonNull(bestSellerTracker, "热销商品跟踪器不能为空");
+        this.productSuggester = Objects.requireNonNull(productSuggester, "商品联想不能为空");
+        this.bulkCommandExecutor = Objects.requireNonNull(bulkCommandExecutor, "批量命令执行器不能为空");
     }
     
     /**
@@ -53,13 +84,8 @@ public class OrderApplicationService {
         Customer customer = customerRepository.findById(CustomerId.of(command.customerId()))
             .orElseThrow(() -> new BusinessRuleException("客户不存在: " + command.customerId()));
         
-        // 验证客户是否处于活跃状态
-        if (!customer.isActive()) {
-            throw new BusinessRuleException("无法为已停用客户创建订单");
-        }
-        
         // 创建订单
-        Order order = Order.create(customer.getId());
+        Order order = newOrder(customer);
         
         // 保存订单
         orderRepository.save(order);
@@ -67,6 +93,35 @@ public class OrderApplicationService {
         return OrderDto.from(order);
     }
     
+    /**
+     * 批量创建订单
+     * 涉及的客户用一次批量查询加载，订单分块批量写入，单项失败不影响其他项
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResultDto<OrderDto> createOrders(List<CreateOrderCommand> commands) {
+        List<CustomerId> customerIds = new ArrayList<>(commands.size());
+        for (CreateOrderCommand command : commands) {
+            try {
+                customerIds.add(CustomerId.of(command.customerId()));
+            } catch (IllegalArgumentException ignored) {
+                // ID格式错误由逐项校验报告
+            }
+        }
+        Map<CustomerId, Customer> customers = customerRepository.findAllById(customerIds).stream()
+            .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        
+        return bulkCommandExecutor.execute(commands,
+            (index, command) -> {
+                Customer customer = customers.get(CustomerId.of(command.customerId()));
+                if (customer == null) {
+                    throw new BusinessRuleException("客户不存在: " + command.customerId());
+                }
+                return newOrder(customer);
+            },
+            orderRepository::save,
+            OrderDto::from);
+    }
+    
     /**
      * 添加商品到订单
      * 
@@ -115,6 +170,9 @@ public class OrderApplicationService {
         
         // 保存订单变更
         orderRepository.save(order);
+        salesAnalyticsRecorder.recordTransition(order, OrderStatus.PENDING, customer.getType());
+        bestSellerTracker.recordPaid(order);
+        productSuggester.recordPaid(order);
         
         return OrderDto.from(order);
     }
@@ -133,16 +191,6 @@ public class OrderApplicationService {
         return order.map(OrderDto::from);
     }
     
-    /**
-     * 查询客户订单
-     */
-    @Transactional(readOnly = true)
-    public List<OrderDto> findCustomerOrders(String customerId) {
-        return orderRepository.findByCustomerId(CustomerId.of(customerId)).stream()
-            .map(OrderDto::from)
-            .toList();
-    }
-    
     /**
      * 发货订单
      */
@@ -176,9 +224,187 @@ public class OrderApplicationService {
         Order order = orderRepository.findById(OrderId.of(orderId))
             .orElseThrow(() -> new BusinessRuleException("订单不存在: " + orderId));
         
+        OrderStatus previousStatus = order.getStatus();
         order.cancel();
         orderRepository.save(order);
+        salesAnalyticsRecorder.recordTransition(order, previousStatus, customerOf(order).getType());
+        
+        return OrderDto.from(order);
+    }
+    
+    /**
+     * 批量发货
+     * 只有当前状态允许发货的订单被变更，其余订单给出拒绝原因
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkTransitionResultDto shipOrders(List<String> orderIds) {
+        return transitionAll(orderIds, OrderStatus.SHIPPED, OrderStatus::canBeShipped, "发货");
+    }
+    
+    /**
+     * 批量取消创建时间早于createdBefore的待支付订单，先创建的先取消，一次最多limit个
+     * 
+     * 候选订单查出后可能被并发支付，条件更新只取消仍为待支付的订单
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkTransitionResultDto cancelPendingOrdersCreatedBefore(LocalDateTime createdBefore, int limit) {
+        if (createdBefore == null) {
+            throw new IllegalArgumentException("截止时间不能为空");
+        }
+        if (createdBefore.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("截止时间不能晚于当前时间");
+        }
+        if (limit <= 0 || limit > BulkCommandExecutor.MAX_TRANSITION_ITEMS) {
+            throw new IllegalArgumentException("取消数量必须在1-" + BulkCommandExecutor.MAX_TRANSITION_ITEMS + "之间");
+        }
+        
+        List<String> orderIds = orderRepository.findIdsByStatusAndCreatedBefore(
+                OrderStatus.PENDING, createdBefore, limit).stream()
+            .map(OrderId::value)
+            .toList();
+        return transitionAll(orderIds, OrderStatus.CANCELLED, status -> status == OrderStatus.PENDING, "取消");
+    }
+    
+    /**
+     * 退款
+     */
+    public OrderDto refundOrder(String orderId) {
+        Order order = orderRepository.findById(OrderId.of(orderId))
+            .orElseThrow(() -> new BusinessRuleException("订单不存在: " + orderId));
+        
+        OrderStatus previousStatus = order.getStatus();
+        order.refund();
+        orderRepository.save(order);
+        salesAnalyticsRecorder.recordTransition(order, previousStatus, customerOf(order).getType());
         
         return OrderDto.from(order);
     }
+    
+    /**
+     * 分块批量变更订单状态
+     * 
+     * 每块一个事务，一条条件更新（WHERE status IN 允许的原状态）完成整块变更，
+     * 取消的订单在同一事务内记录销售统计；某一块失败时整块回滚，该块订单记为拒绝
+     * 
+     * @param rule 原状态是否允许变更为目标状态
+     * @param action 拒绝原因中的操作名称
+     */
+    private BulkTransitionResultDto transitionAll(List<String> orderIds, OrderStatus target,
+                                                  Predicate<OrderStatus> rule, String action) {
+        if (orderIds.size() > BulkCommandExecutor.MAX_TRANSITION_ITEMS) {
+            throw new BusinessRuleException("一次最多批量处理" + BulkCommandExecutor.MAX_TRANSITION_ITEMS + "个订单");
+        }
+        Set<OrderStatus> fromStatuses = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            if (rule.test(status)) {
+                fromStatuses.add(status);
+            }
+        }
+        
+        List<Rejection> rejected = new ArrayList<>();
+        List<OrderId> ids = new ArrayList<>(orderIds.size());
+        Set<OrderId> seen = new HashSet<>();
+        for (String orderId : orderIds) {
+            OrderId id;
+            try {
+                id = OrderId.of(orderId);
+            } catch (IllegalArgumentException e) {
+                rejected.add(new Rejection(orderId, e.getMessage()));
+                continue;
+            }
+            if (seen.add(id)) {
+                ids.add(id);
+            } else {
+                rejected.add(new Rejection(orderId, "订单ID重复"));
+            }
+        }
+        
+        LocalDateTime modifiedAt = LocalDateTime.now();
+        List<String> succeeded = new ArrayList<>(ids.size());
+        bulkCommandExecutor.executeInChunks(ids,
+            chunk -> {
+                Map<OrderId, OrderStatus> previous = orderRepository.transitionAll(
+                    chunk, fromStatuses, target, modifiedAt);
+                List<Transitioned> results = new ArrayList<>(chunk.size());
+                List<OrderId> transitioned = new ArrayList<>(chunk.size());
+                for (OrderId orderId : chunk) {
+                    OrderStatus status = previous.get(orderId);
+                    if (status == null) {
+                        results.add(Transitioned.rejected(orderId, "订单不存在"));
+                    } else if (!fromStatuses.contains(status)) {
+                        results.add(Transitioned.rejected(orderId,
+                            "订单状态为" + status.getDescription() + "，无法" + action));
+                    } else {
+                        results.add(Transitioned.succeeded(orderId));
+                        transitioned.add(orderId);
+                    }
+                }
+                if (target == OrderStatus.CANCELLED) {
+                    recordCancellations(transitioned, previous);
+                }
+                return results;
+            },
+            (chunk, e) -> chunk.stream()
+                .map(orderId -> Transitioned.rejected(orderId, "写入失败: " + e.getClass().getSimpleName()))
+                .toList())
+            .forEach(result -> {
+                if (result.rejection() == null) {
+                    succeeded.add(result.orderId().value());
+                } else {
+                    rejected.add(new Rejection(result.orderId().value(), result.rejection()));
+                }
+            });
+        
+        return new BulkTransitionResultDto(target.name(), orderIds.size(), succeeded, rejected);
+    }
+    
+    /**
+     * 批量取消后记录销售统计
+     * 取消的订单和所属客户各用一次批量查询加载，增量在工作单元中按桶合并
+     */
+    private void recordCancellations(List<OrderId> orderIds, Map<OrderId, OrderStatus> previous) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        List<Order> orders = orderRepository.findAllById(orderIds);
+        Map<CustomerId, Customer> customers = customerRepository.findAllById(
+                orders.stream().map(Order::getCustomerId).toList()).stream()
+            .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        for (Order order : orders) {
+            Customer customer = customers.get(order.getCustomerId());
+            if (customer == null) {
+                throw new BusinessRuleException("客户不存在: " + order.getCustomerId());
+            }
+            salesAnalyticsRecorder.recordTransition(order, previous.get(order.getId()), customer.getType());
+        }
+    }
+    
+    private Customer customerOf(Order order) {
+        return customerRepository.findById(order.getCustomerId())
+            .orElseThrow(() -> new BusinessRuleException("客户不存在: " + order.getCustomerId()));
+    }
+    
+    /**
+     * 为活跃客户创建订单
+     */
+    private static Order newOrder(Customer customer) {
+        if (!customer.isActive()) {
+            throw new BusinessRuleException("无法为已停用客户创建订单");
+        }
+        return Order.create(customer.getId());
+    }
+    
+    /**
+     * 单个订单的批量变更结果，rejection为空表示已变更
+     */
+    private record Transitioned(OrderId orderId, String rejection) {
+        
+        static Transitioned succeeded(OrderId orderId) {
+            return new Transitioned(orderId, null);
+        }
+        
+        static Transitioned rejected(OrderId orderId, String rejection) {
+            return new Transitioned(orderId, rejection);
+        }
+    }
 }
\ No newline at end of file
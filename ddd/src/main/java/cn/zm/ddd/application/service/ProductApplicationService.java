@@ -1,51 +1,84 @@
 package cn.zm.ddd.application.service;
 
 import cn.zm.ddd.application.command.CreateProductCommand;
+import cn.zm.ddd.application.dto.BulkResultDto;
 import cn.zm.ddd.application.dto.ProductDto;
+import cn.zm.ddd.application.dto.ProductSuggestionDto;
+import cn.zm.ddd.application.search.ProductSuggester;
 import cn.zm.ddd.domain.model.product.Product;
 import cn.zm.ddd.domain.model.product.ProductId;
 import cn.zm.ddd.domain.repository.ProductRepository;
 import cn.zm.ddd.shared.exception.BusinessRuleException;
 import cn.zm.ddd.shared.valueobject.Money;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 商品应用服务
+ * 
+ * 商品创建、修改、上下架后同步商品联想，联想在事务提交后生效
  */
 @Service
 @Transactional
 public class ProductApplicationService {
     
+    /**
+     * 批量查询的最大商品数
+     */
+    private static final int MAX_BATCH_SIZE = 200;
+    
+    /**
+     * 搜索返回的最大商品数
+     */
+    private static final int MAX_SEARCH_LIMIT = 100;
+    
     private final ProductRepository productRepository;
+    private final ProductSuggester productSuggester;
+    private final BulkCommandExecutor bulkCommandExecutor;
     
-    public ProductApplicationService(ProductRepository productRepository) {
+    public ProductApplicationService(ProductRepository productRepository, ProductSuggester productSuggester,
+                                     BulkCommandExecutor bulkCommandExecutor) {
         this.productRepository = Objects.requireNonNull(productRepository, "商品仓储不能为空");
+        this.productSuggester = Objects.requireNonNull(productSuggester, "商品联想不能为空");
+        this.bulkCommandExecutor = Objects.requireNonNull(bulkCommandExecutor, "批量命令执行器不能为空");
     }
     
     /**
      * 创建商品
      */
     public ProductDto createProduct(CreateProductCommand command) {
-        Money price = new Money(command.price(), command.getCurrencyObject());
-        
-        Product product = Product.create(
-            command.name(),
-            command.description(),
-            price,
-            command.stockQuantity()
-        );
+        Product product = newProduct(command);
         
         productRepository.save(product);
+        productSuggester.update(product);
         
         return ProductDto.from(product);
     }
     
+    /**
+     * 批量创建商品
+     * 分块批量写入，每块一个事务，单项失败不影响其他项
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResultDto<ProductDto> createProducts(List<CreateProductCommand> commands) {
+        return bulkCommandExecutor.execute(commands,
+            (index, command) -> newProduct(command),
+            product -> {
+                productRepository.save(product);
+                productSuggester.update(product);
+            },
+            ProductDto::from);
+    }
+    
     /**
      * 查找商品
      */
@@ -55,6 +88,27 @@ public class ProductApplicationService {
             .map(ProductDto::from);
     }
     
+    /**
+     * 批量查找商品
+     * 按请求的ID顺序返回，不存在的商品被忽略
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDto> findProducts(List<String> productIds) {
+        if (productIds.size() > MAX_BATCH_SIZE) {
+            throw new BusinessRuleException("一次最多查询" + MAX_BATCH_SIZE + "个商品");
+        }
+        
+        List<ProductId> ids = productIds.stream().map(ProductId::of).distinct().toList();
+        Map<ProductId, Product> products = productRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        return ids.stream()
+            .map(products::get)
+            .filter(Objects::nonNull)
+            .map(ProductDto::from)
+            .toList();
+    }
+    
     /**
      * 查找所有可用商品
      */
@@ -66,15 +120,35 @@ public class ProductApplicationService {
     }
     
     /**
-     * 搜索商品
+     * 搜索商品，结果按相关度排序
      */
     @Transactional(readOnly = true)
-    public List<ProductDto> searchProducts(String name) {
-        return productRepository.findByNameContaining(name).stream()
+    public List<ProductDto> searchProducts(String keyword, int limit) {
+        if (keyword == null || keyword.isBlank()) {
+            throw new IllegalArgumentException("搜索关键词不能为空");
+        }
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("返回数量必须在1-" + MAX_SEARCH_LIMIT + "之间");
+        }
+        
+        return productRepository.search(keyword, limit).stream()
             .map(ProductDto::from)
             .toList();
     }
     
+    /**
+     * 商品输入联想，按热度排序
+     * 只查询内存前缀树，不开启事务、不占用数据库连接
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductSuggestionDto> suggestProducts(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("联想前缀不能为空");
+        }
+        
+        return productSuggester.suggest(prefix, limit);
+    }
+    
     /**
      * 更新商品信息
      */
@@ -87,6 +161,7 @@ public class ProductApplicationService {
         product.updateInfo(name, description, newPrice);
         
         productRepository.save(product);
+        productSuggester.update(product);
         
         return ProductDto.from(product);
     }
@@ -99,7 +174,7 @@ public class ProductApplicationService {
             .orElseThrow(() -> new BusinessRuleException("商品不存在: " + productId));
         
         product.increaseStock(quantity);
-        productRepository.save(product);
+        productRepository.increaseStock(product.getId(), quantity);
         
         return ProductDto.from(product);
     }
@@ -113,6 +188,7 @@ public class ProductApplicationService {
         
         product.putOnShelf();
         productRepository.save(product);
+        productSuggester.update(product);
         
         return ProductDto.from(product);
     }
@@ -126,7 +202,19 @@ public class ProductApplicationService {
         
         product.takeOffShelf();
         productRepository.save(product);
+        productSuggester.update(product);
         
         return ProductDto.from(product);
     }
+    
+    private static Product newProduct(CreateProductCommand command) {
+        Money price = new Money(command.price(), command.getCurrencyObject());
+        
+        return Product.create(
+            command.name(),
+            command.description(),
+            price,
+            command.stockQuantity()
+        );
+    }
 }
\ No newline at end of file
@@ -23,6 +23,10 @@ public class Customer {
     private boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime lastModifiedAt;
+    /**
+     * 是否已持久化 - 区分新建聚合与从存储重建的聚合
+     */
+    private boolean persisted;
     
     /**
      * 私有构造函数 - 强制使用工厂方法创建
@@ -55,6 +59,7 @@ public class Customer {
         customer.active = active;
         customer.createdAt = createdAt;
         customer.lastModifiedAt = lastModifiedAt;
+        customer.persisted = true;
         return customer;
     }
     
@@ -138,6 +143,21 @@ public class Customer {
         return name.trim();
     }
     
+    /**
+     * 检查是否为尚未持久化的新聚合
+     */
+    public boolean isNew() {
+        return !persisted;
+    }
+    
+    /**
+     * 标记聚合已持久化
+     * 由仓储在首次插入后调用
+     */
+    public void markPersisted() {
+        this.persisted = true;
+    }
+    
     // Getters - 只读访问
     public CustomerId getId() {
         return id;
@@ -1,30 +1,54 @@
 package cn.zm.ddd.domain.model.customer;
 
-import cn.zm.ddd.shared.valueobject.EntityId;
+import cn.zm.ddd.shared.valueobject.TimeOrderedUuidGenerator;
+import cn.zm.ddd.shared.valueobject.UuidCodec;
+
+import java.util.UUID;
 
 /**
  * 客户ID值对象
  * 
- * 继承通用EntityId，提供类型安全的客户标识符
+ * 提供类型安全的客户标识符，持有构造时解析好的UUID
  */
-public record CustomerId(String value) {
+public record CustomerId(UUID uuid) {
     
     public CustomerId {
-        if (value == null || value.isBlank()) {
+        if (uuid == null) {
             throw new IllegalArgumentException("客户ID不能为空");
         }
     }
     
     public static CustomerId generate() {
-        return new CustomerId(EntityId.generate().value());
+        return new CustomerId(TimeOrderedUuidGenerator.generate());
     }
     
     public static CustomerId of(String value) {
-        return new CustomerId(value);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("客户ID不能为空");
+        }
+        return new CustomerId(UuidCodec.parse(value, "客户ID格式不正确"));
+    }
+    
+    public static CustomerId of(UUID uuid) {
+        return new CustomerId(uuid);
+    }
+    
+    /**
+     * 小写的标准字符串形式，按需生成
+     */
+    public String value() {
+        return uuid.toString();
+    }
+    
+    /**
+     * 转换为UUID，用于二进制存储
+     */
+    public UUID toUuid() {
+        return uuid;
     }
     
     @Override
     public String toString() {
-        return value;
+        return value();
     }
 }
\ No newline at end of file
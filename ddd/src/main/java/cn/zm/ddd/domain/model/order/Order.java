@@ -8,9 +8,13 @@ import cn.zm.ddd.shared.exception.BusinessRuleException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * 订单聚合根
@@ -24,11 +28,31 @@ import java.util.Objects;
 public class Order {
     private final OrderId id;
     private final CustomerId customerId;
-    private final List<OrderItem> items;
+    /**
+     * 订单项按商品ID索引，保持添加顺序
+     */
+    private final Map<ProductId, OrderItem> items;
+    /**
+     * 上次持久化时的订单项快照，用于计算变更集
+     */
+    private final Map<ProductId, OrderItem> savedItems;
     private OrderStatus status;
     private Money totalAmount;
+    /**
+     * 订单项小计之和（分）与商品总数量，随订单项增删增量维护
+     */
+    private long itemsTotalMinorUnits;
+    private int totalQuantity;
+    /**
+     * 订单项只读列表，订单项变化时重建
+     */
+    private List<OrderItem> itemsView;
     private LocalDateTime createdAt;
     private LocalDateTime lastModifiedAt;
+    /**
+     * 是否已持久化 - 区分新建聚合与从存储重建的聚合
+     */
+    private boolean persisted;
     
     /**
      * 私有构造函数 - 强制使用工厂方法
@@ -36,7 +60,8 @@ public class Order {
     private Order(OrderId id, CustomerId customerId) {
         this.id = Objects.requireNonNull(id, "订单ID不能为空");
         this.customerId = Objects.requireNonNull(customerId, "客户ID不能为空");
-        this.items = new ArrayList<>();
+        this.items = new LinkedHashMap<>();
+        this.savedItems = new HashMap<>();
         this.status = OrderStatus.PENDING;
         this.totalAmount = Money.cny(BigDecimal.ZERO);
         this.createdAt = LocalDateTime.now();
@@ -57,11 +82,13 @@ public class Order {
                               OrderStatus status, Money totalAmount,
                               LocalDateTime createdAt, LocalDateTime lastModifiedAt) {
         Order order = new Order(id, customerId);
-        order.items.addAll(items);
+        items.forEach(order::putItem);
+        order.markItemsSaved();
         order.status = status;
         order.totalAmount = totalAmount;
         order.createdAt = createdAt;
         order.lastModifiedAt = lastModifiedAt;
+        order.persisted = true;
         return order;
     }
     
@@ -74,31 +101,17 @@ public class Order {
             throw new BusinessRuleException("只能向待支付订单添加商品");
         }
         
-        // 检查是否已存在相同商品，如果存在则合并数量
-        boolean itemExists = false;
-        List<OrderItem> updatedItems = new ArrayList<>();
-        
-        for (OrderItem existingItem : this.items) {
-            if (existingItem.isSameProduct(productId)) {
-                // 合并相同商品的数量
-                int newQuantity = existingItem.quantity() + quantity;
-                updatedItems.add(new OrderItem(productId, productName, unitPrice, newQuantity));
-                itemExists = true;
-            } else {
-                updatedItems.add(existingItem);
-            }
-        }
-        
-        if (!itemExists) {
-            updatedItems.add(new OrderItem(productId, productName, unitPrice, quantity));
+        if (!unitPrice.currency().equals(this.totalAmount.currency())) {
+            throw new IllegalArgumentException("不能对不同货币进行运算");
         }
         
-        // 更新订单项列表
-        this.items.clear();
-        this.items.addAll(updatedItems);
+        // 已存在相同商品时合并数量，按商品ID直接定位
+        OrderItem existingItem = this.items.get(productId);
+        int newQuantity = existingItem != null ? existingItem.quantity() + quantity : quantity;
+        putItem(new OrderItem(productId, productName, unitPrice, newQuantity));
         
-        // 重新计算总金额
-        this.recalculateTotalAmount();
+        // 订单总额回到订单项小计之和
+        this.updateTotalAmount();
         this.lastModifiedAt = LocalDateTime.now();
     }
     
@@ -110,13 +123,16 @@ public class Order {
             throw new BusinessRuleException("只能从待支付订单移除商品");
         }
         
-        boolean removed = this.items.removeIf(item -> item.isSameProduct(productId));
+        OrderItem removed = this.items.remove(productId);
         
-        if (!removed) {
+        if (removed == null) {
             throw new BusinessRuleException("订单中不存在指定商品");
         }
         
-        this.recalculateTotalAmount();
+        this.itemsTotalMinorUnits -= removed.subtotalMinorUnits();
+        this.totalQuantity -= removed.quantity();
+        this.itemsView = null;
+        this.updateTotalAmount();
         this.lastModifiedAt = LocalDateTime.now();
     }
     
@@ -199,19 +215,65 @@ public class Order {
             throw new IllegalArgumentException("折扣率必须在0-1之间");
         }
         
-        Money discountAmount = this.totalAmount.multiply(discountRate);
-        this.totalAmount = this.totalAmount.subtract(discountAmount);
+        // 在分上计算折扣额，舍入规则与BigDecimal按HALF_UP保留2位一致
+        long total = this.totalAmount.minorUnits();
+        long discount = Money.multiplyMinorUnits(total, discountRate);
+        this.totalAmount = Money.ofMinorUnits(total - discount, this.totalAmount.currency());
         this.lastModifiedAt = LocalDateTime.now();
     }
     
     /**
-     * 重新计算总金额
+     * 放入订单项，替换同一商品的旧订单项并增量调整小计之和与总数量
+     * 私有方法 - 维护聚合一致性
+     */
+    private void putItem(OrderItem item) {
+        OrderItem previous = this.items.put(item.productId(), item);
+        if (previous != null) {
+            this.itemsTotalMinorUnits -= previous.subtotalMinorUnits();
+            this.totalQuantity -= previous.quantity();
+        }
+        
+        this.itemsTotalMinorUnits = Math.addExact(this.itemsTotalMinorUnits, item.subtotalMinorUnits());
+        this.totalQuantity += item.quantity();
+        this.itemsView = null;
+    }
+    
+    /**
+     * 以订单项小计之和更新订单总额
      * 私有方法 - 维护聚合一致性
      */
-    private void recalculateTotalAmount() {
-        this.totalAmount = this.items.stream()
-            .map(OrderItem::calculateSubtotal)
-            .reduce(Money.cny(BigDecimal.ZERO), Money::add);
+    private void updateTotalAmount() {
+        this.totalAmount = Money.ofMinorUnits(this.itemsTotalMinorUnits, this.totalAmount.currency());
+    }
+    
+    /**
+     * 获取自上次持久化以来的订单项变更集
+     */
+    public OrderItemChanges getItemChanges() {
+        List<OrderItem> added = new ArrayList<>();
+        List<OrderItem> changed = new ArrayList<>();
+        Set<ProductId> remaining = new HashSet<>(this.savedItems.keySet());
+        
+        for (OrderItem item : this.items.values()) {
+            OrderItem saved = this.savedItems.get(item.productId());
+            if (saved == null) {
+                added.add(item);
+            } else if (!saved.equals(item)) {
+                changed.add(item);
+            }
+            remaining.remove(item.productId());
+        }
+        
+        return new OrderItemChanges(added, changed, new ArrayList<>(remaining));
+    }
+    
+    /**
+     * 标记当前订单项已持久化
+     * 由仓储在写入变更集后调用
+     */
+    public void markItemsSaved() {
+        this.savedItems.clear();
+        this.savedItems.putAll(this.items);
     }
     
     /**
@@ -225,17 +287,29 @@ public class Order {
      * 获取商品总数量
      */
     public int getTotalQuantity() {
-        return this.items.stream()
-            .mapToInt(OrderItem::quantity)
-            .sum();
+        return this.totalQuantity;
     }
     
     /**
      * 检查是否包含指定商品
      */
     public boolean containsProduct(ProductId productId) {
-        return this.items.stream()
-            .anyMatch(item -> item.isSameProduct(productId));
+        return this.items.containsKey(productId);
+    }
+    
+    /**
+     * 检查是否为尚未持久化的新聚合
+     */
+    public boolean isNew() {
+        return !persisted;
+    }
+    
+    /**
+     * 标记聚合已持久化
+     * 由仓储在首次插入后调用
+     */
+    public void markPersisted() {
+        this.persisted = true;
     }
     
     // Getters
@@ -248,7 +322,10 @@ public class Order {
     }
     
     public List<OrderItem> getItems() {
-        return Collections.unmodifiableList(items);
+        if (itemsView == null) {
+            itemsView = List.copyOf(items.values());
+        }
+        return itemsView;
     }
     
     public OrderStatus getStatus() {
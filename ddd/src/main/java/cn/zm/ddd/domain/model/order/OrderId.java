@@ -1,28 +1,52 @@
 package cn.zm.ddd.domain.model.order;
 
-import cn.zm.ddd.shared.valueobject.EntityId;
+import cn.zm.ddd.shared.valueobject.TimeOrderedUuidGenerator;
+import cn.zm.ddd.shared.valueobject.UuidCodec;
+
+import java.util.UUID;
 
 /**
  * 订单ID值对象
  */
-public record OrderId(String value) {
+public record OrderId(UUID uuid) {
     
     public OrderId {
-        if (value == null || value.isBlank()) {
+        if (uuid == null) {
             throw new IllegalArgumentException("订单ID不能为空");
         }
     }
     
     public static OrderId generate() {
-        return new OrderId(EntityId.generate().value());
+        return new OrderId(TimeOrderedUuidGenerator.generate());
     }
     
     public static OrderId of(String value) {
-        return new OrderId(value);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("订单ID不能为空");
+        }
+        return new OrderId(UuidCodec.parse(value, "订单ID格式不正确"));
+    }
+    
+    public static OrderId of(UUID uuid) {
+        return new OrderId(uuid);
+    }
+    
+    /**
+     * 小写的标准字符串形式，按需生成
+     */
+    public String value() {
+        return uuid.toString();
+    }
+    
+    /**
+     * 转换为UUID，用于二进制存储
+     */
+    public UUID toUuid() {
+        return uuid;
     }
     
     @Override
     public String toString() {
-        return value;
+        return value();
     }
 }
\ No newline at end of file
@@ -42,7 +42,14 @@ public record OrderItem(
      * 业务逻辑方法
      */
     public Money calculateSubtotal() {
-        return unitPrice.multiply(java.math.BigDecimal.valueOf(quantity));
+        return unitPrice.multiply(quantity);
+    }
+    
+    /**
+     * 以分为单位的订单项小计，供订单汇总时免分配地累加
+     */
+    public long subtotalMinorUnits() {
+        return Math.multiplyExact(unitPrice.minorUnits(), quantity);
     }
     
     /**
@@ -0,0 +1,31 @@
+package cn.zm.ddd.domain.model.order;
+
+import cn.zm.ddd.domain.model.product.ProductId;
+
+import java.util.List;
+
+/**
+ * 订单项变更集值对象
+ * 
+ * 记录订单聚合自上次持久化以来新增、修改和移除的订单项，
+ * 仓储据此只写入发生变化的行
+ */
+public record OrderItemChanges(
+    List<OrderItem> added,
+    List<OrderItem> changed,
+    List<ProductId> removed
+) {
+    
+    public OrderItemChanges {
+        added = List.copyOf(added);
+        changed = List.copyOf(changed);
+        removed = List.copyOf(removed);
+    }
+    
+    /**
+     * 检查是否没有任何变更
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+}
\ No newline at end of file
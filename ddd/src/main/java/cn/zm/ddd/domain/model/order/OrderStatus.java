@@ -43,4 +43,11 @@ public enum OrderStatus {
     public boolean canBeRefunded() {
         return this == PAID || this == SHIPPED || this == DELIVERED;
     }
+    
+    /**
+     * 检查是否已收款（支付之后、退款或取消之前）
+     */
+    public boolean isPaymentCaptured() {
+        return this == PAID || this == SHIPPED || this == DELIVERED;
+    }
 }
\ No newline at end of file
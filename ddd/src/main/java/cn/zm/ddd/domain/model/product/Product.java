@@ -20,6 +20,10 @@ public class Product {
     private boolean available;
     private LocalDateTime createdAt;
     private LocalDateTime lastModifiedAt;
+    /**
+     * 是否已持久化 - 区分新建聚合与从存储重建的聚合
+     */
+    private boolean persisted;
     
     /**
      * 私有构造函数
@@ -52,6 +56,7 @@ public class Product {
         product.available = available;
         product.createdAt = createdAt;
         product.lastModifiedAt = lastModifiedAt;
+        product.persisted = true;
         return product;
     }
     
@@ -183,6 +188,21 @@ public class Product {
         return stockQuantity;
     }
     
+    /**
+     * 检查是否为尚未持久化的新聚合
+     */
+    public boolean isNew() {
+        return !persisted;
+    }
+    
+    /**
+     * 标记聚合已持久化
+     * 由仓储在首次插入后调用
+     */
+    public void markPersisted() {
+        this.persisted = true;
+    }
+    
     // Getters
     public ProductId getId() {
         return id;
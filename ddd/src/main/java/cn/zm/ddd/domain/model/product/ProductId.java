@@ -1,28 +1,52 @@
 package cn.zm.ddd.domain.model.product;
 
-import cn.zm.ddd.shared.valueobject.EntityId;
+import cn.zm.ddd.shared.valueobject.TimeOrderedUuidGenerator;
+import cn.zm.ddd.shared.valueobject.UuidCodec;
+
+import java.util.UUID;
 
 /**
  * 商品ID值对象
  */
-public record ProductId(String value) {
+public record ProductId(UUID uuid) {
     
     public ProductId {
-        if (value == null || value.isBlank()) {
+        if (uuid == null) {
             throw new IllegalArgumentException("商品ID不能为空");
         }
     }
     
     public static ProductId generate() {
-        return new ProductId(EntityId.generate().value());
+        return new ProductId(TimeOrderedUuidGenerator.generate());
     }
     
     public static ProductId of(String value) {
-        return new ProductId(value);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("商品ID不能为空");
+        }
+        return new ProductId(UuidCodec.parse(value, "商品ID格式不正确"));
+    }
+    
+    public static ProductId of(UUID uuid) {
+        return new ProductId(uuid);
+    }
+    
+    /**
+     * 小写的标准字符串形式，按需生成
+     */
+    public String value() {
+        return uuid.toString();
+    }
+    
+    /**
+     * 转换为UUID，用于二进制存储
+     */
+    public UUID toUuid() {
+        return uuid;
     }
     
     @Override
     public String toString() {
-        return value;
+        return value();
     }
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import cn.zm.ddd.domain.model.customer.Customer;
 import cn.zm.ddd.domain.model.customer.CustomerId;
 import cn.zm.ddd.shared.valueobject.Email;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 客户仓储接口
@@ -32,6 +35,15 @@ public interface CustomerRepository {
      */
     Optional<Customer> findById(CustomerId customerId);
     
+    /**
+     * 根据ID批量查找客户
+     * 不存在的ID会被忽略，返回顺序与参数顺序无关
+     * 
+     * @param customerIds 客户ID
+     * @return 存在的客户
+     */
+    List<Customer> findAllById(Collection<CustomerId> customerIds);
+    
     /**
      * 根据邮箱查找客户
      * 
@@ -48,6 +60,14 @@ public interface CustomerRepository {
      */
     boolean existsByEmail(Email email);
     
+    /**
+     * 批量检查邮箱是否已存在
+     * 
+     * @param emails 邮箱地址
+     * @return 其中已被注册的邮箱
+     */
+    Set<Email> findExistingEmails(Collection<Email> emails);
+    
     /**
      * 删除客户
      * 
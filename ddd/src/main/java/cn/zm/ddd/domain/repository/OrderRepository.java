@@ -5,8 +5,12 @@ import cn.zm.ddd.domain.model.order.OrderId;
 import cn.zm.ddd.domain.model.order.OrderStatus;
 import cn.zm.ddd.domain.model.customer.CustomerId;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 订单仓储接口
@@ -24,9 +28,10 @@ public interface OrderRepository {
     Optional<Order> findById(OrderId orderId);
     
     /**
-     * 查找客户的所有订单
+     * 根据ID批量查找订单
+     * 不存在的ID会被忽略，返回顺序与参数顺序无关
      */
-    List<Order> findByCustomerId(CustomerId customerId);
+    List<Order> findAllById(Collection<OrderId> orderIds);
     
     /**
      * 根据状态查找订单
@@ -38,6 +43,20 @@ public interface OrderRepository {
      */
     List<Order> findByCustomerIdAndStatus(CustomerId customerId, OrderStatus status);
     
+    /**
+     * 查找创建时间早于createdBefore的特定状态订单ID，先创建的在前，最多limit条
+     */
+    List<OrderId> findIdsByStatusAndCreatedBefore(OrderStatus status, LocalDateTime createdBefore, int limit);
+    
+    /**
+     * 批量变更订单状态，不加载聚合
+     * 以一条条件更新完成，只有当前状态属于fromStatuses的订单变更为status，订单摘要同步变更
+     * 
+     * @return 各订单变更前的状态，不存在的订单不在结果中；状态属于fromStatuses的即为已变更
+     */
+    Map<OrderId, OrderStatus> transitionAll(Collection<OrderId> orderIds, Set<OrderStatus> fromStatuses,
+                                            OrderStatus status, LocalDateTime modifiedAt);
+    
     /**
      * 删除订单
      */
@@ -3,6 +3,7 @@ package cn.zm.ddd.domain.repository;
 import cn.zm.ddd.domain.model.product.Product;
 import cn.zm.ddd.domain.model.product.ProductId;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,21 +22,44 @@ public interface ProductRepository {
      */
     Optional<Product> findById(ProductId productId);
     
+    /**
+     * 根据ID批量查找商品
+     * 不存在的ID会被忽略，返回顺序与参数顺序无关
+     */
+    List<Product> findAllById(Collection<ProductId> productIds);
+    
     /**
      * 查找所有可用商品
      */
     List<Product> findAllAvailable();
     
     /**
-     * 根据名称搜索商品
+     * 按名称和描述搜索商品
+     * 关键词按空白拆分，每个词都须出现在名称或描述中，结果按相关度排序
+     * 
+     * @param limit 最多返回的商品数
      */
-    List<Product> findByNameContaining(String name);
+    List<Product> search(String keyword, int limit);
     
     /**
      * 查找库存不足的商品
      */
     List<Product> findLowStockProducts(int threshold);
     
+    /**
+     * 预留库存
+     * 
+     * 以一条带条件的更新原子地扣减库存，不在应用代码中持有行锁
+     * 
+     * @return 商品在售且库存充足并扣减成功时返回true
+     */
+    boolean reserveStock(ProductId productId, int quantity);
+    
+    /**
+     * 原子增加库存
+     */
+    void increaseStock(ProductId productId, int quantity);
+    
     /**
      * 删除商品
      */
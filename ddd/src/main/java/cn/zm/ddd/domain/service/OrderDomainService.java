@@ -3,12 +3,16 @@ package cn.zm.ddd.domain.service;
 import cn.zm.ddd.domain.model.customer.CustomerType;
 import cn.zm.ddd.domain.model.customer.Customer;
 import cn.zm.ddd.domain.model.order.Order;
+import cn.zm.ddd.domain.model.order.OrderItem;
 import cn.zm.ddd.domain.model.product.Product;
 import cn.zm.ddd.domain.model.product.ProductId;
 import cn.zm.ddd.domain.repository.ProductRepository;
 import cn.zm.ddd.shared.exception.BusinessRuleException;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 订单领域服务
@@ -21,6 +25,9 @@ import java.util.Objects;
  */
 public class OrderDomainService {
     
+    private static final java.math.BigDecimal VIP_DISCOUNT_RATE = new java.math.BigDecimal("0.05");
+    private static final java.math.BigDecimal ENTERPRISE_DISCOUNT_RATE = new java.math.BigDecimal("0.10");
+    
     private final ProductRepository productRepository;
     
     public OrderDomainService(ProductRepository productRepository) {
@@ -55,11 +62,11 @@ public class OrderDomainService {
         // 添加商品到订单
         order.addItem(productId, product.getName(), product.getPrice(), quantity);
         
-        // 减少商品库存
-        product.reduceStock(quantity);
-        
-        // 保存商品库存变更
-        productRepository.save(product);
+        // 原子扣减库存：并发下单时以数据库条件更新为准，避免读-改-写竞争
+        if (!productRepository.reserveStock(productId, quantity)) {
+            throw new BusinessRuleException(
+                String.format("商品库存不足，商品：%s，请求数量：%d", product.getName(), quantity));
+        }
     }
     
     /**
@@ -74,12 +81,12 @@ public class OrderDomainService {
         
         // VIP客户享受5%折扣
         if (customer.getType() == CustomerType.VIP) {
-            return new java.math.BigDecimal("0.05");
+            return VIP_DISCOUNT_RATE;
         }
         
         // 企业客户享受10%折扣
         if (customer.getType() == CustomerType.ENTERPRISE) {
-            return new java.math.BigDecimal("0.10");
+            return ENTERPRISE_DISCOUNT_RATE;
         }
         
         return java.math.BigDecimal.ZERO;
@@ -97,10 +104,17 @@ public class OrderDomainService {
             throw new BusinessRuleException("订单金额为零无法支付");
         }
         
-        // 验证所有商品仍然可用且有库存
+        // 一次加载订单中的全部商品，验证所有商品仍然可用且有库存
+        Map<ProductId, Product> products = productRepository.findAllById(
+                order.getItems().stream().map(OrderItem::productId).toList())
+            .stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
         for (var item : order.getItems()) {
-            Product product = productRepository.findById(item.productId())
-                .orElseThrow(() -> new BusinessRuleException("订单中的商品不存在: " + item.productId()));
+            Product product = products.get(item.productId());
+            if (product == null) {
+                throw new BusinessRuleException("订单中的商品不存在: " + item.productId());
+            }
             
             if (!product.isAvailable()) {
                 throw new BusinessRuleException("订单中包含已下架商品: " + product.getName());
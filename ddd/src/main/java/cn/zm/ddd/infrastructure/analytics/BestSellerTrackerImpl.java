@@ -0,0 +1,91 @@
+package cn.zm.ddd.infrastructure.analytics;
+
+import cn.zm.ddd.application.analytics.BestSellerTracker;
+import cn.zm.ddd.application.analytics.BestSellerWindow;
+import cn.zm.ddd.application.dto.BestSellersDto;
+import cn.zm.ddd.domain.model.order.Order;
+import cn.zm.ddd.domain.model.order.OrderItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热销商品跟踪器实现 - 滑动窗口Space-Saving摘要
+ * 
+ * 每个窗口一个SlidingTopK，按商品ID累加支付的商品数量。
+ * 单实例内存统计，重启后从零开始；多实例部署时各实例只统计本实例处理的支付
+ */
+@Component
+public class BestSellerTrackerImpl implements BestSellerTracker {
+    
+    private final Map<BestSellerWindow, SlidingTopK> windows = new EnumMap<>(BestSellerWindow.class);
+    private final Clock clock;
+    
+    public BestSellerTrackerImpl(@Value("${ddd.analytics.best-sellers.capacity:1000}") int capacity,
+                                 @Value("${ddd.analytics.best-sellers.slots:24}") int slots) {
+        this.clock = Clock.systemDefaultZone();
+        for (BestSellerWindow window : BestSellerWindow.values()) {
+            windows.put(window, new SlidingTopK(window.getLength().toMillis(), slots, capacity));
+        }
+    }
+    
+    @Override
+    public void recordPaid(Order order) {
+        List<OrderItem> items = order.getItems();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(items);
+                }
+            });
+        } else {
+            record(items);
+        }
+    }
+    
+    private void record(List<OrderItem> items) {
+        long now = clock.millis();
+        for (OrderItem item : items) {
+            for (SlidingTopK window : windows.values()) {
+                window.add(item.productId().value(), item.productName(), item.quantity(), now);
+            }
+        }
+    }
+    
+    @Override
+    public BestSellersDto topProducts(BestSellerWindow window, int limit) {
+        if (window == null) {
+            throw new IllegalArgumentException("统计窗口不能为空");
+        }
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("返回数量必须在1-" + MAX_LIMIT + "之间");
+        }
+        
+        SlidingTopK.Snapshot snapshot = windows.get(window).top(limit, clock.millis());
+        return new BestSellersDto(
+            window.name(),
+            window.getDescription(),
+            toDateTime(snapshot.fromMillis()),
+            toDateTime(snapshot.toMillis()),
+            snapshot.total(),
+            snapshot.maxError(),
+            snapshot.top().stream()
+                .map(estimate -> new BestSellersDto.BestSellerDto(estimate.key(), estimate.label(),
+                    estimate.estimate(), estimate.guaranteed()))
+                .toList()
+        );
+    }
+    
+    private LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package cn.zm.ddd.infrastructure.analytics;
+
+import cn.zm.ddd.application.analytics.SalesAnalyticsRecorder;
+import cn.zm.ddd.domain.model.customer.CustomerType;
+import cn.zm.ddd.domain.model.order.Order;
+import cn.zm.ddd.domain.model.order.OrderItem;
+import cn.zm.ddd.domain.model.order.OrderStatus;
+import cn.zm.ddd.infrastructure.mapper.SalesBucketMapper;
+import cn.zm.ddd.infrastructure.persistence.SalesBucketEntity;
+import cn.zm.ddd.infrastructure.repository.AggregateWriter;
+import cn.zm.ddd.infrastructure.repository.UnitOfWork;
+import cn.zm.ddd.shared.valueobject.Money;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 销售统计记录器实现 - 增量汇总桶
+ * 
+ * 1. 每次状态变化生成全站、客户类型、各商品三类增量，登记到工作单元
+ * 2. 同一事务内同一个桶的增量先在内存中合并，提交前每个桶只执行一条MERGE
+ * 3. 汇总写入器排在所有业务聚合之后，并按桶主键排序写入，
+ *    全站当日桶这类热点行的行锁只在提交前短暂持有，并发事务加锁顺序一致不会互相死锁
+ * 4. 订单折扣按商品小计比例分摊到各商品，商品金额之和等于订单实付金额
+ */
+@Component
+public class SalesAnalyticsRecorderImpl implements SalesAnalyticsRecorder {
+    
+    private static final Comparator<BucketKey> WRITE_ORDER = Comparator.comparing(BucketKey::dimension)
+        .thenComparing(BucketKey::saleDate)
+        .thenComparing(BucketKey::bucketKey)
+        .thenComparing(BucketKey::currency);
+    
+    private final SalesBucketMapper salesBucketMapper;
+    private final UnitOfWork unitOfWork;
+    private final AggregateWriter<SalesBucketEntity> writer =
+        new AggregateWriter<>("sales", AggregateWriter.ANALYTICS_ORDER, this::writeAll);
+    
+    public SalesAnalyticsRecorderImpl(SalesBucketMapper salesBucketMapper, UnitOfWork unitOfWork) {
+        this.salesBucketMapper = Objects.requireNonNull(salesBucketMapper, "销售统计Mapper不能为空");
+        this.unitOfWork = Objects.requireNonNull(unitOfWork, "工作单元不能为空");
+    }
+    
+    @Override
+    public void recordTransition(Order order, OrderStatus previousStatus, CustomerType customerType) {
+        OrderStatus status = order.getStatus();
+        if (status != OrderStatus.PAID && status != OrderStatus.REFUNDED && status != OrderStatus.CANCELLED) {
+            return;
+        }
+        
+        // 支付计入实付金额；退款和已支付订单的取消冲减实付金额；待支付订单的取消只计数
+        long amount = status == OrderStatus.PAID || previousStatus.isPaymentCaptured()
+            ? order.getTotalAmount().minorUnits() : 0;
+        Currency currency = order.getTotalAmount().currency();
+        LocalDate saleDate = order.getLastModifiedAt().toLocalDate();
+        
+        register(delta(SalesBucketEntity.DAY, saleDate, SalesBucketEntity.ALL, currency, null,
+            status, order.getTotalQuantity(), amount));
+        register(delta(SalesBucketEntity.CUSTOMER_TYPE, saleDate, customerType.name(), currency,
+            customerType.getDescription(), status, order.getTotalQuantity(), amount));
+        
+        List<OrderItem> items = order.getItems();
+        long itemsTotal = items.stream().mapToLong(OrderItem::subtotalMinorUnits).sum();
+        long allocated = 0;
+        for (int i = 0; i < items.size(); i++) {
+            OrderItem item = items.get(i);
+            // 最后一项取剩余金额，分摊的舍入误差不会让商品合计偏离订单金额
+            long itemAmount = i == items.size() - 1
+                ? amount - allocated
+                : allocate(item.subtotalMinorUnits(), amount, itemsTotal);
+            allocated += itemAmount;
+            register(delta(SalesBucketEntity.PRODUCT, saleDate, item.productId().value(), currency,
+                item.productName(), status, item.quantity(), itemAmount));
+        }
+    }
+    
+    /**
+     * 按小计占比分摊订单金额；无折扣时直接取小计
+     */
+    private static long allocate(long subtotal, long amount, long itemsTotal) {
+        if (amount == itemsTotal) {
+            return subtotal;
+        }
+        if (itemsTotal == 0) {
+            return 0;
+        }
+        return BigDecimal.valueOf(subtotal).multiply(BigDecimal.valueOf(amount))
+            .divide(BigDecimal.valueOf(itemsTotal), 0, RoundingMode.DOWN)
+            .longValueExact();
+    }
+    
+    private static SalesBucketEntity delta(String dimension, LocalDate saleDate, String bucketKey,
+                                           Currency currency, String label, OrderStatus status,
+                                           long quantity, long amountMinorUnits) {
+        SalesBucketEntity delta = SalesBucketEntity.of(dimension, saleDate, bucketKey,
+            currency.getCurrencyCode(), label);
+        BigDecimal amount = Money.ofMinorUnits(amountMinorUnits, currency).amount();
+        switch (status) {
+            case PAID -> {
+                delta.setPaidOrders(1);
+                delta.setPaidQuantity(quantity);
+                delta.setPaidAmount(amount);
+            }
+            case REFUNDED -> {
+                delta.setRefundedOrders(1);
+                delta.setRefundedQuantity(quantity);
+                delta.setRefundedAmount(amount);
+            }
+            default -> {
+                delta.setCancelledOrders(1);
+                delta.setCancelledQuantity(quantity);
+                delta.setCancelledAmount(amount);
+            }
+        }
+        return delta;
+    }
+    
+    /**
+     * 登记增量，同一事务内已有同一个桶的增量时直接合并
+     */
+    private void register(SalesBucketEntity delta) {
+        BucketKey key = BucketKey.of(delta);
+        unitOfWork.findPending(writer, key).ifPresentOrElse(
+            pending -> pending.add(delta),
+            () -> unitOfWork.registerDirty(writer, key, delta));
+    }
+    
+    /**
+     * 按桶主键顺序逐桶累加
+     */
+    private void writeAll(List<SalesBucketEntity> deltas) {
+        deltas.stream()
+            .sorted(Comparator.comparing(BucketKey::of, WRITE_ORDER))
+            .forEach(this::increment);
+    }
+    
+    /**
+     * 并发事务同时创建同一个新桶时，后提交者的插入因主键冲突失败，
+     * 此时桶已存在，重试一次即走累加分支
+     */
+    private void increment(SalesBucketEntity delta) {
+        try {
+            salesBucketMapper.increment(delta);
+        } catch (DuplicateKeyException e) {
+            salesBucketMapper.increment(delta);
+        }
+    }
+    
+    /**
+     * 汇总桶主键
+     */
+    private record BucketKey(String dimension, LocalDate saleDate, String bucketKey, String currency) {
+        
+        static BucketKey of(SalesBucketEntity entity) {
+            return new BucketKey(entity.getDimension(), entity.getSaleDate(),
+                entity.getBucketKey(), entity.getCurrency());
+        }
+    }
+}
\ No newline at end of file
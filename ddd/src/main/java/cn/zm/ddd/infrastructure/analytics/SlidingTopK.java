@@ -0,0 +1,138 @@
+package cn.zm.ddd.infrastructure.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 滑动时间窗口上的热门元素统计
+ * 
+ * 窗口切成slotCount个等长时间片，每个时间片一个Space-Saving摘要，按环形数组复用：
+ * 写入落在当前时间片，时间片过期后第一次写入时清空重用；查询合并窗口内的全部时间片。
+ * 窗口实际覆盖(windowLength - slotLength, windowLength]的时间，粒度为一个时间片。
+ * 
+ * 合并后对任意元素，设各时间片最小计数之和为maxError（不超过窗口内总权重 / capacity）：
+ * 1. 估计值 = 出现的时间片计数之和 + 未出现的时间片最小计数之和，真实值 <= 估计值 <= 真实值 + maxError
+ * 2. 保证值 = 出现的时间片(计数 - 误差)之和，保证值 <= 真实值
+ * 3. 窗口内真实值超过maxError的元素必定至少在一个时间片中被监控，不会漏报
+ * 
+ * 内存上界为slotCount × capacity个计数器。写入O(log capacity)，查询O(slotCount × capacity)，
+ * 两者在同一把锁上串行。使用ReentrantLock而不是synchronized，
+ * 虚拟线程在锁上等待时释放载体线程，不会在高并发下占满载体线程
+ */
+public final class SlidingTopK {
+    
+    private final long slotMillis;
+    private final SpaceSaving[] slots;
+    private final long[] slotEpochs;
+    private final Lock lock = new ReentrantLock();
+    
+    public SlidingTopK(long windowMillis, int slotCount, int capacity) {
+        if (slotCount <= 0 || windowMillis < slotCount) {
+            throw new IllegalArgumentException("时间片数量必须大于0且不超过窗口毫秒数");
+        }
+        this.slotMillis = windowMillis / slotCount;
+        this.slots = new SpaceSaving[slotCount];
+        this.slotEpochs = new long[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new SpaceSaving(capacity);
+            slotEpochs[i] = Long.MIN_VALUE;
+        }
+    }
+    
+    /**
+     * 在时间点nowMillis累加元素权重
+     */
+    public void add(String key, String label, long weight, long nowMillis) {
+        long epoch = nowMillis / slotMillis;
+        int slot = (int) Math.floorMod(epoch, (long) slots.length);
+        lock.lock();
+        try {
+            if (slotEpochs[slot] != epoch) {
+                slots[slot].clear();
+                slotEpochs[slot] = epoch;
+            }
+            slots[slot].add(key, label, weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 查询截至nowMillis的窗口内估计值最大的limit个元素
+     */
+    public Snapshot top(int limit, long nowMillis) {
+        long currentEpoch = nowMillis / slotMillis;
+        long oldestEpoch = currentEpoch - slots.length + 1;
+        
+        long total = 0;
+        long maxError = 0;
+        Map<String, Accumulator> candidates = new HashMap<>();
+        // 只在合并时间片时持锁，排序在锁外进行
+        lock.lock();
+        try {
+            for (int i = 0; i < slots.length; i++) {
+                if (slotEpochs[i] < oldestEpoch || slotEpochs[i] > currentEpoch) {
+                    continue;
+                }
+                
+                SpaceSaving slot = slots[i];
+                long min = slot.minCount();
+                total += slot.total();
+                maxError += min;
+                // 估计值 = 所有时间片最小计数之和 + 出现的时间片中(计数 - 最小计数)之和
+                slot.forEach(counter -> candidates.computeIfAbsent(counter.key(), key -> new Accumulator())
+                    .add(counter, min));
+            }
+        } finally {
+            lock.unlock();
+        }
+        
+        long sumOfMins = maxError;
+        List<Estimate> estimates = new ArrayList<>(candidates.size());
+        candidates.forEach((key, accumulator) -> estimates.add(new Estimate(key, accumulator.label,
+            sumOfMins + accumulator.excess, accumulator.guaranteed)));
+        estimates.sort(Comparator.comparingLong(Estimate::estimate).reversed()
+            .thenComparing(Estimate::key));
+        
+        return new Snapshot(oldestEpoch * slotMillis, nowMillis, total, maxError,
+            List.copyOf(estimates.subList(0, Math.min(limit, estimates.size()))));
+    }
+    
+    private static final class Accumulator {
+        
+        private String label;
+        private long excess;
+        private long guaranteed;
+        
+        void add(SpaceSaving.Counter counter, long min) {
+            label = counter.label();
+            excess += counter.count() - min;
+            guaranteed += counter.count() - counter.error();
+        }
+    }
+    
+    /**
+     * 单个元素的窗口估计
+     * 
+     * @param estimate 估计值，真实值的上界
+     * @param guaranteed 保证值，真实值的下界
+     */
+    public record Estimate(String key, String label, long estimate, long guaranteed) {
+    }
+    
+    /**
+     * 窗口查询结果
+     * 
+     * @param fromMillis 窗口内最早时间片的起点
+     * @param toMillis 查询时间点
+     * @param total 窗口内总权重（精确值）
+     * @param maxError 估计值相对真实值的最大偏高量
+     */
+    public record Snapshot(long fromMillis, long toMillis, long total, long maxError, List<Estimate> top) {
+    }
+}
\ No newline at end of file
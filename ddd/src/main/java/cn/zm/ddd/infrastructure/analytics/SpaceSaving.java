@@ -0,0 +1,184 @@
+package cn.zm.ddd.infrastructure.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Space-Saving热门元素摘要（带权重）
+ * 
+ * 固定保留capacity个计数器：
+ * 1. 已监控的元素直接累加权重
+ * 2. 未监控的元素在计数器未满时新建计数器，满了则顶替计数最小的计数器，
+ *    新计数 = 被顶替的最小计数 + 权重，并把最小计数记为该计数器的误差
+ * 
+ * 设摘要内总权重为N，最小计数min满足min <= N / capacity，且对任意元素：
+ * 1. 已监控元素：count - error <= 真实值 <= count
+ * 2. 未监控元素：真实值 <= min
+ * 计数器按最小堆组织，每次更新O(log capacity)。非线程安全，由调用方加锁
+ */
+public final class SpaceSaving {
+    
+    private final int capacity;
+    private final Map<String, Counter> index;
+    private final Counter[] heap;
+    private int size;
+    private long total;
+    
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("计数器数量必须大于0");
+        }
+        this.capacity = capacity;
+        this.index = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+    
+    /**
+     * 累加元素权重
+     * 
+     * @param key 元素标识
+     * @param label 元素展示名称，保留最近一次的值
+     * @param weight 权重，必须大于0
+     */
+    public void add(String key, String label, long weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("权重必须大于0");
+        }
+        total += weight;
+        
+        Counter counter = index.get(key);
+        if (counter != null) {
+            counter.count += weight;
+            counter.label = label;
+            siftDown(counter.position);
+            return;
+        }
+        
+        if (size < capacity) {
+            counter = new Counter(key, label, weight, 0);
+            counter.position = size;
+            heap[size++] = counter;
+            index.put(key, counter);
+            siftUp(counter.position);
+            return;
+        }
+        
+        // 顶替计数最小的计数器，被顶替元素此前的计数全部记为新元素的误差
+        counter = heap[0];
+        index.remove(counter.key);
+        counter.key = key;
+        counter.label = label;
+        counter.error = counter.count;
+        counter.count += weight;
+        index.put(key, counter);
+        siftDown(0);
+    }
+    
+    /**
+     * 未监控元素真实值的上界，计数器未满时为0
+     */
+    public long minCount() {
+        return size < capacity ? 0 : heap[0].count;
+    }
+    
+    /**
+     * 摘要内的总权重
+     */
+    public long total() {
+        return total;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        index.clear();
+        size = 0;
+        total = 0;
+    }
+    
+    /**
+     * 遍历当前监控的计数器，顺序不确定
+     */
+    public void forEach(Consumer<Counter> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(heap[i]);
+        }
+    }
+    
+    private void siftUp(int position) {
+        Counter counter = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(counter, position);
+    }
+    
+    private void siftDown(int position) {
+        Counter counter = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count) {
+                child = right;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], position);
+            position = child;
+        }
+        place(counter, position);
+    }
+    
+    private void place(Counter counter, int position) {
+        heap[position] = counter;
+        counter.position = position;
+    }
+    
+    /**
+     * 单个元素的计数器，count为估计值（上界），count - error为下界
+     */
+    public static final class Counter {
+        
+        private String key;
+        private String label;
+        private long count;
+        private long error;
+        private int position;
+        
+        private Counter(String key, String label, long count, long error) {
+            this.key = key;
+            this.label = label;
+            this.count = count;
+            this.error = error;
+        }
+        
+        public String key() {
+            return key;
+        }
+        
+        public String label() {
+            return label;
+        }
+        
+        public long count() {
+            return count;
+        }
+        
+        public long error() {
+            return error;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package cn.zm.ddd.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 布隆过滤器 - 字符串成员的快速否定判断
+ * 
+ * 过滤器的特点：
+ * 1. mightContain返回false时元素一定不存在，返回true时可能存在（按误判率）
+ * 2. 只能添加不能删除，元素删除或变更后残留的位只会增加误判，不会漏判
+ * 3. 按预期元素数和误判率计算位数组大小和哈希函数个数，线程安全无锁
+ * 4. 装载完成前视为全部可能存在，调用方应回退到数据库判断
+ */
+public class BloomFilter {
+    
+    private final String name;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLongArray bits;
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private volatile boolean ready;
+    
+    public BloomFilter(String name, long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("预期元素数必须大于0");
+        }
+        
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("误判率必须在0和1之间");
+        }
+        
+        this.name = name;
+        // m = -n·ln(p) / (ln2)²，k = m/n·ln2
+        long size = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitSize = Math.max(64, (size + 63) / 64 * 64);
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (bitSize / 64));
+    }
+    
+    /**
+     * 添加元素
+     */
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = bitIndex(h1 + i * h2);
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+    
+    /**
+     * 判断元素是否可能存在
+     * 
+     * @return false表示一定不存在
+     */
+    public boolean mightContain(String value) {
+        if (!ready) {
+            return true;
+        }
+        
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = bitIndex(h1 + i * h2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                negatives.increment();
+                return false;
+            }
+        }
+        
+        positives.increment();
+        return true;
+    }
+    
+    /**
+     * 标记已装载全部现有元素，此后才会给出否定判断
+     */
+    public void markReady() {
+        this.ready = true;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    public long bitSize() {
+        return bitSize;
+    }
+    
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+    
+    /**
+     * 判定为一定不存在的次数
+     */
+    public long negativeCount() {
+        return negatives.sum();
+    }
+    
+    /**
+     * 判定为可能存在的次数
+     */
+    public long positiveCount() {
+        return positives.sum();
+    }
+    
+    private long bitIndex(int combinedHash) {
+        // 取非负值后按位数组大小取模，位数组大小是64的倍数
+        return (combinedHash & Integer.MAX_VALUE) % bitSize;
+    }
+    
+    /**
+     * 64位FNV-1a哈希，再经murmur3的finalizer打散高低位
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
\ No newline at end of file
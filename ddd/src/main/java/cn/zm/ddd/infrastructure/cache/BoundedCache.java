@@ -0,0 +1,231 @@
+package cn.zm.ddd.infrastructure.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 有界读穿缓存
+ * 
+ * 缓存的特点：
+ * 1. 按最近最少使用淘汰，条目数不超过上限
+ * 2. 条目写入后超过存活时间即过期
+ * 3. 失效操作在当前事务结束后会再执行一次，避免提交前被其他线程读回旧值
+ * 4. 加载期间发生过失效的结果不写入缓存
+ * 5. 统计命中、未命中、写入和淘汰次数
+ */
+public class BoundedCache<K, V> {
+    
+    private final String name;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public BoundedCache(String name, int maximumSize, Duration ttl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("缓存容量必须大于0");
+        }
+        
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("缓存存活时间必须大于0");
+        }
+        
+        this.name = Objects.requireNonNull(name, "缓存名称不能为空");
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+    
+    /**
+     * 读取缓存，未命中时调用loader加载并写入
+     * loader返回空时不缓存
+     */
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        Optional<V> cached = getIfPresent(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        
+        long generation = invalidations.get();
+        Optional<V> loaded = loader.apply(key);
+        loaded.ifPresent(value -> putIfNotInvalidated(key, value, generation));
+        return loaded;
+    }
+    
+    /**
+     * 批量读取缓存，未命中的键交给loader一次性加载
+     * loader返回的Map中没有的键视为不存在，不缓存
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        Map<K, V> result = new LinkedHashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            getIfPresent(key).ifPresentOrElse(value -> result.put(key, value), () -> missing.add(key));
+        }
+        
+        if (!missing.isEmpty()) {
+            long generation = invalidations.get();
+            Map<K, V> loaded = loader.apply(missing);
+            loaded.forEach((key, value) -> putIfNotInvalidated(key, value, generation));
+            result.putAll(loaded);
+        }
+        return result;
+    }
+    
+    /**
+     * 只读取缓存，不触发加载
+     */
+    public Optional<V> getIfPresent(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            
+            if (entry.isExpired(System.nanoTime())) {
+                entries.remove(key);
+                evictions.increment();
+                misses.increment();
+                return Optional.empty();
+            }
+            
+            hits.increment();
+            return Optional.of(entry.value());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 写入缓存
+     */
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            doPut(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 使缓存条目失效
+     * 处于事务中时，事务结束后再失效一次
+     */
+    public void invalidate(K key) {
+        remove(key);
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(key);
+                }
+            });
+        }
+    }
+    
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            invalidations.incrementAndGet();
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long hitCount() {
+        return hits.sum();
+    }
+    
+    public long missCount() {
+        return misses.sum();
+    }
+    
+    public long putCount() {
+        return puts.sum();
+    }
+    
+    public long evictionCount() {
+        return evictions.sum();
+    }
+    
+    private void remove(K key) {
+        lock.lock();
+        try {
+            invalidations.incrementAndGet();
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void putIfNotInvalidated(K key, V value, long generation) {
+        lock.lock();
+        try {
+            // 加载期间有过失效，加载结果可能已过时
+            if (invalidations.get() == generation) {
+                doPut(key, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void doPut(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        puts.increment();
+        
+        if (entries.size() > maximumSize) {
+            // 访问顺序的LinkedHashMap，第一个条目即最久未使用的条目；过期条目在读取时清理
+            Iterator<K> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+    
+    private record Entry<V>(V value, long expiresAt) {
+        
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package cn.zm.ddd.infrastructure.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.List;
+
+/**
+ * 有界缓存指标
+ * 
+ * 以Micrometer标准缓存指标（cache.gets、cache.puts、cache.evictions、cache.size）发布命中率和淘汰次数
+ */
+public class BoundedCacheMetrics extends CacheMeterBinder<BoundedCache<?, ?>> {
+    
+    public BoundedCacheMetrics(BoundedCache<?, ?> cache) {
+        super(cache, cache.name(), List.<Tag>of());
+    }
+    
+    @Override
+    protected Long size() {
+        BoundedCache<?, ?> cache = getCache();
+        return cache != null ? (long) cache.size() : null;
+    }
+    
+    @Override
+    protected long hitCount() {
+        BoundedCache<?, ?> cache = getCache();
+        return cache != null ? cache.hitCount() : 0;
+    }
+    
+    @Override
+    protected Long missCount() {
+        BoundedCache<?, ?> cache = getCache();
+        return cache != null ? cache.missCount() : null;
+    }
+    
+    @Override
+    protected Long evictionCount() {
+        BoundedCache<?, ?> cache = getCache();
+        return cache != null ? cache.evictionCount() : null;
+    }
+    
+    @Override
+    protected long putCount() {
+        BoundedCache<?, ?> cache = getCache();
+        return cache != null ? cache.putCount() : 0;
+    }
+    
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    }
+}
\ No newline at end of file
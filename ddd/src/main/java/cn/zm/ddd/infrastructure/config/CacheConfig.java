@@ -0,0 +1,94 @@
+package cn.zm.ddd.infrastructure.config;
+
+import cn.zm.ddd.infrastructure.cache.BoundedCache;
+import cn.zm.ddd.infrastructure.cache.BoundedCacheMetrics;
+import cn.zm.ddd.infrastructure.cache.BloomFilter;
+import cn.zm.ddd.infrastructure.persistence.CustomerEntity;
+import cn.zm.ddd.infrastructure.persistence.ProductEntity;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 缓存配置
+ * 
+ * 配置仓储使用的有界缓存及其指标
+ */
+@Configuration
+public class CacheConfig {
+    
+    /**
+     * 商品缓存，按商品ID缓存持久化实体，每次命中时重建聚合
+     */
+    @Bean
+    public BoundedCache<String, ProductEntity> productCache(
+            @Value("${ddd.cache.product.maximum-size:10000}") int maximumSize,
+            @Value("${ddd.cache.product.ttl:10m}") Duration ttl) {
+        return new BoundedCache<>("products", maximumSize, ttl);
+    }
+    
+    @Bean
+    public BoundedCacheMetrics productCacheMetrics(BoundedCache<String, ProductEntity> productCache) {
+        return new BoundedCacheMetrics(productCache);
+    }
+    
+    /**
+     * 客户缓存，按客户ID缓存持久化实体
+     */
+    @Bean
+    public BoundedCache<String, CustomerEntity> customerCache(
+            @Value("${ddd.cache.customer.maximum-size:10000}") int maximumSize,
+            @Value("${ddd.cache.customer.ttl:10m}") Duration ttl) {
+        return new BoundedCache<>("customers", maximumSize, ttl);
+    }
+    
+    /**
+     * 客户邮箱索引缓存，邮箱到客户ID的映射，命中后再从客户缓存读取实体
+     */
+    @Bean
+    public BoundedCache<String, String> customerEmailCache(
+            @Value("${ddd.cache.customer.maximum-size:10000}") int maximumSize,
+            @Value("${ddd.cache.customer.ttl:10m}") Duration ttl) {
+        return new BoundedCache<>("customerEmails", maximumSize, ttl);
+    }
+    
+    @Bean
+    public BoundedCacheMetrics customerCacheMetrics(BoundedCache<String, CustomerEntity> customerCache) {
+        return new BoundedCacheMetrics(customerCache);
+    }
+    
+    @Bean
+    public BoundedCacheMetrics customerEmailCacheMetrics(BoundedCache<String, String> customerEmailCache) {
+        return new BoundedCacheMetrics(customerEmailCache);
+    }
+    
+    /**
+     * 已注册邮箱的布隆过滤器，用于跳过注册时的邮箱唯一性查询
+     */
+    @Bean
+    public BloomFilter customerEmailFilter(
+            @Value("${ddd.cache.customer.email-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${ddd.cache.customer.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        return new BloomFilter("customerEmails", expectedInsertions, falsePositiveRate);
+    }
+    
+    @Bean
+    public MeterBinder customerEmailFilterMetrics(BloomFilter customerEmailFilter) {
+        return registry -> {
+            FunctionCounter.builder("bloom.filter.checks", customerEmailFilter, BloomFilter::negativeCount)
+                .tag("filter", customerEmailFilter.name())
+                .tag("result", "negative")
+                .description("判定为一定不存在、跳过数据库查询的次数")
+                .register(registry);
+            FunctionCounter.builder("bloom.filter.checks", customerEmailFilter, BloomFilter::positiveCount)
+                .tag("filter", customerEmailFilter.name())
+                .tag("result", "positive")
+                .description("判定为可能存在、需要查询数据库的次数")
+                .register(registry);
+        };
+    }
+}
\ No newline at end of file
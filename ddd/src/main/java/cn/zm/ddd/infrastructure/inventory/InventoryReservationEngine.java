@@ -0,0 +1,281 @@
+package cn.zm.ddd.infrastructure.inventory;
+
+import cn.zm.ddd.domain.model.product.ProductId;
+import cn.zm.ddd.infrastructure.mapper.ProductMapper;
+import cn.zm.ddd.infrastructure.persistence.ProductEntity;
+import cn.zm.ddd.shared.valueobject.UuidCodec;
+import com.baomidou.mybatisplus.core.batch.BatchMethod;
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 内存库存预留引擎 - 面向秒杀等热点商品场景
+ * 
+ * 引擎的特点：
+ * 1. 商品首次预留时从数据库加载库存，之后以分段桶在内存中CAS扣减，不再逐笔访问数据库
+ * 2. 预留成功的数量先累计，由后台线程按间隔合并后批量写回数据库
+ * 3. 事务回滚时自动归还本事务的预留
+ * 4. 内存库存是该商品库存的唯一扣减入口，只适用于单实例部署
+ * 
+ * 通过ddd.inventory.engine.enabled开启，默认关闭（使用数据库条件更新）。
+ * 数据库中的库存会落后于内存库存至多一个刷新间隔。
+ */
+@Slf4j
+@Component
+public class InventoryReservationEngine {
+    
+    private static final BatchMethod<StockDeduction> DEDUCT_STOCK =
+        new MybatisBatch.Method<Object>(ProductMapper.class).get("deductReservedStock",
+            deduction -> Map.of(
+                "id", UuidCodec.parse(deduction.productId()),
+                "quantity", deduction.quantity(),
+                "modifiedAt", deduction.modifiedAt()));
+    
+    private final ProductMapper productMapper;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int stripes;
+    private final long flushIntervalMillis;
+    private final boolean virtualThreads;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+    
+    public InventoryReservationEngine(ProductMapper productMapper,
+                                      SqlSessionFactory sqlSessionFactory,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${ddd.inventory.engine.enabled:false}") boolean enabled,
+                                      @Value("${ddd.inventory.engine.stripes:0}") int stripes,
+                                      @Value("${ddd.inventory.engine.flush-interval-ms:100}") long flushIntervalMillis,
+                                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.productMapper = Objects.requireNonNull(productMapper, "商品Mapper不能为空");
+        this.sqlSessionFactory = Objects.requireNonNull(sqlSessionFactory, "SqlSessionFactory不能为空");
+        this.transactionTemplate = new TransactionTemplate(
+            Objects.requireNonNull(transactionManager, "事务管理器不能为空"));
+        this.enabled = enabled;
+        // 未配置时按CPU核数分段
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.virtualThreads = virtualThreads;
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        
+        // 虚拟线程模式下刷新线程同样使用虚拟线程，等待数据库时不占用平台线程
+        flusher = Executors.newSingleThreadScheduledExecutor(virtualThreads
+            ? Thread.ofVirtual().name("inventory-flusher").factory()
+            : Thread.ofPlatform().name("inventory-flusher").daemon(true).factory());
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+            flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("内存库存引擎已启用，分段数：{}，刷新间隔：{}ms", this.stripes, flushIntervalMillis);
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (flusher == null) {
+            return;
+        }
+        
+        flusher.shutdown();
+        // 停机前写回剩余的预留
+        flushQuietly();
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * 预留库存
+     * 
+     * @return 商品存在、在售且库存充足时返回true
+     */
+    public boolean reserve(ProductId productId, int quantity) {
+        Slot slot = slot(productId);
+        if (slot == null || !slot.available) {
+            return false;
+        }
+        
+        if (!slot.stock.tryReserve(quantity)) {
+            return false;
+        }
+        
+        slot.pendingDeduction.addAndGet(quantity);
+        
+        // 事务回滚时归还预留，已写回的部分由负数扣减量在下次刷新时抵消
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        slot.stock.release(quantity);
+                        slot.pendingDeduction.addAndGet(-quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+    
+    /**
+     * 补充内存库存（数据库库存已原子增加之后调用）
+     * 尚未加载的商品无需处理，下次预留时会从数据库加载最新库存；
+     * 事务中补货时等提交后再放入内存，避免回滚后内存多出库存
+     */
+    public void replenish(ProductId productId, int quantity) {
+        Slot slot = slots.get(productId.value());
+        if (slot == null) {
+            return;
+        }
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    slot.stock.release(quantity);
+                }
+            });
+        } else {
+            slot.stock.release(quantity);
+        }
+    }
+    
+    /**
+     * 同步商品的在售状态
+     */
+    public void updateAvailability(ProductId productId, boolean available) {
+        Slot slot = slots.get(productId.value());
+        if (slot != null) {
+            slot.available = available;
+        }
+    }
+    
+    /**
+     * 移除商品的内存库存（商品删除时调用）
+     * 事务中删除时等提交后再移除，回滚后尚未写回的预留仍会由后台刷新写入数据库
+     */
+    public void evict(ProductId productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    slots.remove(productId.value());
+                }
+            });
+        } else {
+            slots.remove(productId.value());
+        }
+    }
+    
+    /**
+     * 当前内存中的可用库存，未加载时返回-1
+     */
+    public long available(ProductId productId) {
+        Slot slot = slots.get(productId.value());
+        return slot != null ? slot.stock.available() : -1;
+    }
+    
+    /**
+     * 把累计的预留量合并后批量写回数据库
+     */
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockDeduction> deductions = new ArrayList<>();
+        List<Slot> drained = new ArrayList<>();
+        slots.forEach((productId, slot) -> {
+            int quantity = slot.pendingDeduction.getAndSet(0);
+            if (quantity != 0) {
+                deductions.add(new StockDeduction(productId, quantity, now));
+                drained.add(slot);
+            }
+        });
+        
+        if (deductions.isEmpty()) {
+            return;
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                new MybatisBatch<>(sqlSessionFactory, deductions).execute(DEDUCT_STOCK));
+        } catch (RuntimeException e) {
+            // 写回失败时把扣减量放回，下次刷新重试
+            for (int i = 0; i < deductions.size(); i++) {
+                drained.get(i).pendingDeduction.addAndGet(deductions.get(i).quantity());
+            }
+            throw e;
+        }
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("内存库存写回失败，将在下次刷新时重试", e);
+        }
+    }
+    
+    /**
+     * 获取商品的内存库存，首次访问时从数据库加载
+     * 加载在Map的锁之外进行，并发加载时只保留先放入的一份
+     */
+    private Slot slot(ProductId productId) {
+        Slot slot = slots.get(productId.value());
+        if (slot != null) {
+            return slot;
+        }
+        
+        ProductEntity entity = productMapper.selectById(productId.toUuid());
+        if (entity == null) {
+            return null;
+        }
+        
+        Slot loaded = new Slot(new StripedStock(stripes, entity.getStockQuantity()),
+            Boolean.TRUE.equals(entity.getAvailable()));
+        Slot existing = slots.putIfAbsent(productId.value(), loaded);
+        return existing != null ? existing : loaded;
+    }
+    
+    /**
+     * 单个商品的内存库存
+     */
+    private static final class Slot {
+        private final StripedStock stock;
+        private final AtomicInteger pendingDeduction = new AtomicInteger();
+        private volatile boolean available;
+        
+        private Slot(StripedStock stock, boolean available) {
+            this.stock = stock;
+            this.available = available;
+        }
+    }
+    
+    /**
+     * 待写回数据库的库存扣减量
+     */
+    record StockDeduction(String productId, int quantity, LocalDateTime modifiedAt) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package cn.zm.ddd.infrastructure.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分段库存计数器
+ * 
+ * 把单个商品的库存拆分到多个桶中，降低热点商品的竞争：
+ * 1. 快速路径 - 线程在自己的桶上做无锁CAS扣减
+ * 2. 慢速路径 - 自己的桶不足时加锁，回收所有桶的余量后重新均分
+ * 3. 每个库存单位任一时刻只属于一个桶，扣减都以CAS保证非负，因此不会超卖
+ */
+public final class StripedStock {
+    
+    /**
+     * 每个桶占用16个long（128字节），避免相邻桶落在同一缓存行造成伪共享
+     */
+    private static final int PADDING = 16;
+    
+    private final int stripes;
+    private final AtomicLongArray buckets;
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+    
+    public StripedStock(int stripes, long initialStock) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("库存分段数必须大于0");
+        }
+        
+        if (initialStock < 0) {
+            throw new IllegalArgumentException("库存数量不能为负数");
+        }
+        
+        this.stripes = stripes;
+        this.buckets = new AtomicLongArray(stripes * PADDING);
+        distribute(initialStock);
+    }
+    
+    /**
+     * 尝试预留库存
+     * 
+     * @return 库存充足并扣减成功返回true
+     */
+    public boolean tryReserve(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("预留数量必须大于0");
+        }
+        
+        if (tryTake(homeIndex(), quantity)) {
+            return true;
+        }
+        
+        return reserveWithRebalance(quantity);
+    }
+    
+    /**
+     * 归还库存（补货或回滚预留）
+     */
+    public void release(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("归还数量必须大于0");
+        }
+        
+        buckets.addAndGet(homeIndex(), quantity);
+    }
+    
+    /**
+     * 当前可用库存
+     * 并发修改时为近似值
+     */
+    public long available() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += buckets.get(i * PADDING);
+        }
+        return total;
+    }
+    
+    public int stripes() {
+        return stripes;
+    }
+    
+    /**
+     * 在指定桶上CAS扣减，余量不足时失败
+     */
+    private boolean tryTake(int index, int quantity) {
+        while (true) {
+            long current = buckets.get(index);
+            if (current < quantity) {
+                return false;
+            }
+            
+            if (buckets.compareAndSet(index, current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * 慢速路径：本桶耗尽时回收全部桶的余量，扣减后重新均分
+     */
+    private boolean reserveWithRebalance(int quantity) {
+        rebalanceLock.lock();
+        try {
+            // 等锁期间其他线程可能已完成均衡
+            if (tryTake(homeIndex(), quantity)) {
+                return true;
+            }
+            
+            long total = 0;
+            for (int i = 0; i < stripes; i++) {
+                total += buckets.getAndSet(i * PADDING, 0);
+            }
+            
+            boolean reserved = total >= quantity;
+            distribute(reserved ? total - quantity : total);
+            return reserved;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+    
+    private void distribute(long total) {
+        long share = total / stripes;
+        long remainder = total % stripes;
+        for (int i = 0; i < stripes; i++) {
+            buckets.addAndGet(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+    
+    private int homeIndex() {
+        long id = Thread.currentThread().threadId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((hash >>> 16) % stripes) * PADDING;
+    }
+}
\ No newline at end of file
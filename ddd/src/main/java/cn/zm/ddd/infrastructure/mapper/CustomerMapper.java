@@ -4,7 +4,12 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import cn.zm.ddd.infrastructure.persistence.CustomerEntity;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 客户Mapper接口 - MyBatis-Plus版本
@@ -35,4 +40,24 @@ public interface CustomerMapper extends BaseMapper<CustomerEntity> {
      */
     @Select("SELECT COUNT(1) FROM customers WHERE email = #{email}")
     Integer existsByEmail(@Param("email") String email);
+    
+    /**
+     * 查询一组邮箱中已存在的邮箱
+     * 
+     * @param emails 邮箱地址，不能为空集合
+     * @return 已存在的邮箱
+     */
+    @Select("<script>SELECT email FROM customers WHERE email IN " +
+            "<foreach collection='emails' item='email' open='(' separator=',' close=')'>" +
+            "#{email}</foreach></script>")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    /**
+     * 逐行读取全部客户邮箱
+     * 
+     * @param handler 每读取一行回调一次，不在内存中累积结果集
+     */
+    @Select("SELECT email FROM customers")
+    @ResultType(String.class)
+    void streamEmails(ResultHandler<String> handler);
 }
\ No newline at end of file
@@ -6,8 +6,11 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Update;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * 订单项Mapper接口 - MyBatis-Plus版本
@@ -19,11 +22,51 @@ public interface OrderItemMapper extends BaseMapper<OrderItemEntity> {
      * 根据订单ID查找订单项
      */
     @Select("SELECT * FROM order_items WHERE order_id = #{orderId}")
-    List<OrderItemEntity> findByOrderId(@Param("orderId") String orderId);
+    List<OrderItemEntity> findByOrderId(@Param("orderId") UUID orderId);
+    
+    /**
+     * 根据订单ID批量查找订单项
+     */
+    @Select("<script>SELECT * FROM order_items WHERE order_id IN " +
+            "<foreach collection='orderIds' item='orderId' open='(' separator=',' close=')'>" +
+            "#{orderId}</foreach> ORDER BY id</script>")
+    List<OrderItemEntity> findByOrderIds(@Param("orderIds") Collection<UUID> orderIds);
+    
+    /**
+     * 根据订单状态批量查找订单项
+     */
+    @Select("SELECT oi.* FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+            "WHERE o.status = #{status} ORDER BY oi.id")
+    List<OrderItemEntity> findByOrderStatus(@Param("status") String status);
+    
+    /**
+     * 根据客户ID和订单状态批量查找订单项
+     */
+    @Select("SELECT oi.* FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+            "WHERE o.customer_id = #{customerId} AND o.status = #{status} ORDER BY oi.id")
+    List<OrderItemEntity> findByCustomerIdAndOrderStatus(@Param("customerId") UUID customerId,
+                                                       @Param("status") String status);
     
     /**
      * 删除指定订单的所有订单项
      */
     @Delete("DELETE FROM order_items WHERE order_id = #{orderId}")
-    int deleteByOrderId(@Param("orderId") String orderId);
+    int deleteByOrderId(@Param("orderId") UUID orderId);
+    
+    /**
+     * 按订单ID和商品ID更新订单项（用于批量更新变更行）
+     */
+    @Update("UPDATE order_items SET product_name = #{productName}, unit_price = #{unitPrice}, " +
+            "currency = #{currency}, quantity = #{quantity} " +
+            "WHERE order_id = #{orderId} AND product_id = #{productId}")
+    int updateByOrderIdAndProductId(OrderItemEntity entity);
+    
+    /**
+     * 删除指定订单中的若干商品对应的订单项
+     */
+    @Delete("<script>DELETE FROM order_items WHERE order_id = #{orderId} AND product_id IN " +
+            "<foreach collection='productIds' item='productId' open='(' separator=',' close=')'>" +
+            "#{productId}</foreach></script>")
+    int deleteByOrderIdAndProductIds(@Param("orderId") UUID orderId,
+                                     @Param("productIds") Collection<UUID> productIds);
 }
\ No newline at end of file
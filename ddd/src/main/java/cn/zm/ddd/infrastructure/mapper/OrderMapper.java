@@ -5,8 +5,12 @@ import cn.zm.ddd.infrastructure.persistence.OrderEntity;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * 订单Mapper接口 - MyBatis-Plus版本
@@ -14,12 +18,6 @@ import java.util.List;
 @Mapper
 public interface OrderMapper extends BaseMapper<OrderEntity> {
     
-    /**
-     * 根据客户ID查找订单
-     */
-    @Select("SELECT * FROM orders WHERE customer_id = #{customerId}")
-    List<OrderEntity> findByCustomerId(@Param("customerId") String customerId);
-    
     /**
      * 根据状态查找订单
      */
@@ -30,6 +28,40 @@ public interface OrderMapper extends BaseMapper<OrderEntity> {
      * 根据客户ID和状态查找订单
      */
     @Select("SELECT * FROM orders WHERE customer_id = #{customerId} AND status = #{status}")
-    List<OrderEntity> findByCustomerIdAndStatus(@Param("customerId") String customerId, 
+    List<OrderEntity> findByCustomerIdAndStatus(@Param("customerId") UUID customerId, 
                                               @Param("status") String status);
+    
+    /**
+     * 查找创建时间早于createdBefore的特定状态订单ID，先创建的在前
+     * 走(status, created_at)索引
+     */
+    @Select("SELECT id FROM orders WHERE status = #{status} AND created_at < #{createdBefore} " +
+            "ORDER BY created_at, id LIMIT #{limit}")
+    List<UUID> findIdsByStatusAndCreatedBefore(@Param("status") String status,
+                                               @Param("createdBefore") LocalDateTime createdBefore,
+                                               @Param("limit") int limit);
+    
+    /**
+     * 读取订单当前状态并加行锁，锁持有到事务结束
+     * 只返回id和status两列
+     */
+    @Select("<script>SELECT id, status FROM orders WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>" +
+            "#{id}</foreach> FOR UPDATE</script>")
+    List<OrderEntity> lockStatuses(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * 条件批量变更状态，只更新当前状态属于fromStatuses的订单
+     * 
+     * @return 实际更新的行数
+     */
+    @Update("<script>UPDATE orders SET status = #{status}, last_modified_at = #{modifiedAt} WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " AND status IN " +
+            "<foreach collection='fromStatuses' item='from' open='(' separator=',' close=')'>#{from}</foreach>" +
+            "</script>")
+    int updateStatus(@Param("ids") Collection<UUID> ids,
+                     @Param("fromStatuses") Collection<String> fromStatuses,
+                     @Param("status") String status,
+                     @Param("modifiedAt") LocalDateTime modifiedAt);
 }
\ No newline at end of file
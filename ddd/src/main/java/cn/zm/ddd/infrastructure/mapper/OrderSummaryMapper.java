@@ -0,0 +1,38 @@
+package cn.zm.ddd.infrastructure.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import cn.zm.ddd.infrastructure.persistence.OrderSummaryEntity;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 订单摘要Mapper接口 - 读模型
+ */
+@Mapper
+public interface OrderSummaryMapper extends BaseMapper<OrderSummaryEntity> {
+    
+    /**
+     * 查询客户的订单摘要，按创建时间倒序
+     * 走(customer_id, created_at)索引，一次范围扫描完成
+     */
+    @Select("SELECT * FROM order_summary WHERE customer_id = #{customerId} ORDER BY created_at DESC")
+    List<OrderSummaryEntity> findByCustomerId(@Param("customerId") UUID customerId);
+    
+    /**
+     * 批量变更订单摘要的状态，与订单主表的条件更新在同一事务内执行
+     */
+    @Update("<script>UPDATE order_summary SET status = #{status}, last_modified_at = #{modifiedAt} " +
+            "WHERE order_id IN " +
+            "<foreach collection='orderIds' item='orderId' open='(' separator=',' close=')'>" +
+            "#{orderId}</foreach></script>")
+    int updateStatus(@Param("orderIds") Collection<UUID> orderIds,
+                     @Param("status") String status,
+                     @Param("modifiedAt") LocalDateTime modifiedAt);
+}
\ No newline at end of file
@@ -4,9 +4,14 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import cn.zm.ddd.infrastructure.persistence.ProductEntity;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * 商品Mapper接口 - MyBatis-Plus版本
@@ -21,14 +26,52 @@ public interface ProductMapper extends BaseMapper<ProductEntity> {
     List<ProductEntity> findByAvailableTrue();
     
     /**
-     * 根据名称搜索商品（忽略大小写）
+     * 按关键词搜索名称或描述（忽略大小写）
+     * 只在内存搜索索引装载完成前使用，pattern由调用方转义LIKE通配符
      */
-    @Select("SELECT * FROM products WHERE UPPER(name) LIKE UPPER(CONCAT('%', #{name}, '%'))")
-    List<ProductEntity> findByNameContainingIgnoreCase(@Param("name") String name);
+    @Select("SELECT * FROM products WHERE LOWER(name) LIKE #{pattern} ESCAPE '\\' " +
+            "OR LOWER(description) LIKE #{pattern} ESCAPE '\\'")
+    List<ProductEntity> findByKeyword(@Param("pattern") String pattern);
+    
+    /**
+     * 逐行读取全部商品的ID、名称和描述，用于装载内存搜索索引
+     * 
+     * @param handler 每读取一行回调一次，不在内存中累积结果集
+     */
+    @Select("SELECT id, name, description FROM products")
+    @ResultType(ProductEntity.class)
+    void streamSearchFields(ResultHandler<ProductEntity> handler);
     
     /**
      * 查找库存不足的商品
      */
     @Select("SELECT * FROM products WHERE stock_quantity <= #{threshold} AND available = true")
     List<ProductEntity> findLowStockProducts(@Param("threshold") int threshold);
+    
+    /**
+     * 有条件地原子扣减库存
+     * 只有商品在售且库存充足时才会更新，返回受影响行数（1成功，0失败）
+     */
+    @Update("UPDATE products SET stock_quantity = stock_quantity - #{quantity}, " +
+            "last_modified_at = #{modifiedAt} " +
+            "WHERE id = #{id} AND available = TRUE AND stock_quantity >= #{quantity}")
+    int decreaseStock(@Param("id") UUID id, @Param("quantity") int quantity,
+                      @Param("modifiedAt") LocalDateTime modifiedAt);
+    
+    /**
+     * 原子增加库存
+     */
+    @Update("UPDATE products SET stock_quantity = stock_quantity + #{quantity}, " +
+            "last_modified_at = #{modifiedAt} WHERE id = #{id}")
+    int increaseStock(@Param("id") UUID id, @Param("quantity") int quantity,
+                      @Param("modifiedAt") LocalDateTime modifiedAt);
+    
+    /**
+     * 按内存库存引擎已确认的预留量扣减库存
+     * 预留已在引擎中保证不超卖，这里不再附加库存条件
+     */
+    @Update("UPDATE products SET stock_quantity = stock_quantity - #{quantity}, " +
+            "last_modified_at = #{modifiedAt} WHERE id = #{id}")
+    int deductReservedStock(@Param("id") UUID id, @Param("quantity") int quantity,
+                            @Param("modifiedAt") LocalDateTime modifiedAt);
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package cn.zm.ddd.infrastructure.mapper;
+
+import cn.zm.ddd.infrastructure.persistence.SalesBucketEntity;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 销售统计汇总Mapper接口
+ * 
+ * 主键为(dimension, sale_date, bucket_key, currency)：
+ * 单个桶按主键读取，某一维度的日期区间按主键前缀范围扫描，
+ * 单个维度键的日期区间走(dimension, bucket_key, sale_date)索引
+ */
+@Mapper
+public interface SalesBucketMapper {
+    
+    /**
+     * 把增量累加到汇总桶，桶不存在时插入
+     * 并发事务同时插入同一个新桶时，后提交者收到主键冲突，由调用方重试
+     */
+    @Update("MERGE INTO sales_bucket t USING (SELECT CAST(#{dimension} AS VARCHAR(20)) AS dimension, " +
+            "CAST(#{saleDate} AS DATE) AS sale_date, CAST(#{bucketKey} AS VARCHAR(64)) AS bucket_key, " +
+            "CAST(#{currency} AS VARCHAR(3)) AS currency) s " +
+            "ON t.dimension = s.dimension AND t.sale_date = s.sale_date " +
+            "AND t.bucket_key = s.bucket_key AND t.currency = s.currency " +
+            "WHEN MATCHED THEN UPDATE SET label = COALESCE(#{label}, t.label), " +
+            "paid_orders = t.paid_orders + #{paidOrders}, paid_quantity = t.paid_quantity + #{paidQuantity}, " +
+            "paid_amount = t.paid_amount + #{paidAmount}, " +
+            "refunded_orders = t.refunded_orders + #{refundedOrders}, " +
+            "refunded_quantity = t.refunded_quantity + #{refundedQuantity}, " +
+            "refunded_amount = t.refunded_amount + #{refundedAmount}, " +
+            "cancelled_orders = t.cancelled_orders + #{cancelledOrders}, " +
+            "cancelled_quantity = t.cancelled_quantity + #{cancelledQuantity}, " +
+            "cancelled_amount = t.cancelled_amount + #{cancelledAmount} " +
+            "WHEN NOT MATCHED THEN INSERT (dimension, sale_date, bucket_key, currency, label, " +
+            "paid_orders, paid_quantity, paid_amount, refunded_orders, refunded_quantity, refunded_amount, " +
+            "cancelled_orders, cancelled_quantity, cancelled_amount) " +
+            "VALUES (s.dimension, s.sale_date, s.bucket_key, s.currency, #{label}, " +
+            "#{paidOrders}, #{paidQuantity}, #{paidAmount}, #{refundedOrders}, #{refundedQuantity}, " +
+            "#{refundedAmount}, #{cancelledOrders}, #{cancelledQuantity}, #{cancelledAmount})")
+    int increment(SalesBucketEntity delta);
+    
+    /**
+     * 查询某一维度在日期区间内的全部桶，按日期、维度键排序
+     */
+    @Select("SELECT * FROM sales_bucket WHERE dimension = #{dimension} " +
+            "AND sale_date BETWEEN #{from} AND #{to} ORDER BY sale_date, bucket_key, currency")
+    List<SalesBucketEntity> findByDimension(@Param("dimension") String dimension,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+    
+    /**
+     * 查询单个维度键在日期区间内的逐日桶
+     */
+    @Select("SELECT * FROM sales_bucket WHERE dimension = #{dimension} AND bucket_key = #{bucketKey} " +
+            "AND sale_date BETWEEN #{from} AND #{to} ORDER BY sale_date, currency")
+    List<SalesBucketEntity> findByKey(@Param("dimension") String dimension,
+                                      @Param("bucketKey") String bucketKey,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+    
+    /**
+     * 按维度键合计日期区间内的桶，按净收入倒序取前limit个
+     * 扫描量为维度键数×天数，与订单量无关
+     */
+    @Select("SELECT dimension, bucket_key, currency, MAX(label) AS label, " +
+            "SUM(paid_orders) AS paid_orders, SUM(paid_quantity) AS paid_quantity, " +
+            "SUM(paid_amount) AS paid_amount, SUM(refunded_orders) AS refunded_orders, " +
+            "SUM(refunded_quantity) AS refunded_quantity, SUM(refunded_amount) AS refunded_amount, " +
+            "SUM(cancelled_orders) AS cancelled_orders, SUM(cancelled_quantity) AS cancelled_quantity, " +
+            "SUM(cancelled_amount) AS cancelled_amount " +
+            "FROM sales_bucket WHERE dimension = #{dimension} AND sale_date BETWEEN #{from} AND #{to} " +
+            "GROUP BY dimension, bucket_key, currency " +
+            "ORDER BY SUM(paid_amount) - SUM(refunded_amount) - SUM(cancelled_amount) DESC, bucket_key " +
+            "LIMIT #{limit}")
+    List<SalesBucketEntity> sumByKey(@Param("dimension") String dimension,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to,
+                                     @Param("limit") int limit);
+}
\ No newline at end of file
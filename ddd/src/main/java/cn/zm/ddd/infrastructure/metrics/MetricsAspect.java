@@ -0,0 +1,153 @@
+package cn.zm.ddd.infrastructure.metrics;
+
+import cn.zm.ddd.shared.exception.BusinessRuleException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用例与仓储计时切面
+ * 
+ * 1. 应用服务和读侧查询服务的每个公开方法记为一个用例，计时指标ddd.usecase，按结果（成功、违反业务规则、参数错误、异常）打标签
+ * 2. 仓储实现的每个公开方法计时指标ddd.repository
+ * 3. 违反业务规则时累加ddd.business.rule.violations计数
+ * 
+ * 切面优先级最高，位于事务切面之外，用例耗时包含提交前的工作单元刷新和事务提交。
+ * 计时器按方法缓存，调用路径上不再重复构建指标
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricsAspect {
+    
+    static final String USE_CASE_TIMER = "ddd.usecase";
+    static final String REPOSITORY_TIMER = "ddd.repository";
+    static final String BUSINESS_RULE_COUNTER = "ddd.business.rule.violations";
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodMeters> useCaseMeters = new ConcurrentHashMap<>();
+    private final Map<Method, MethodMeters> repositoryMeters = new ConcurrentHashMap<>();
+    
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "指标注册表不能为空");
+    }
+    
+    @Around("execution(public * cn.zm.ddd.application.service.*ApplicationService.*(..))"
+        + " || execution(public * cn.zm.ddd.infrastructure.query.*QueryServiceImpl.*(..))")
+    public Object timeUseCase(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMeters meters = useCaseMeters.computeIfAbsent(method(joinPoint),
+            method -> new MethodMeters(USE_CASE_TIMER, "service", method, Duration.ofMillis(1)));
+        return proceed(joinPoint, meters);
+    }
+    
+    @Around("execution(public * cn.zm.ddd.infrastructure.repository.*RepositoryImpl.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMeters meters = repositoryMeters.computeIfAbsent(method(joinPoint),
+            method -> new MethodMeters(REPOSITORY_TIMER, "repository", method, Duration.ofNanos(100_000)));
+        return proceed(joinPoint, meters);
+    }
+    
+    private Object proceed(ProceedingJoinPoint joinPoint, MethodMeters meters) throws Throwable {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            Object result = joinPoint.proceed();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (BusinessRuleException e) {
+            outcome = Outcome.BUSINESS_RULE_VIOLATION;
+            throw e;
+        } catch (IllegalArgumentException e) {
+            outcome = Outcome.INVALID_ARGUMENT;
+            throw e;
+        } finally {
+            meters.record(outcome, System.nanoTime() - start);
+        }
+    }
+    
+    private static Method method(ProceedingJoinPoint joinPoint) {
+        return ((MethodSignature) joinPoint.getSignature()).getMethod();
+    }
+    
+    /**
+     * 调用结果，作为outcome标签
+     */
+    enum Outcome {
+        SUCCESS, BUSINESS_RULE_VIOLATION, INVALID_ARGUMENT, ERROR
+    }
+    
+    /**
+     * 单个方法的计时器和业务规则违反计数器
+     * 按实际出现的结果延迟注册，避免为从未发生的结果导出空的直方图序列
+     */
+    private final class MethodMeters {
+        
+        private final String timerName;
+        private final String ownerTag;
+        private final String owner;
+        private final String methodName;
+        private final Duration minimumExpected;
+        private final Timer[] timers = new Timer[Outcome.values().length];
+        private volatile Counter violations;
+        
+        MethodMeters(String timerName, String ownerTag, Method method, Duration minimumExpected) {
+            this.timerName = timerName;
+            this.ownerTag = ownerTag;
+            this.owner = method.getDeclaringClass().getSimpleName();
+            this.methodName = method.getName();
+            this.minimumExpected = minimumExpected;
+        }
+        
+        void record(Outcome outcome, long nanos) {
+            timer(outcome).record(nanos, TimeUnit.NANOSECONDS);
+            if (outcome == Outcome.BUSINESS_RULE_VIOLATION) {
+                violations().increment();
+            }
+        }
+        
+        /**
+         * 并发首次注册时注册表返回同一个计时器，这里的竞争无害
+         */
+        private Timer timer(Outcome outcome) {
+            Timer timer = timers[outcome.ordinal()];
+            if (timer == null) {
+                timer = Timer.builder(timerName)
+                    .tag(ownerTag, owner)
+                    .tag("method", methodName)
+                    .tag("outcome", outcome.name())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(minimumExpected)
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+                timers[outcome.ordinal()] = timer;
+            }
+            return timer;
+        }
+        
+        private Counter violations() {
+            Counter counter = violations;
+            if (counter == null) {
+                counter = Counter.builder(BUSINESS_RULE_COUNTER)
+                    .tag(ownerTag, owner)
+                    .tag("method", methodName)
+                    .register(meterRegistry);
+                violations = counter;
+            }
+            return counter;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package cn.zm.ddd.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 虚拟线程固定（pinning）诊断
+ * 
+ * 虚拟线程在synchronized块或本地方法帧内阻塞时无法从载体线程卸载，载体线程随之被占用，
+ * 载体线程数（默认CPU核数）很小，这类位置在高并发下会让整个请求处理退化为串行。
+ * 
+ * 开启虚拟线程模式（spring.threads.virtual.enabled）时，通过JFR事件流订阅jdk.VirtualThreadPinned：
+ * 1. 固定时长超过threshold-ms的事件按位置（栈中第一个应用代码帧，没有时取第一个非JDK帧）
+ *    计入计时指标ddd.threads.virtual.pinned
+ * 2. 每个位置第一次出现时输出带完整调用栈的告警日志，同一位置不重复输出
+ * 
+ * 需要一次性排查时也可以用JVM参数-Djdk.tracePinnedThreads=full打印每次固定的调用栈
+ */
+@Slf4j
+@Component
+public class VirtualThreadPinningMonitor {
+    
+    static final String PINNED_TIMER = "ddd.threads.virtual.pinned";
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "cn.zm.ddd.";
+    /**
+     * 位置标签的上限，超出后归入other，避免指标基数无限增长
+     */
+    private static final int MAX_SITES = 100;
+    private static final String OTHER_SITE = "other";
+    
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+    private final Duration threshold;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+    
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                       @Value("${ddd.threads.pinning.threshold-ms:20}") long thresholdMs) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "指标注册表不能为空");
+        if (thresholdMs < 0) {
+            throw new IllegalArgumentException("固定时长阈值不能为负数");
+        }
+        this.virtualThreads = virtualThreads;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!virtualThreads) {
+            return;
+        }
+        
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("虚拟线程固定诊断已启用，阈值：{}ms", threshold.toMillis());
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+    
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String site = site(stackTrace);
+        String tag = timers.containsKey(site) || timers.size() < MAX_SITES ? site : OTHER_SITE;
+        timers.computeIfAbsent(tag, key -> Timer.builder(PINNED_TIMER)
+                .tag("site", key)
+                .register(meterRegistry))
+            .record(event.getDuration());
+        
+        if (reportedSites.size() < MAX_SITES && reportedSites.add(site)) {
+            log.warn("虚拟线程被固定在载体线程上{}ms，位置：{}{}", event.getDuration().toMillis(), site,
+                format(stackTrace));
+        }
+    }
+    
+    /**
+     * 栈中第一个应用代码帧；没有时取第一个非JDK帧（如驱动、连接池），仍没有时取栈顶帧
+     */
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame library = null;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APPLICATION_PACKAGE)) {
+                return name(frame);
+            }
+            if (library == null && !isJdk(type)) {
+                library = frame;
+            }
+        }
+        return name(library != null ? library : stackTrace.getFrames().get(0));
+    }
+    
+    private static boolean isJdk(String type) {
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+    
+    private static String name(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+    
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            builder.append(System.lineSeparator()).append("\tat ").append(name(frame))
+                .append(':').append(frame.getLineNumber());
+        }
+        return builder.toString();
+    }
+}
\ No newline at end of file
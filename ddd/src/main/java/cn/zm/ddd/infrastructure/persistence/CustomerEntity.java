@@ -12,6 +12,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * 客户持久化实体 - MyBatis-Plus + Lombok版本
@@ -27,7 +28,7 @@ import java.time.LocalDateTime;
 public class CustomerEntity {
     
     @TableId(value = "id", type = IdType.INPUT)
-    private String id;
+    private UUID id;
     
     @TableField("name")
     private String name;
@@ -52,7 +53,7 @@ public class CustomerEntity {
      */
     public static CustomerEntity from(Customer customer) {
         CustomerEntity entity = new CustomerEntity();
-        entity.id = customer.getId().value();
+        entity.id = customer.getId().toUuid();
         entity.name = customer.getName();
         entity.email = customer.getEmail().value();
         entity.customerType = customer.getType().name();
@@ -76,15 +77,4 @@ public class CustomerEntity {
             this.lastModifiedAt
         );
     }
-    
-    /**
-     * 更新实体数据
-     */
-    public void updateFrom(Customer customer) {
-        this.name = customer.getName();
-        this.email = customer.getEmail().value();
-        this.customerType = customer.getType().name();
-        this.active = customer.isActive();
-        this.lastModifiedAt = customer.getLastModifiedAt();
-    }
 }
\ No newline at end of file
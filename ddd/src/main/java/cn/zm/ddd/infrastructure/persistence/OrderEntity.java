@@ -17,6 +17,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Currency;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * 订单持久化实体 - MyBatis-Plus + Lombok版本
@@ -27,10 +28,10 @@ import java.util.List;
 public class OrderEntity {
     
     @TableId(value = "id", type = IdType.INPUT)
-    private String id;
+    private UUID id;
     
     @TableField("customer_id")
-    private String customerId;
+    private UUID customerId;
     
     @TableField("status")
     private String status;
@@ -56,8 +57,8 @@ public class OrderEntity {
     
     public static OrderEntity from(Order order) {
         OrderEntity entity = new OrderEntity();
-        entity.id = order.getId().value();
-        entity.customerId = order.getCustomerId().value();
+        entity.id = order.getId().toUuid();
+        entity.customerId = order.getCustomerId().toUuid();
         entity.status = order.getStatus().name();
         entity.totalAmount = order.getTotalAmount().amount();
         entity.currency = order.getTotalAmount().currency().getCurrencyCode();
@@ -83,11 +84,4 @@ public class OrderEntity {
             this.lastModifiedAt
         );
     }
-    
-    public void updateFrom(Order order) {
-        this.status = order.getStatus().name();
-        this.totalAmount = order.getTotalAmount().amount();
-        this.currency = order.getTotalAmount().currency().getCurrencyCode();
-        this.lastModifiedAt = order.getLastModifiedAt();
-    }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.util.Currency;
+import java.util.UUID;
 
 /**
  * 订单项持久化实体 - MyBatis-Plus + Lombok版本
@@ -25,10 +26,10 @@ public class OrderItemEntity {
     private Long id;
 
     @TableField("order_id")
-    private String orderId;
+    private UUID orderId;
 
     @TableField("product_id")
-    private String productId;
+    private UUID productId;
 
     @TableField("product_name")
     private String productName;
@@ -42,10 +43,10 @@ public class OrderItemEntity {
     @TableField("quantity")
     private Integer quantity;
 
-    public static OrderItemEntity from(OrderItem orderItem, String orderId) {
+    public static OrderItemEntity from(OrderItem orderItem, UUID orderId) {
         OrderItemEntity entity = new OrderItemEntity();
         entity.orderId = orderId;
-        entity.productId = orderItem.productId().value();
+        entity.productId = orderItem.productId().toUuid();
         entity.productName = orderItem.productName();
         entity.unitPrice = orderItem.unitPrice().amount();
         entity.currency = orderItem.unitPrice().currency().getCurrencyCode();
@@ -0,0 +1,66 @@
+package cn.zm.ddd.infrastructure.persistence;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import cn.zm.ddd.domain.model.order.Order;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 订单摘要读模型实体
+ * 
+ * 订单列表查询使用的反规范化投影，每次保存订单时与订单主表一起写入，
+ * 查询时不需要加载订单项，也不重建订单聚合
+ */
+@Data
+@NoArgsConstructor
+@TableName("order_summary")
+public class OrderSummaryEntity {
+    
+    @TableId(value = "order_id", type = IdType.INPUT)
+    private UUID orderId;
+    
+    @TableField("customer_id")
+    private UUID customerId;
+    
+    @TableField("status")
+    private String status;
+    
+    @TableField("total_amount")
+    private BigDecimal totalAmount;
+    
+    @TableField("currency")
+    private String currency;
+    
+    @TableField("item_count")
+    private int itemCount;
+    
+    @TableField("total_quantity")
+    private int totalQuantity;
+    
+    @TableField("created_at")
+    private LocalDateTime createdAt;
+    
+    @TableField("last_modified_at")
+    private LocalDateTime lastModifiedAt;
+    
+    public static OrderSummaryEntity from(Order order) {
+        OrderSummaryEntity entity = new OrderSummaryEntity();
+        entity.orderId = order.getId().toUuid();
+        entity.customerId = order.getCustomerId().toUuid();
+        entity.status = order.getStatus().name();
+        entity.totalAmount = order.getTotalAmount().amount();
+        entity.currency = order.getTotalAmount().currency().getCurrencyCode();
+        entity.itemCount = order.getItemCount();
+        entity.totalQuantity = order.getTotalQuantity();
+        entity.createdAt = order.getCreatedAt();
+        entity.lastModifiedAt = order.getLastModifiedAt();
+        return entity;
+    }
+}
\ No newline at end of file
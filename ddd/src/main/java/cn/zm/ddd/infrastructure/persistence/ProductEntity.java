@@ -1,5 +1,6 @@
 package cn.zm.ddd.infrastructure.persistence;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
@@ -13,6 +14,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Currency;
+import java.util.UUID;
 
 /**
  * 商品持久化实体 - MyBatis-Plus + Lombok版本
@@ -23,7 +25,7 @@ import java.util.Currency;
 public class ProductEntity {
 
     @TableId(value = "id", type = IdType.INPUT)
-    private String id;
+    private UUID id;
 
     @TableField("name")
     private String name;
@@ -37,7 +39,10 @@ public class ProductEntity {
     @TableField("currency")
     private String currency;
 
-    @TableField("stock_quantity")
+    /**
+     * 库存只通过原子增减语句修改，按主键更新时不覆盖
+     */
+    @TableField(value = "stock_quantity", updateStrategy = FieldStrategy.NEVER)
     private Integer stockQuantity;
 
     @TableField("available")
@@ -51,7 +56,7 @@ public class ProductEntity {
 
     public static ProductEntity from(Product product) {
         ProductEntity entity = new ProductEntity();
-        entity.id = product.getId().value();
+        entity.id = product.getId().toUuid();
         entity.name = product.getName();
         entity.description = product.getDescription();
         entity.price = product.getPrice().amount();
@@ -77,14 +82,4 @@ public class ProductEntity {
                 this.lastModifiedAt
         );
     }
-
-    public void updateFrom(Product product) {
-        this.name = product.getName();
-        this.description = product.getDescription();
-        this.price = product.getPrice().amount();
-        this.currency = product.getPrice().currency().getCurrencyCode();
-        this.stockQuantity = product.getStockQuantity();
-        this.available = product.isAvailable();
-        this.lastModifiedAt = product.getLastModifiedAt();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package cn.zm.ddd.infrastructure.persistence;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 销售统计汇总桶实体
+ * 
+ * 按（维度、日期、维度键、币种）聚合的订单支付、退款、取消计数与金额。
+ * 写入时作为增量累加到已有的桶上，查询时按主键或主键前缀读取。
+ * 复合主键不经过MyBatis-Plus的通用CRUD，读写都由SalesBucketMapper的注解SQL完成
+ */
+@Data
+@NoArgsConstructor
+public class SalesBucketEntity {
+    
+    /**
+     * 全站维度，只有一个维度键ALL
+     */
+    public static final String DAY = "DAY";
+    public static final String ALL = "ALL";
+    /**
+     * 客户类型维度，维度键为CustomerType名称
+     */
+    public static final String CUSTOMER_TYPE = "CUSTOMER_TYPE";
+    /**
+     * 商品维度，维度键为商品ID
+     */
+    public static final String PRODUCT = "PRODUCT";
+    
+    private String dimension;
+    private LocalDate saleDate;
+    private String bucketKey;
+    private String currency;
+    private String label;
+    private long paidOrders;
+    private long paidQuantity;
+    private BigDecimal paidAmount = BigDecimal.ZERO;
+    private long refundedOrders;
+    private long refundedQuantity;
+    private BigDecimal refundedAmount = BigDecimal.ZERO;
+    private long cancelledOrders;
+    private long cancelledQuantity;
+    private BigDecimal cancelledAmount = BigDecimal.ZERO;
+    
+    public static SalesBucketEntity of(String dimension, LocalDate saleDate, String bucketKey,
+                                       String currency, String label) {
+        SalesBucketEntity entity = new SalesBucketEntity();
+        entity.dimension = dimension;
+        entity.saleDate = saleDate;
+        entity.bucketKey = bucketKey;
+        entity.currency = currency;
+        entity.label = label;
+        return entity;
+    }
+    
+    /**
+     * 累加另一个同键增量
+     */
+    public void add(SalesBucketEntity delta) {
+        this.paidOrders += delta.paidOrders;
+        this.paidQuantity += delta.paidQuantity;
+        this.paidAmount = this.paidAmount.add(delta.paidAmount);
+        this.refundedOrders += delta.refundedOrders;
+        this.refundedQuantity += delta.refundedQuantity;
+        this.refundedAmount = this.refundedAmount.add(delta.refundedAmount);
+        this.cancelledOrders += delta.cancelledOrders;
+        this.cancelledQuantity += delta.cancelledQuantity;
+        this.cancelledAmount = this.cancelledAmount.add(delta.cancelledAmount);
+        if (delta.label != null) {
+            this.label = delta.label;
+        }
+    }
+    
+    /**
+     * 净收入 = 支付金额 - 退款金额 - 已支付订单的取消金额
+     */
+    public BigDecimal netRevenue() {
+        return paidAmount.subtract(refundedAmount).subtract(cancelledAmount);
+    }
+}
\ No newline at end of file
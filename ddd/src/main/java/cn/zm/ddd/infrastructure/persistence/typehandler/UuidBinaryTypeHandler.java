@@ -0,0 +1,50 @@
+package cn.zm.ddd.infrastructure.persistence.typehandler;
+
+import cn.zm.ddd.shared.valueobject.UuidCodec;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * UUID与BINARY(16)列的类型处理器
+ * 
+ * 标识列以16字节大端序二进制存储，比VARCHAR(36)的索引键窄一半以上；
+ * 配合时间有序UUID，二进制排序即时间顺序。
+ * 通过type-handlers-package全局注册，实体和Mapper参数中的UUID类型自动使用
+ */
+@MappedTypes(UUID.class)
+@MappedJdbcTypes(value = JdbcType.BINARY, includeNullJdbcType = true)
+public class UuidBinaryTypeHandler extends BaseTypeHandler<UUID> {
+    
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, UUID parameter, JdbcType jdbcType)
+            throws SQLException {
+        ps.setBytes(i, UuidCodec.toBytes(parameter));
+    }
+    
+    @Override
+    public UUID getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return toUuid(rs.getBytes(columnName));
+    }
+    
+    @Override
+    public UUID getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return toUuid(rs.getBytes(columnIndex));
+    }
+    
+    @Override
+    public UUID getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return toUuid(cs.getBytes(columnIndex));
+    }
+    
+    private static UUID toUuid(byte[] bytes) {
+        return bytes != null ? UuidCodec.fromBytes(bytes) : null;
+    }
+}
\ No newline at end of file
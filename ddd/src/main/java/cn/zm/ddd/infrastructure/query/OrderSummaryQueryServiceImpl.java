@@ -0,0 +1,54 @@
+package cn.zm.ddd.infrastructure.query;
+
+import cn.zm.ddd.application.dto.OrderSummaryDto;
+import cn.zm.ddd.application.query.OrderSummaryQueryService;
+import cn.zm.ddd.domain.model.customer.CustomerId;
+import cn.zm.ddd.domain.model.order.OrderStatus;
+import cn.zm.ddd.infrastructure.mapper.OrderSummaryMapper;
+import cn.zm.ddd.infrastructure.persistence.OrderSummaryEntity;
+import cn.zm.ddd.infrastructure.repository.UnitOfWork;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 订单摘要查询服务实现 - MyBatis-Plus版本
+ */
+@Service
+public class OrderSummaryQueryServiceImpl implements OrderSummaryQueryService {
+    
+    private final OrderSummaryMapper orderSummaryMapper;
+    private final UnitOfWork unitOfWork;
+    
+    public OrderSummaryQueryServiceImpl(OrderSummaryMapper orderSummaryMapper, UnitOfWork unitOfWork) {
+        this.orderSummaryMapper = Objects.requireNonNull(orderSummaryMapper, "订单摘要Mapper不能为空");
+        this.unitOfWork = Objects.requireNonNull(unitOfWork, "工作单元不能为空");
+    }
+    
+    @Override
+    public List<OrderSummaryDto> findByCustomerId(String customerId) {
+        CustomerId id = CustomerId.of(customerId);
+        // 在事务内调用时先刷新未写入的订单，保证读到自己的写入
+        unitOfWork.flush();
+        return orderSummaryMapper.findByCustomerId(id.toUuid()).stream()
+            .map(OrderSummaryQueryServiceImpl::toDto)
+            .toList();
+    }
+    
+    private static OrderSummaryDto toDto(OrderSummaryEntity entity) {
+        OrderStatus status = OrderStatus.valueOf(entity.getStatus());
+        return new OrderSummaryDto(
+            entity.getOrderId().toString(),
+            entity.getCustomerId().toString(),
+            status.name(),
+            status.getDescription(),
+            entity.getItemCount(),
+            entity.getTotalQuantity(),
+            entity.getTotalAmount(),
+            entity.getCurrency(),
+            entity.getCreatedAt(),
+            entity.getLastModifiedAt()
+        );
+    }
+}
\ No newline at end of file
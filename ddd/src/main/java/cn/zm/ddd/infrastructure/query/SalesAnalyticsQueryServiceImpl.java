@@ -0,0 +1,102 @@
+package cn.zm.ddd.infrastructure.query;
+
+import cn.zm.ddd.application.dto.SalesStatsDto;
+import cn.zm.ddd.application.query.SalesAnalyticsQueryService;
+import cn.zm.ddd.domain.model.product.ProductId;
+import cn.zm.ddd.infrastructure.mapper.SalesBucketMapper;
+import cn.zm.ddd.infrastructure.persistence.SalesBucketEntity;
+import cn.zm.ddd.infrastructure.repository.UnitOfWork;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 销售统计查询服务实现 - MyBatis-Plus版本
+ */
+@Service
+public class SalesAnalyticsQueryServiceImpl implements SalesAnalyticsQueryService {
+    
+    private final SalesBucketMapper salesBucketMapper;
+    private final UnitOfWork unitOfWork;
+    
+    public SalesAnalyticsQueryServiceImpl(SalesBucketMapper salesBucketMapper, UnitOfWork unitOfWork) {
+        this.salesBucketMapper = Objects.requireNonNull(salesBucketMapper, "销售统计Mapper不能为空");
+        this.unitOfWork = Objects.requireNonNull(unitOfWork, "工作单元不能为空");
+    }
+    
+    @Override
+    public List<SalesStatsDto> findDaily(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        unitOfWork.flush();
+        return salesBucketMapper.findByDimension(SalesBucketEntity.DAY, from, to).stream()
+            .map(entity -> toDto(entity, entity.getSaleDate(), entity.getSaleDate()))
+            .toList();
+    }
+    
+    @Override
+    public List<SalesStatsDto> findByCustomerType(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        unitOfWork.flush();
+        return salesBucketMapper.sumByKey(SalesBucketEntity.CUSTOMER_TYPE, from, to, MAX_LIMIT).stream()
+            .map(entity -> toDto(entity, from, to))
+            .toList();
+    }
+    
+    @Override
+    public List<SalesStatsDto> findTopProducts(LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("返回数量必须在1-" + MAX_LIMIT + "之间");
+        }
+        unitOfWork.flush();
+        return salesBucketMapper.sumByKey(SalesBucketEntity.PRODUCT, from, to, limit).stream()
+            .map(entity -> toDto(entity, from, to))
+            .toList();
+    }
+    
+    @Override
+    public List<SalesStatsDto> findProductDaily(String productId, LocalDate from, LocalDate to) {
+        ProductId id = ProductId.of(productId);
+        validateRange(from, to);
+        unitOfWork.flush();
+        return salesBucketMapper.findByKey(SalesBucketEntity.PRODUCT, id.value(), from, to).stream()
+            .map(entity -> toDto(entity, entity.getSaleDate(), entity.getSaleDate()))
+            .toList();
+    }
+    
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("统计日期区间不能为空");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("开始日期不能晚于结束日期");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("统计日期区间不能超过" + MAX_RANGE_DAYS + "天");
+        }
+    }
+    
+    private static SalesStatsDto toDto(SalesBucketEntity entity, LocalDate from, LocalDate to) {
+        return new SalesStatsDto(
+            entity.getDimension(),
+            entity.getBucketKey(),
+            entity.getLabel(),
+            from,
+            to,
+            entity.getCurrency(),
+            entity.getPaidOrders(),
+            entity.getPaidQuantity(),
+            entity.getPaidAmount(),
+            entity.getRefundedOrders(),
+            entity.getRefundedQuantity(),
+            entity.getRefundedAmount(),
+            entity.getCancelledOrders(),
+            entity.getCancelledQuantity(),
+            entity.getCancelledAmount(),
+            entity.netRevenue()
+        );
+    }
+}
\ No newline at end of file
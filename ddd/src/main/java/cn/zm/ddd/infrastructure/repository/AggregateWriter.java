@@ -0,0 +1,45 @@
+package cn.zm.ddd.infrastructure.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 聚合写入器
+ * 
+ * 由各仓储提供，描述如何把一批脏聚合写入数据库。
+ * order决定工作单元刷新时的写入顺序（外键被引用方在前）
+ */
+public record AggregateWriter<T>(String name, int order, Consumer<List<T>> action) {
+    
+    /**
+     * 客户最先写入 - 订单外键引用客户
+     */
+    public static final int CUSTOMER_ORDER = 100;
+    
+    /**
+     * 商品其次 - 订单项外键引用商品
+     */
+    public static final int PRODUCT_ORDER = 200;
+    
+    /**
+     * 订单最后写入
+     */
+    public static final int ORDER_ORDER = 300;
+    
+    /**
+     * 统计汇总在业务数据之后写入 - 热点汇总行的行锁只在提交前持有
+     */
+    public static final int ANALYTICS_ORDER = 400;
+    
+    /**
+     * 批量写入聚合
+     */
+    public void write(List<T> aggregates) {
+        action.accept(aggregates);
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package cn.zm.ddd.infrastructure.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+import java.util.List;
+
+/**
+ * 批量写入辅助方法
+ * 
+ * 多条记录时使用MyBatis-Plus的批处理执行器（JDBC batch），
+ * 单条记录时直接执行，避免为一条语句打开批处理会话
+ */
+final class BatchSupport {
+    
+    private BatchSupport() {
+    }
+    
+    static <T> void insert(BaseMapper<T> mapper, List<T> entities) {
+        if (entities.size() == 1) {
+            mapper.insert(entities.get(0));
+        } else if (!entities.isEmpty()) {
+            mapper.insert(entities);
+        }
+    }
+    
+    static <T> void updateById(BaseMapper<T> mapper, List<T> entities) {
+        if (entities.size() == 1) {
+            mapper.updateById(entities.get(0));
+        } else if (!entities.isEmpty()) {
+            mapper.updateById(entities);
+        }
+    }
+}
\ No newline at end of file
@@ -3,13 +3,26 @@ package cn.zm.ddd.infrastructure.repository;
 import cn.zm.ddd.domain.model.customer.Customer;
 import cn.zm.ddd.domain.model.customer.CustomerId;
 import cn.zm.ddd.domain.repository.CustomerRepository;
+import cn.zm.ddd.infrastructure.cache.BloomFilter;
+import cn.zm.ddd.infrastructure.cache.BoundedCache;
 import cn.zm.ddd.infrastructure.mapper.CustomerMapper;
 import cn.zm.ddd.infrastructure.persistence.CustomerEntity;
 import cn.zm.ddd.shared.valueobject.Email;
+import cn.zm.ddd.shared.valueobject.UuidCodec;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 客户仓储实现 - MyBatis-Plus版本
@@ -19,53 +32,175 @@ import java.util.Optional;
  * 2. 利用BaseMapper提供的基础CRUD操作
  * 3. 处理领域对象与持久化实体之间的转换
  * 4. 保持与领域层接口的一致性
+ * 5. 按ID和邮箱缓存客户，已注册邮箱记入布隆过滤器，确定未注册的邮箱不再查询数据库
  */
 @Repository
 public class CustomerRepositoryImpl implements CustomerRepository {
     
+    /**
+     * 单条IN查询的最大参数个数
+     */
+    private static final int MAX_IN_SIZE = 1000;
+    
     private final CustomerMapper customerMapper;
+    private final UnitOfWork unitOfWork;
+    private final BoundedCache<String, CustomerEntity> customerCache;
+    private final BoundedCache<String, String> customerEmailCache;
+    private final BloomFilter customerEmailFilter;
+    private final AggregateWriter<Customer> writer =
+        new AggregateWriter<>("customers", AggregateWriter.CUSTOMER_ORDER, this::writeAll);
     
-    public CustomerRepositoryImpl(CustomerMapper customerMapper) {
+    public CustomerRepositoryImpl(CustomerMapper customerMapper, UnitOfWork unitOfWork,
+                                  BoundedCache<String, CustomerEntity> customerCache,
+                                  BoundedCache<String, String> customerEmailCache,
+                                  BloomFilter customerEmailFilter) {
         this.customerMapper = Objects.requireNonNull(customerMapper, "客户Mapper不能为空");
+        this.unitOfWork = Objects.requireNonNull(unitOfWork, "工作单元不能为空");
+        this.customerCache = Objects.requireNonNull(customerCache, "客户缓存不能为空");
+        this.customerEmailCache = Objects.requireNonNull(customerEmailCache, "客户邮箱缓存不能为空");
+        this.customerEmailFilter = Objects.requireNonNull(customerEmailFilter, "客户邮箱过滤器不能为空");
+    }
+    
+    /**
+     * 应用启动后把全部已注册邮箱装入布隆过滤器
+     * 装载完成前过滤器不给出否定判断，邮箱检查照常查询数据库
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadEmailFilter() {
+        customerMapper.streamEmails(context -> customerEmailFilter.put(context.getResultObject()));
+        customerEmailFilter.markReady();
     }
     
     @Override
     public void save(Customer customer) {
-        CustomerEntity entity = CustomerEntity.from(customer);
+        // 事务内只登记，提交前统一刷新
+        unitOfWork.registerDirty(writer, customer.getId(), customer);
         
-        // 检查是否已存在
-        CustomerEntity existingEntity = customerMapper.selectById(customer.getId().value());
-        
-        if (existingEntity != null) {
-            // 更新现有实体
-            entity.updateFrom(customer);
-            customerMapper.updateById(entity);
-        } else {
-            // 插入新实体
-            customerMapper.insert(entity);
+        // 新邮箱（注册或updateInfo修改）先记入过滤器；事务回滚时残留的位只会造成误判，不会漏判
+        customerEmailFilter.put(customer.getEmail().value());
+        // 邮箱索引不必失效，命中后会校验客户当前邮箱
+        customerCache.invalidate(customer.getId().value());
+    }
+    
+    /**
+     * 批量写入客户
+     * 由聚合自身的持久化状态决定插入或更新，避免写前查询
+     */
+    private void writeAll(List<Customer> customers) {
+        List<CustomerEntity> inserts = new ArrayList<>();
+        List<CustomerEntity> updates = new ArrayList<>();
+        for (Customer customer : customers) {
+            (customer.isNew() ? inserts : updates).add(CustomerEntity.from(customer));
         }
+        
+        BatchSupport.insert(customerMapper, inserts);
+        BatchSupport.updateById(customerMapper, updates);
+        customers.forEach(Customer::markPersisted);
     }
     
     @Override
     public Optional<Customer> findById(CustomerId customerId) {
-        CustomerEntity entity = customerMapper.selectById(customerId.value());
-        return entity != null ? Optional.of(entity.toDomain()) : Optional.empty();
+        Optional<Customer> pending = unitOfWork.findPending(writer, customerId);
+        if (pending.isPresent()) {
+            return pending;
+        }
+        
+        return customerCache.get(customerId.value(),
+                id -> Optional.ofNullable(customerMapper.selectById(customerId.toUuid())))
+            .map(CustomerEntity::toDomain);
+    }
+    
+    @Override
+    public List<Customer> findAllById(Collection<CustomerId> customerIds) {
+        List<Customer> customers = new ArrayList<>(customerIds.size());
+        List<String> ids = new ArrayList<>(customerIds.size());
+        for (CustomerId customerId : new LinkedHashSet<>(customerIds)) {
+            unitOfWork.findPending(writer, customerId)
+                .ifPresentOrElse(customers::add, () -> ids.add(customerId.value()));
+        }
+        
+        if (!ids.isEmpty()) {
+            // 缓存未命中的客户用一条IN查询加载
+            customerCache.getAll(ids, missing -> customerMapper.selectByIds(missing.stream().map(UuidCodec::parse).toList())
+                    .stream()
+                    .collect(Collectors.toMap(entity -> entity.getId().toString(), Function.identity())))
+                .values().forEach(entity -> customers.add(entity.toDomain()));
+        }
+        return customers;
     }
     
     @Override
     public Optional<Customer> findByEmail(Email email) {
+        if (!customerEmailFilter.mightContain(email.value())) {
+            return Optional.empty();
+        }
+        
+        Optional<Customer> indexed = findByEmailIndex(email);
+        if (indexed.isPresent()) {
+            return indexed;
+        }
+        
+        unitOfWork.flush();
         CustomerEntity entity = customerMapper.findByEmail(email.value());
-        return entity != null ? Optional.of(entity.toDomain()) : Optional.empty();
+        if (entity == null) {
+            return Optional.empty();
+        }
+        
+        customerEmailCache.put(email.value(), entity.getId().toString());
+        return Optional.of(entity.toDomain());
     }
     
     @Override
     public boolean existsByEmail(Email email) {
+        // 过滤器判定一定未注册时不查询数据库
+        if (!customerEmailFilter.mightContain(email.value())) {
+            return false;
+        }
+        
+        if (findByEmailIndex(email).isPresent()) {
+            return true;
+        }
+        
+        unitOfWork.flush();
         Integer count = customerMapper.existsByEmail(email.value());
         return count != null && count > 0;
     }
     
+    @Override
+    public Set<Email> findExistingEmails(Collection<Email> emails) {
+        // 过滤器判定一定未注册的邮箱不进入查询
+        List<String> candidates = emails.stream()
+            .map(Email::value)
+            .filter(customerEmailFilter::mightContain)
+            .distinct()
+            .toList();
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        
+        unitOfWork.flush();
+        Set<Email> existing = new HashSet<>();
+        for (int from = 0; from < candidates.size(); from += MAX_IN_SIZE) {
+            customerMapper.findExistingEmails(candidates.subList(from, Math.min(from + MAX_IN_SIZE, candidates.size())))
+                .forEach(email -> existing.add(new Email(email)));
+        }
+        return existing;
+    }
+    
+    /**
+     * 通过邮箱索引查找客户
+     * 客户可能已修改邮箱，索引命中后需校验客户当前的邮箱
+     */
+    private Optional<Customer> findByEmailIndex(Email email) {
+        return customerEmailCache.getIfPresent(email.value())
+            .flatMap(id -> findById(CustomerId.of(id)))
+            .filter(customer -> customer.getEmail().equals(email));
+    }
+    
     @Override
     public void deleteById(CustomerId customerId) {
-        customerMapper.deleteById(customerId.value());
+        unitOfWork.unregister(writer, customerId);
+        customerMapper.deleteById(customerId.toUuid());
+        customerCache.invalidate(customerId.value());
     }
 }
\ No newline at end of file
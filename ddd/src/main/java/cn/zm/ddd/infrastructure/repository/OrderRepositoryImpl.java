@@ -3,118 +3,258 @@ package cn.zm.ddd.infrastructure.repository;
 import cn.zm.ddd.domain.model.customer.CustomerId;
 import cn.zm.ddd.domain.model.order.Order;
 import cn.zm.ddd.domain.model.order.OrderId;
+import cn.zm.ddd.domain.model.order.OrderItemChanges;
 import cn.zm.ddd.domain.model.order.OrderStatus;
+import cn.zm.ddd.domain.model.product.ProductId;
 import cn.zm.ddd.domain.repository.OrderRepository;
 import cn.zm.ddd.infrastructure.mapper.OrderMapper;
 import cn.zm.ddd.infrastructure.mapper.OrderItemMapper;
+import cn.zm.ddd.infrastructure.mapper.OrderSummaryMapper;
 import cn.zm.ddd.infrastructure.persistence.OrderEntity;
 import cn.zm.ddd.infrastructure.persistence.OrderItemEntity;
+import cn.zm.ddd.infrastructure.persistence.OrderSummaryEntity;
+import com.baomidou.mybatisplus.core.batch.BatchMethod;
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * 订单仓储实现 - MyBatis-Plus版本
  * 
  * 由于订单和订单项的一对多关系，需要特殊处理：
- * 1. 保存时同时处理主表和从表
+ * 1. 保存时同时处理主表和从表，订单项只按变更集批量写入
  * 2. 查询时需要加载关联数据
- * 3. 使用事务保证数据一致性
+ * 3. 使用事务保证数据一致性，事务内的写入由工作单元合并后在提交前刷新
+ * 4. 每次写入订单时同步写入订单摘要读模型，供订单列表查询使用
+ * 5. 批量状态变更不加载聚合：先锁定并读取当前状态，再以一条条件更新同时变更订单和订单摘要
  */
 @Repository
 public class OrderRepositoryImpl implements OrderRepository {
     
+    private static final BatchMethod<OrderItemEntity> UPDATE_ITEM =
+        new MybatisBatch.Method<OrderItemEntity>(OrderItemMapper.class).get("updateByOrderIdAndProductId");
+    
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
+    private final OrderSummaryMapper orderSummaryMapper;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final UnitOfWork unitOfWork;
+    private final AggregateWriter<Order> writer =
+        new AggregateWriter<>("orders", AggregateWriter.ORDER_ORDER, this::writeAll);
     
-    public OrderRepositoryImpl(OrderMapper orderMapper, OrderItemMapper orderItemMapper) {
+    public OrderRepositoryImpl(OrderMapper orderMapper, OrderItemMapper orderItemMapper,
+                               OrderSummaryMapper orderSummaryMapper,
+                               SqlSessionFactory sqlSessionFactory, UnitOfWork unitOfWork) {
         this.orderMapper = Objects.requireNonNull(orderMapper, "订单Mapper不能为空");
         this.orderItemMapper = Objects.requireNonNull(orderItemMapper, "订单项Mapper不能为空");
+        this.orderSummaryMapper = Objects.requireNonNull(orderSummaryMapper, "订单摘要Mapper不能为空");
+        this.sqlSessionFactory = Objects.requireNonNull(sqlSessionFactory, "SqlSessionFactory不能为空");
+        this.unitOfWork = Objects.requireNonNull(unitOfWork, "工作单元不能为空");
     }
     
     @Override
     @Transactional
     public void save(Order order) {
-        OrderEntity entity = OrderEntity.from(order);
+        // 事务内只登记，提交前与其他聚合一起统一刷新
+        unitOfWork.registerDirty(writer, order.getId(), order);
+    }
+    
+    /**
+     * 批量写入订单
+     * 先批量写订单头和订单摘要，再合并所有订单的订单项变更集批量写入
+     */
+    private void writeAll(List<Order> orders) {
+        List<OrderEntity> inserts = new ArrayList<>();
+        List<OrderEntity> updates = new ArrayList<>();
+        List<OrderSummaryEntity> summaryInserts = new ArrayList<>();
+        List<OrderSummaryEntity> summaryUpdates = new ArrayList<>();
+        for (Order order : orders) {
+            (order.isNew() ? inserts : updates).add(OrderEntity.from(order));
+            (order.isNew() ? summaryInserts : summaryUpdates).add(OrderSummaryEntity.from(order));
+        }
         
-        OrderEntity existingEntity = orderMapper.selectById(order.getId().value());
+        BatchSupport.insert(orderMapper, inserts);
+        BatchSupport.updateById(orderMapper, updates);
+        BatchSupport.insert(orderSummaryMapper, summaryInserts);
+        BatchSupport.updateById(orderSummaryMapper, summaryUpdates);
+        orders.forEach(Order::markPersisted);
         
-        if (existingEntity != null) {
-            // 更新订单
-            entity.updateFrom(order);
-            orderMapper.updateById(entity);
+        // 只写入发生变化的订单项
+        saveItemChanges(orders);
+    }
+    
+    /**
+     * 按变更集批量写入订单项
+     * 仅订单头变化（如支付、发货、取消）时不产生任何订单项写入
+     */
+    private void saveItemChanges(List<Order> orders) {
+        List<OrderItemEntity> changed = new ArrayList<>();
+        List<OrderItemEntity> added = new ArrayList<>();
+        
+        for (Order order : orders) {
+            OrderItemChanges changes = order.getItemChanges();
+            if (changes.isEmpty()) {
+                continue;
+            }
+            
+            UUID orderId = order.getId().toUuid();
+            
+            if (!changes.removed().isEmpty()) {
+                orderItemMapper.deleteByOrderIdAndProductIds(orderId,
+                    changes.removed().stream().map(ProductId::toUuid).toList());
+            }
             
-            // 删除旧的订单项，重新插入
-            orderItemMapper.deleteByOrderId(order.getId().value());
-        } else {
-            // 插入新订单
-            orderMapper.insert(entity);
+            changes.changed().forEach(item -> changed.add(OrderItemEntity.from(item, orderId)));
+            changes.added().forEach(item -> added.add(OrderItemEntity.from(item, orderId)));
         }
         
-        // 插入订单项
-        for (var item : order.getItems()) {
-            OrderItemEntity itemEntity = OrderItemEntity.from(item, order.getId().value());
-            orderItemMapper.insert(itemEntity);
+        if (changed.size() == 1) {
+            orderItemMapper.updateByOrderIdAndProductId(changed.get(0));
+        } else if (!changed.isEmpty()) {
+            new MybatisBatch<>(sqlSessionFactory, changed).execute(UPDATE_ITEM);
         }
+        
+        BatchSupport.insert(orderItemMapper, added);
+        orders.forEach(Order::markItemsSaved);
     }
     
     @Override
     public Optional<Order> findById(OrderId orderId) {
-        OrderEntity entity = orderMapper.selectById(orderId.value());
+        Optional<Order> pending = unitOfWork.findPending(writer, orderId);
+        if (pending.isPresent()) {
+            return pending;
+        }
+        
+        OrderEntity entity = orderMapper.selectById(orderId.toUuid());
         if (entity == null) {
             return Optional.empty();
         }
         
         // 加载订单项
-        List<OrderItemEntity> items = orderItemMapper.findByOrderId(orderId.value());
+        List<OrderItemEntity> items = orderItemMapper.findByOrderId(orderId.toUuid());
         entity.setItems(items);
         
         return Optional.of(entity.toDomain());
     }
     
     @Override
-    public List<Order> findByCustomerId(CustomerId customerId) {
-        List<OrderEntity> entities = orderMapper.findByCustomerId(customerId.value());
+    public List<Order> findAllById(Collection<OrderId> orderIds) {
+        List<Order> orders = new ArrayList<>(orderIds.size());
+        List<UUID> ids = new ArrayList<>(orderIds.size());
+        for (OrderId orderId : new LinkedHashSet<>(orderIds)) {
+            unitOfWork.findPending(writer, orderId)
+                .ifPresentOrElse(orders::add, () -> ids.add(orderId.toUuid()));
+        }
+        if (ids.isEmpty()) {
+            return orders;
+        }
         
-        // 为每个订单加载订单项
-        return entities.stream().map(entity -> {
-            List<OrderItemEntity> items = orderItemMapper.findByOrderId(entity.getId());
-            entity.setItems(items);
-            return entity.toDomain();
-        }).toList();
+        // 订单头和订单项各一条IN查询
+        List<OrderEntity> entities = orderMapper.selectByIds(ids);
+        if (!entities.isEmpty()) {
+            orders.addAll(assemble(entities, orderItemMapper.findByOrderIds(
+                entities.stream().map(OrderEntity::getId).toList())));
+        }
+        return orders;
     }
     
     @Override
     public List<Order> findByStatus(OrderStatus status) {
+        unitOfWork.flush();
         List<OrderEntity> entities = orderMapper.findByStatus(status.name());
+        if (entities.isEmpty()) {
+            return List.of();
+        }
         
-        return entities.stream().map(entity -> {
-            List<OrderItemEntity> items = orderItemMapper.findByOrderId(entity.getId());
-            entity.setItems(items);
-            return entity.toDomain();
-        }).toList();
+        return assemble(entities, orderItemMapper.findByOrderStatus(status.name()));
     }
     
     @Override
     public List<Order> findByCustomerIdAndStatus(CustomerId customerId, OrderStatus status) {
+        unitOfWork.flush();
         List<OrderEntity> entities = orderMapper.findByCustomerIdAndStatus(
-            customerId.value(), status.name());
+            customerId.toUuid(), status.name());
+        if (entities.isEmpty()) {
+            return List.of();
+        }
         
-        return entities.stream().map(entity -> {
-            List<OrderItemEntity> items = orderItemMapper.findByOrderId(entity.getId());
-            entity.setItems(items);
-            return entity.toDomain();
-        }).toList();
+        return assemble(entities, orderItemMapper.findByCustomerIdAndOrderStatus(
+            customerId.toUuid(), status.name()));
+    }
+    
+    @Override
+    public List<OrderId> findIdsByStatusAndCreatedBefore(OrderStatus status, LocalDateTime createdBefore,
+                                                         int limit) {
+        unitOfWork.flush();
+        return orderMapper.findIdsByStatusAndCreatedBefore(status.name(), createdBefore, limit).stream()
+            .map(OrderId::of)
+            .toList();
+    }
+    
+    @Override
+    @Transactional
+    public Map<OrderId, OrderStatus> transitionAll(Collection<OrderId> orderIds, Set<OrderStatus> fromStatuses,
+                                                   OrderStatus status, LocalDateTime modifiedAt) {
+        // 本事务内登记的订单先写入，条件更新才能看到最新状态
+        unitOfWork.flush();
+        Map<OrderId, OrderStatus> previous = new HashMap<>();
+        List<UUID> eligible = new ArrayList<>();
+        for (OrderEntity entity : orderMapper.lockStatuses(orderIds.stream().map(OrderId::toUuid).toList())) {
+            OrderStatus current = OrderStatus.valueOf(entity.getStatus());
+            previous.put(OrderId.of(entity.getId()), current);
+            if (fromStatuses.contains(current)) {
+                eligible.add(entity.getId());
+            }
+        }
+        if (eligible.isEmpty()) {
+            return previous;
+        }
+        
+        List<String> from = fromStatuses.stream().map(OrderStatus::name).toList();
+        int updated = orderMapper.updateStatus(eligible, from, status.name(), modifiedAt);
+        if (updated != eligible.size()) {
+            // 行已锁定，不应出现；抛出异常让整个事务回滚
+            throw new IllegalStateException("订单状态条件更新行数不符，预期" + eligible.size() + "实际" + updated);
+        }
+        orderSummaryMapper.updateStatus(eligible, status.name(), modifiedAt);
+        return previous;
     }
     
     @Override
     @Transactional
     public void deleteById(OrderId orderId) {
-        // 先删除订单项，再删除订单
-        orderItemMapper.deleteByOrderId(orderId.value());
-        orderMapper.deleteById(orderId.value());
+        unitOfWork.unregister(writer, orderId);
+        
+        // 先删除订单项和订单摘要，再删除订单
+        orderItemMapper.deleteByOrderId(orderId.toUuid());
+        orderSummaryMapper.deleteById(orderId.toUuid());
+        orderMapper.deleteById(orderId.toUuid());
+    }
+    
+    /**
+     * 将批量加载的订单项按订单ID分组后组装为订单聚合
+     */
+    private List<Order> assemble(List<OrderEntity> entities, List<OrderItemEntity> items) {
+        Map<UUID, List<OrderItemEntity>> itemsByOrderId = items.stream()
+            .collect(Collectors.groupingBy(OrderItemEntity::getOrderId));
+        
+        return entities.stream().map(entity -> {
+            entity.setItems(itemsByOrderId.getOrDefault(entity.getId(), List.of()));
+            return entity.toDomain();
+        }).toList();
     }
 }
\ No newline at end of file
@@ -3,69 +3,246 @@ package cn.zm.ddd.infrastructure.repository;
 import cn.zm.ddd.domain.model.product.Product;
 import cn.zm.ddd.domain.model.product.ProductId;
 import cn.zm.ddd.domain.repository.ProductRepository;
+import cn.zm.ddd.infrastructure.cache.BoundedCache;
+import cn.zm.ddd.infrastructure.inventory.InventoryReservationEngine;
 import cn.zm.ddd.infrastructure.mapper.ProductMapper;
 import cn.zm.ddd.infrastructure.persistence.ProductEntity;
+import cn.zm.ddd.infrastructure.search.ProductSearchIndex;
+import cn.zm.ddd.shared.valueobject.UuidCodec;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 商品仓储实现 - MyBatis-Plus版本
+ * 
+ * 启用内存库存引擎时，库存预留由引擎在内存中完成并异步写回，
+ * 否则直接使用数据库条件更新。
+ * 按ID查询走有界缓存，保存、删除和库存变化时使对应条目失效。
+ * 商品搜索走内存n-gram倒排索引，保存和删除在事务提交后同步到索引
  */
 @Repository
 public class ProductRepositoryImpl implements ProductRepository {
     
     private final ProductMapper productMapper;
+    private final UnitOfWork unitOfWork;
+    private final InventoryReservationEngine inventoryEngine;
+    private final BoundedCache<String, ProductEntity> productCache;
+    private final ProductSearchIndex searchIndex;
+    private final AggregateWriter<Product> writer =
+        new AggregateWriter<>("products", AggregateWriter.PRODUCT_ORDER, this::writeAll);
     
-    public ProductRepositoryImpl(ProductMapper productMapper) {
+    public ProductRepositoryImpl(ProductMapper productMapper, UnitOfWork unitOfWork,
+                                 InventoryReservationEngine inventoryEngine,
+                                 BoundedCache<String, ProductEntity> productCache,
+                                 ProductSearchIndex searchIndex) {
         this.productMapper = Objects.requireNonNull(productMapper, "商品Mapper不能为空");
+        this.unitOfWork = Objects.requireNonNull(unitOfWork, "工作单元不能为空");
+        this.inventoryEngine = Objects.requireNonNull(inventoryEngine, "库存引擎不能为空");
+        this.productCache = Objects.requireNonNull(productCache, "商品缓存不能为空");
+        this.searchIndex = Objects.requireNonNull(searchIndex, "商品搜索索引不能为空");
+    }
+    
+    /**
+     * 应用启动后把全部商品装入搜索索引
+     * 装载完成前搜索照常查询数据库
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSearchIndex() {
+        productMapper.streamSearchFields(context -> {
+            ProductEntity entity = context.getResultObject();
+            searchIndex.load(entity.getId().toString(), entity.getName(), entity.getDescription());
+        });
+        searchIndex.markReady();
     }
     
     @Override
     public void save(Product product) {
-        ProductEntity entity = ProductEntity.from(product);
-        
-        ProductEntity existingEntity = productMapper.selectById(product.getId().value());
+        unitOfWork.registerDirty(writer, product.getId(), product);
+        productCache.invalidate(product.getId().value());
         
-        if (existingEntity != null) {
-            entity.updateFrom(product);
-            productMapper.updateById(entity);
-        } else {
-            productMapper.insert(entity);
+        String id = product.getId().value();
+        String name = product.getName();
+        String description = product.getDescription();
+        afterCommit(() -> searchIndex.put(id, name, description));
+    }
+    
+    /**
+     * 批量写入商品
+     */
+    private void writeAll(List<Product> products) {
+        List<ProductEntity> inserts = new ArrayList<>();
+        List<ProductEntity> updates = new ArrayList<>();
+        for (Product product : products) {
+            (product.isNew() ? inserts : updates).add(ProductEntity.from(product));
         }
+        
+        BatchSupport.insert(productMapper, inserts);
+        BatchSupport.updateById(productMapper, updates);
+        products.forEach(Product::markPersisted);
+        products.forEach(product ->
+            inventoryEngine.updateAvailability(product.getId(), product.isAvailable()));
     }
     
     @Override
     public Optional<Product> findById(ProductId productId) {
-        ProductEntity entity = productMapper.selectById(productId.value());
-        return entity != null ? Optional.of(entity.toDomain()) : Optional.empty();
+        Optional<Product> pending = unitOfWork.findPending(writer, productId);
+        if (pending.isPresent()) {
+            return pending;
+        }
+        
+        // 缓存中保存的是实体，每次重建聚合，调用方修改聚合不会影响缓存
+        return productCache.get(productId.value(),
+                id -> Optional.ofNullable(productMapper.selectById(productId.toUuid())))
+            .map(ProductEntity::toDomain);
+    }
+    
+    @Override
+    public List<Product> findAllById(Collection<ProductId> productIds) {
+        List<Product> products = new ArrayList<>(productIds.size());
+        List<String> ids = new ArrayList<>(productIds.size());
+        for (ProductId productId : new LinkedHashSet<>(productIds)) {
+            unitOfWork.findPending(writer, productId)
+                .ifPresentOrElse(products::add, () -> ids.add(productId.value()));
+        }
+        
+        if (!ids.isEmpty()) {
+            // 缓存未命中的商品用一条IN查询加载
+            productCache.getAll(ids, missing -> productMapper.selectByIds(missing.stream().map(UuidCodec::parse).toList())
+                    .stream()
+                    .collect(Collectors.toMap(entity -> entity.getId().toString(), Function.identity())))
+                .values().forEach(entity -> products.add(entity.toDomain()));
+        }
+        return products;
     }
     
     @Override
     public List<Product> findAllAvailable() {
+        unitOfWork.flush();
         return productMapper.findByAvailableTrue().stream()
             .map(ProductEntity::toDomain)
             .toList();
     }
     
     @Override
-    public List<Product> findByNameContaining(String name) {
-        return productMapper.findByNameContainingIgnoreCase(name).stream()
+    public List<Product> search(String keyword, int limit) {
+        if (!searchIndex.isReady()) {
+            return searchInDatabase(keyword, limit);
+        }
+        
+        List<String> ids = searchIndex.search(keyword, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        // 按ID批量加载（走缓存），再恢复索引给出的相关度顺序
+        Map<String, Product> products = findAllById(ids.stream().map(ProductId::of).toList()).stream()
+            .collect(Collectors.toMap(product -> product.getId().value(), Function.identity()));
+        return ids.stream()
+            .map(products::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+    
+    /**
+     * 索引未就绪时用最长的查询词做LIKE查询筛选候选，再按索引相同的规则打分排序
+     */
+    private List<Product> searchInDatabase(String keyword, int limit) {
+        String term = ProductSearchIndex.longestTerm(keyword);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        
+        unitOfWork.flush();
+        String pattern = "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return ProductSearchIndex.rank(keyword, productMapper.findByKeyword(pattern),
+                ProductEntity::getName, ProductEntity::getDescription, limit).stream()
             .map(ProductEntity::toDomain)
             .toList();
     }
     
     @Override
     public List<Product> findLowStockProducts(int threshold) {
+        unitOfWork.flush();
         return productMapper.findLowStockProducts(threshold).stream()
             .map(ProductEntity::toDomain)
             .toList();
     }
     
+    @Override
+    public boolean reserveStock(ProductId productId, int quantity) {
+        flushIfPending(productId);
+        LocalDateTime now = LocalDateTime.now();
+        boolean reserved = inventoryEngine.isEnabled()
+            ? inventoryEngine.reserve(productId, quantity)
+            : productMapper.decreaseStock(productId.toUuid(), quantity, now) == 1;
+        if (reserved) {
+            invalidateCachedStock(productId);
+        }
+        return reserved;
+    }
+    
+    @Override
+    public void increaseStock(ProductId productId, int quantity) {
+        flushIfPending(productId);
+        LocalDateTime now = LocalDateTime.now();
+        productMapper.increaseStock(productId.toUuid(), quantity, now);
+        inventoryEngine.replenish(productId, quantity);
+        invalidateCachedStock(productId);
+    }
+    
+    /**
+     * 库存变化时使缓存条目失效，提交后再失效一次，下次读取加载已提交的库存；
+     * 不在事务内调整共享缓存中的库存，未提交或回滚的扣减不会被其他请求读到
+     */
+    private void invalidateCachedStock(ProductId productId) {
+        productCache.invalidate(productId.value());
+    }
+    
+    /**
+     * 库存增减直接执行，若该商品有未刷新的写入则先刷新，保证语句顺序
+     */
+    private void flushIfPending(ProductId productId) {
+        if (unitOfWork.findPending(writer, productId).isPresent()) {
+            unitOfWork.flush();
+        }
+    }
+    
     @Override
     public void deleteById(ProductId productId) {
-        productMapper.deleteById(productId.value());
+        unitOfWork.unregister(writer, productId);
+        productMapper.deleteById(productId.toUuid());
+        inventoryEngine.evict(productId);
+        productCache.invalidate(productId.value());
+        afterCommit(() -> searchIndex.remove(productId.value()));
+    }
+    
+    /**
+     * 事务提交后执行，回滚的保存和删除不会进入搜索索引；没有活动事务时立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+package cn.zm.ddd.infrastructure.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 工作单元 - 事务范围内的写合并
+ * 
+ * 工作单元的特点：
+ * 1. 事务内仓储的save只登记脏聚合，不立即执行SQL
+ * 2. 同一聚合多次保存只保留一次写入
+ * 3. 事务提交前按写入器顺序（客户、商品、订单、统计汇总）统一刷新，同类聚合走JDBC批处理
+ * 4. 没有活动事务时退化为立即写入
+ * 5. 每类聚合的批量写入耗时记录在ddd.unitofwork.flush指标中
+ */
+@Component
+public class UnitOfWork {
+    
+    /**
+     * 在MyBatis的SqlSession同步器之前刷新，保证写入落在同一连接和事务中
+     */
+    private static final int FLUSH_ORDER = DataSourceUtils.CONNECTION_SYNCHRONIZATION_ORDER - 100;
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> flushTimers = new ConcurrentHashMap<>();
+    
+    public UnitOfWork(MeterRegistry meterRegistry) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "指标注册表不能为空");
+    }
+    
+    /**
+     * 登记脏聚合
+     * 
+     * @param writer 聚合所属仓储的写入器
+     * @param id 聚合标识，用于合并同一聚合的多次写入
+     * @param aggregate 聚合根
+     */
+    public <T> void registerDirty(AggregateWriter<T> writer, Object id, T aggregate) {
+        Pending pending = currentPending(true);
+        if (pending == null) {
+            writer.write(List.of(aggregate));
+            return;
+        }
+        
+        pending.dirty(writer).put(id, aggregate);
+    }
+    
+    /**
+     * 查找当前事务中已登记但尚未刷新的聚合
+     * 保证同一事务内按ID读取时能看到自己的写入
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> findPending(AggregateWriter<T> writer, Object id) {
+        Pending pending = currentPending(false);
+        if (pending == null) {
+            return Optional.empty();
+        }
+        
+        Map<Object, Object> dirty = pending.writes.get(writer);
+        return dirty != null ? Optional.ofNullable((T) dirty.get(id)) : Optional.empty();
+    }
+    
+    /**
+     * 撤销聚合的登记（聚合被删除时调用）
+     */
+    public void unregister(AggregateWriter<?> writer, Object id) {
+        Pending pending = currentPending(false);
+        if (pending != null && pending.writes.containsKey(writer)) {
+            pending.writes.get(writer).remove(id);
+        }
+    }
+    
+    /**
+     * 立即刷新当前事务中所有已登记的聚合
+     * 在执行可能受未刷新写入影响的查询前调用
+     */
+    public void flush() {
+        Pending pending = currentPending(false);
+        if (pending != null) {
+            pending.flush();
+        }
+    }
+    
+    private Timer flushTimer(String aggregate) {
+        return flushTimers.computeIfAbsent(aggregate, name -> Timer.builder("ddd.unitofwork.flush")
+            .tag("aggregate", name)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofNanos(100_000))
+            .register(meterRegistry));
+    }
+    
+    private Pending currentPending(boolean create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null && create) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+    
+    /**
+     * 单个事务内登记的写入
+     */
+    private final class Pending implements TransactionSynchronization {
+        
+        private final Map<AggregateWriter<?>, Map<Object, Object>> writes = new LinkedHashMap<>();
+        
+        Map<Object, Object> dirty(AggregateWriter<?> writer) {
+            return writes.computeIfAbsent(writer, key -> new LinkedHashMap<>());
+        }
+        
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public void flush() {
+            Map<AggregateWriter<?>, List<Object>> ordered =
+                new TreeMap<>(Comparator.comparingInt(AggregateWriter<?>::order)
+                    .thenComparing(AggregateWriter::name));
+            
+            for (var entry : writes.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    ordered.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+                    entry.getValue().clear();
+                }
+            }
+            
+            for (var entry : ordered.entrySet()) {
+                AggregateWriter writer = entry.getKey();
+                flushTimer(writer.name()).record(() -> writer.write(entry.getValue()));
+            }
+        }
+        
+        @Override
+        public int getOrder() {
+            return FLUSH_ORDER;
+        }
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            flush();
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(UnitOfWork.this);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package cn.zm.ddd.infrastructure.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * n-gram文本分析
+ * 
+ * 中文没有空格分词，按字切分的一元、二元组对中日韩文字和拉丁文字一视同仁：
+ * 1. 先做NFKC规范化（全角字母数字转半角、兼容字符合并）并转小写
+ * 2. 按码点而不是char切分，扩展区汉字等增补平面字符不会被拆成半个代理对
+ * 3. 空白不进入任何n-gram，二元组不跨越空白
+ * 
+ * 查询词的全部n-gram都出现在文本中是文本包含查询词的必要条件，
+ * 索引用它筛选候选，再对候选做一次子串校验得到精确结果
+ */
+final class NGramAnalyzer {
+    
+    private NGramAnalyzer() {
+    }
+    
+    /**
+     * 规范化文本，null视为空串
+     */
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * 把规范化后的查询按空白拆成多个查询词
+     */
+    static List<String> terms(String normalizedQuery) {
+        List<String> terms = new ArrayList<>();
+        for (String term : normalizedQuery.trim().split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+    
+    /**
+     * 规范化文本的一元组和二元组
+     */
+    static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        int[] codePoints = normalized.codePoints().toArray();
+        for (int i = 0; i < codePoints.length; i++) {
+            if (Character.isWhitespace(codePoints[i])) {
+                continue;
+            }
+            grams.add(new String(codePoints, i, 1));
+            if (i + 1 < codePoints.length && !Character.isWhitespace(codePoints[i + 1])) {
+                grams.add(new String(codePoints, i, 2));
+            }
+        }
+        return grams;
+    }
+    
+    /**
+     * 查询词用于筛选候选的n-gram
+     * 单字查询用一元组，多字查询只用二元组，二元组的选择性远高于单字
+     */
+    static Set<String> queryGrams(String term) {
+        int length = term.codePointCount(0, term.length());
+        if (length == 1) {
+            return Set.of(term);
+        }
+        
+        Set<String> grams = new LinkedHashSet<>();
+        int[] codePoints = term.codePoints().toArray();
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            grams.add(new String(codePoints, i, 2));
+        }
+        return grams;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,391 @@
+package cn.zm.ddd.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 带热度的前缀树，用于输入联想
+ * 
+ * 每个条目（商品）可以有多个键，键为规范化后的完整名称以及名称中每个空白之后的后缀，
+ * 输入“pro”既能联想到“pro max”，也能联想到“airpods pro”。
+ * 
+ * 每个节点缓存其子树中热度最高的topK个条目（同一条目只出现一次）：
+ * 1. 查询沿前缀走到节点后直接复制缓存，代价与前缀长度和返回数量成正比，与条目总数无关
+ * 2. 新增条目和增加热度只可能让该条目进入或上移，沿键路径逐个节点插入即可，
+ *    每个节点O(topK)
+ * 3. 删除条目、降低热度时，只重算缓存中含该条目的节点：
+ *    自身条目与各子节点的有序缓存做多路归并，每个节点O(topK × log 子节点数)
+ * 
+ * 子节点按字符排序存放在数组中，按二分查找定位。非线程安全，由调用方加锁
+ */
+public final class PrefixTrie {
+    
+    /**
+     * 热度倒序，同热度名称短的优先，再按名称、ID保证顺序稳定
+     */
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::weight).reversed()
+        .thenComparingInt(entry -> entry.key().length())
+        .thenComparing(Entry::key)
+        .thenComparing(Entry::id);
+    
+    private final int topK;
+    private final Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+    
+    public PrefixTrie(int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("缓存条目数必须大于0");
+        }
+        this.topK = topK;
+    }
+    
+    /**
+     * 新增或更新条目，已有条目保留原热度，名称变化时先移除旧键
+     * 
+     * @param key 规范化后的名称
+     * @param label 展示名称
+     */
+    public void put(String id, String key, String label) {
+        Entry previous = entries.get(id);
+        long weight = 0;
+        if (previous != null) {
+            if (previous.key().equals(key)) {
+                previous.label = label;
+                return;
+            }
+            weight = previous.weight();
+            remove(id);
+        }
+        
+        Entry entry = new Entry(id, key, label, weight);
+        entries.put(id, entry);
+        for (String suffix : suffixes(key)) {
+            List<Node> path = descend(suffix, true);
+            path.get(path.size() - 1).terminals.add(entry);
+            promote(path, entry);
+        }
+    }
+    
+    public void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        List<List<Node>> paths = new ArrayList<>();
+        for (String suffix : suffixes(entry.key())) {
+            List<Node> path = descend(suffix, false);
+            if (path.size() == suffix.length() + 1) {
+                path.get(path.size() - 1).terminals.remove(entry);
+                prune(path, suffix);
+                paths.add(path);
+            }
+        }
+        demote(paths, entry);
+    }
+    
+    /**
+     * 条目热度增加delta，条目不存在时忽略
+     */
+    public void addWeight(String id, long delta) {
+        Entry entry = entries.get(id);
+        if (entry != null && delta != 0) {
+            setWeight(entry, entry.weight() + delta);
+        }
+    }
+    
+    public boolean contains(String id) {
+        return entries.containsKey(id);
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * 以prefix开头的键中热度最高的limit个条目，limit不超过topK
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        
+        int count = Math.min(Math.min(limit, topK), node.top.length);
+        List<Suggestion> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Entry entry = node.top[i];
+            suggestions.add(new Suggestion(entry.id(), entry.label, entry.weight()));
+        }
+        return suggestions;
+    }
+    
+    private void setWeight(Entry entry, long weight) {
+        boolean increased = weight > entry.weight;
+        entry.weight = weight;
+        List<List<Node>> paths = new ArrayList<>();
+        for (String suffix : suffixes(entry.key())) {
+            paths.add(descend(suffix, false));
+        }
+        if (increased) {
+            paths.forEach(path -> promote(path, entry));
+        } else {
+            demote(paths, entry);
+        }
+    }
+    
+    /**
+     * 从根节点沿键向下，返回经过的节点（含根节点）
+     * create为false时遇到不存在的节点即停止
+     */
+    private List<Node> descend(String key, boolean create) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                if (!create) {
+                    break;
+                }
+                child = node.addChild(key.charAt(i));
+            }
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+    
+    /**
+     * 自底向上摘除不再有条目的空节点
+     */
+    private static void prune(List<Node> path, String key) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (!node.terminals.isEmpty() || node.keys.length > 0) {
+                return;
+            }
+            path.get(i - 1).removeChild(key.charAt(i - 1));
+            path.remove(i);
+        }
+    }
+    
+    /**
+     * 条目新增或热度增加后，自底向上把它插入路径上各节点的缓存
+     * 其余条目不变，每个节点的缓存至多是该条目上移或挤掉末位
+     */
+    private void promote(List<Node> path, Entry entry) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            Entry[] top = node.top;
+            
+            int position = indexOf(top, entry);
+            int length = top.length;
+            if (position < 0) {
+                if (length == topK && RANKING.compare(entry, top[length - 1]) >= 0) {
+                    // 进不了该节点的缓存，也进不了更上层节点的缓存
+                    return;
+                }
+                top = Arrays.copyOf(top, Math.min(length + 1, topK));
+                position = top.length - 1;
+            } else {
+                top = top.clone();
+            }
+            
+            while (position > 0 && RANKING.compare(entry, top[position - 1]) < 0) {
+                top[position] = top[position - 1];
+                position--;
+            }
+            top[position] = entry;
+            node.top = top;
+        }
+    }
+    
+    /**
+     * 条目删除或热度降低后，重算缓存中含该条目的节点
+     * 多条键路径共享上层节点，统一按深度从深到浅重算，保证归并时子节点缓存已是最新
+     */
+    private void demote(List<List<Node>> paths, Entry entry) {
+        Map<Node, Integer> depths = new IdentityHashMap<>();
+        for (List<Node> path : paths) {
+            for (int depth = 0; depth < path.size(); depth++) {
+                if (indexOf(path.get(depth).top, entry) >= 0) {
+                    depths.put(path.get(depth), depth);
+                }
+            }
+        }
+        depths.entrySet().stream()
+            .sorted(Map.Entry.<Node, Integer>comparingByValue().reversed())
+            .forEach(node -> node.getKey().top = merge(node.getKey()));
+    }
+    
+    /**
+     * 自身条目与各子节点的有序缓存多路归并，取前topK个不重复条目
+     */
+    private Entry[] merge(Node node) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, node.children.length + 1),
+            (a, b) -> RANKING.compare(a.current(), b.current()));
+        if (!node.terminals.isEmpty()) {
+            Entry[] terminals = node.terminals.toArray(new Entry[0]);
+            Arrays.sort(terminals, RANKING);
+            heads.add(new Cursor(terminals));
+        }
+        for (Node child : node.children) {
+            if (child.top.length > 0) {
+                heads.add(new Cursor(child.top));
+            }
+        }
+        
+        List<Entry> top = new ArrayList<>(topK);
+        while (top.size() < topK && !heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            Entry entry = cursor.current();
+            // 同一条目的多个键可能落在同一子树中
+            if (!top.contains(entry)) {
+                top.add(entry);
+            }
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return top.toArray(new Entry[0]);
+    }
+    
+    private static int indexOf(Entry[] entries, Entry entry) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == entry) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 完整键及每个空白之后的后缀
+     */
+    private static Set<String> suffixes(String key) {
+        Set<String> suffixes = new HashSet<>();
+        suffixes.add(key);
+        for (int i = 0; i < key.length(); i++) {
+            if (Character.isWhitespace(key.charAt(i)) && i + 1 < key.length()
+                    && !Character.isWhitespace(key.charAt(i + 1))) {
+                suffixes.add(key.substring(i + 1));
+            }
+        }
+        return suffixes;
+    }
+    
+    /**
+     * 多路归并中指向某个有序数组的游标
+     */
+    private static final class Cursor {
+        
+        private final Entry[] entries;
+        private int position;
+        
+        Cursor(Entry[] entries) {
+            this.entries = entries;
+        }
+        
+        Entry current() {
+            return entries[position];
+        }
+        
+        boolean advance() {
+            return ++position < entries.length;
+        }
+    }
+    
+    /**
+     * 联想结果
+     */
+    public record Suggestion(String id, String label, long weight) {
+    }
+    
+    private static final class Node {
+        
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+        
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private final List<Entry> terminals = new ArrayList<>(1);
+        private Entry[] top = NO_ENTRIES;
+        
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+        
+        Node addChild(char c) {
+            int index = -Arrays.binarySearch(keys, c) - 1;
+            Node child = new Node();
+            
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = c;
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+        
+        void removeChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+    
+    /**
+     * 条目按对象身份参与去重
+     */
+    private static final class Entry {
+        
+        private final String id;
+        private final String key;
+        private String label;
+        private long weight;
+        
+        Entry(String id, String key, String label, long weight) {
+            this.id = id;
+            this.key = key;
+            this.label = label;
+            this.weight = weight;
+        }
+        
+        String id() {
+            return id;
+        }
+        
+        String key() {
+            return key;
+        }
+        
+        long weight() {
+            return weight;
+        }
+    }
+}
\ No newline at end of file
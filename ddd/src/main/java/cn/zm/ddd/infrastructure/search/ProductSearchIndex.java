@@ -0,0 +1,285 @@
+package cn.zm.ddd.infrastructure.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 商品名称与描述的内存倒排索引
+ * 
+ * 以NGramAnalyzer切分的一元、二元组为词项，倒排表记录包含该词项的商品。
+ * 搜索时对每个查询词取倒排表最短的词项作为候选集，再逐个候选做子串校验和打分，
+ * 代价与最短倒排表长度成正比，而不是与商品总数成正比。
+ * 
+ * 打分规则（多个查询词取和，任一查询词不匹配则排除）：
+ * 名称完全相同100，名称前缀60，名称包含40，仅描述包含10；同分时名称越短越靠前。
+ * 
+ * 应用启动后由仓储全量装载，装载完成前isReady为false，调用方回退到数据库查询。
+ * 装载期间的增量更新优先于装载数据，装载期间删除的商品不会被装载数据恢复
+ */
+@Component
+public class ProductSearchIndex {
+    
+    private static final int EXACT_NAME = 100;
+    private static final int NAME_PREFIX = 60;
+    private static final int NAME_CONTAINS = 40;
+    private static final int DESCRIPTION_CONTAINS = 10;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Document> documents = new HashMap<>();
+    private final Map<String, Set<Document>> postings = new HashMap<>();
+    private final Set<String> removedWhileLoading = new HashSet<>();
+    private volatile boolean ready;
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * 全量装载完成
+     */
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            removedWhileLoading.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 新增或更新商品，名称和描述都未变化时不做任何修改
+     */
+    public void put(String productId, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            removedWhileLoading.remove(productId);
+            index(new Document(productId, NGramAnalyzer.normalize(name), NGramAnalyzer.normalize(description)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 装载时使用：已被增量更新或删除的商品不再覆盖
+     */
+    public void load(String productId, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            if (!documents.containsKey(productId) && !removedWhileLoading.contains(productId)) {
+                index(new Document(productId, NGramAnalyzer.normalize(name), NGramAnalyzer.normalize(description)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                removedWhileLoading.add(productId);
+            }
+            Document previous = documents.remove(productId);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 搜索商品，返回按相关度排序的商品ID
+     */
+    public List<String> search(String query, int limit) {
+        List<String> terms = NGramAnalyzer.terms(NGramAnalyzer.normalize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            Collection<Document> candidates = candidates(terms);
+            return top(terms, candidates, Function.identity(), limit).stream()
+                .map(Document::productId)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 用与索引相同的规则对任意候选排序，供索引未就绪时对数据库查询结果排序
+     */
+    public static <T> List<T> rank(String query, Collection<T> items, Function<T, String> name,
+                                   Function<T, String> description, int limit) {
+        List<String> terms = NGramAnalyzer.terms(NGramAnalyzer.normalize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        return top(terms, items, item -> new Document(null, NGramAnalyzer.normalize(name.apply(item)),
+            NGramAnalyzer.normalize(description.apply(item))), limit);
+    }
+    
+    /**
+     * 最长的规范化查询词，索引未就绪时用于数据库LIKE查询筛选候选
+     */
+    public static String longestTerm(String query) {
+        return NGramAnalyzer.terms(NGramAnalyzer.normalize(query)).stream()
+            .max(Comparator.comparingInt(String::length))
+            .orElse("");
+    }
+    
+    private void index(Document document) {
+        Document previous = documents.get(document.productId());
+        if (previous != null) {
+            if (previous.name().equals(document.name()) && previous.description().equals(document.description())) {
+                // 文本未变化（如只改了价格、库存），不重建倒排表
+                return;
+            }
+            unindex(previous);
+        }
+        documents.put(document.productId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document);
+        }
+    }
+    
+    private void unindex(Document document) {
+        for (String gram : document.grams()) {
+            Set<Document> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(document);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 所有查询词的所有n-gram中倒排表最短的一个，匹配全部查询词的商品必然在其中
+     */
+    private Collection<Document> candidates(List<String> terms) {
+        Set<Document> shortest = null;
+        for (String term : terms) {
+            for (String gram : NGramAnalyzer.queryGrams(term)) {
+                Set<Document> posting = postings.get(gram);
+                if (posting == null) {
+                    return List.of();
+                }
+                if (shortest == null || posting.size() < shortest.size()) {
+                    shortest = posting;
+                }
+            }
+        }
+        return shortest == null ? List.of() : shortest;
+    }
+    
+    /**
+     * 打分后用容量为limit的小顶堆取前limit个
+     */
+    private static <T> List<T> top(List<String> terms, Collection<T> items, Function<T, Document> document,
+                                   int limit) {
+        Comparator<Scored<T>> ranking = Comparator.<Scored<T>>comparingInt(Scored::score)
+            .thenComparing(scored -> -scored.document().name().length())
+            .thenComparing(scored -> scored.document().name(), Comparator.reverseOrder());
+        PriorityQueue<Scored<T>> heap = new PriorityQueue<>(ranking);
+        
+        for (T item : items) {
+            Document doc = document.apply(item);
+            int score = score(terms, doc);
+            if (score <= 0) {
+                continue;
+            }
+            heap.offer(new Scored<>(item, doc, score));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        
+        List<Scored<T>> result = new ArrayList<>(heap);
+        result.sort(ranking.reversed());
+        return result.stream().map(Scored::item).toList();
+    }
+    
+    private static int score(List<String> terms, Document document) {
+        int total = 0;
+        for (String term : terms) {
+            int score;
+            if (document.name().equals(term)) {
+                score = EXACT_NAME;
+            } else if (document.name().startsWith(term)) {
+                score = NAME_PREFIX;
+            } else if (document.name().contains(term)) {
+                score = NAME_CONTAINS;
+            } else if (document.description().contains(term)) {
+                score = DESCRIPTION_CONTAINS;
+            } else {
+                return 0;
+            }
+            total += score;
+        }
+        return total;
+    }
+    
+    /**
+     * 索引中的商品文档，名称和描述均已规范化
+     * 按对象身份放入倒排表，同一商品的新旧文档互不干扰
+     */
+    private static final class Document {
+        
+        private final String productId;
+        private final String name;
+        private final String description;
+        
+        Document(String productId, String name, String description) {
+            this.productId = productId;
+            this.name = name;
+            this.description = description;
+        }
+        
+        String productId() {
+            return productId;
+        }
+        
+        String name() {
+            return name;
+        }
+        
+        String description() {
+            return description;
+        }
+        
+        Set<String> grams() {
+            Set<String> grams = NGramAnalyzer.grams(name);
+            grams.addAll(NGramAnalyzer.grams(description));
+            return grams;
+        }
+    }
+    
+    private record Scored<T>(T item, Document document, int score) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package cn.zm.ddd.infrastructure.search;
+
+import cn.zm.ddd.application.dto.ProductSuggestionDto;
+import cn.zm.ddd.application.search.ProductSuggester;
+import cn.zm.ddd.domain.model.order.Order;
+import cn.zm.ddd.domain.model.order.OrderItem;
+import cn.zm.ddd.domain.model.product.Product;
+import cn.zm.ddd.infrastructure.mapper.ProductMapper;
+import cn.zm.ddd.infrastructure.mapper.SalesBucketMapper;
+import cn.zm.ddd.infrastructure.persistence.ProductEntity;
+import cn.zm.ddd.infrastructure.persistence.SalesBucketEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 商品输入联想实现 - 带热度的内存前缀树
+ * 
+ * 名称按NGramAnalyzer的规则规范化后作为键，查询前缀同样规范化，全角、大小写不影响匹配。
+ * 热度为支付的商品数量：启动时取最近popularity-days天的销售汇总，此后每次支付累加。
+ * 
+ * 应用启动后装载全部在售商品，装载完成前联想返回空结果。
+ * 装载期间的增量更新优先于装载数据，装载期间下架的商品不会被装载数据恢复
+ */
+@Component
+public class ProductSuggesterImpl implements ProductSuggester {
+    
+    private final ProductMapper productMapper;
+    private final SalesBucketMapper salesBucketMapper;
+    private final int popularityDays;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PrefixTrie trie = new PrefixTrie(MAX_LIMIT);
+    private final Set<String> removedWhileLoading = new HashSet<>();
+    private volatile boolean ready;
+    
+    public ProductSuggesterImpl(ProductMapper productMapper, SalesBucketMapper salesBucketMapper,
+                                @Value("${ddd.search.suggest.popularity-days:30}") int popularityDays) {
+        this.productMapper = Objects.requireNonNull(productMapper, "商品Mapper不能为空");
+        this.salesBucketMapper = Objects.requireNonNull(salesBucketMapper, "销售统计Mapper不能为空");
+        if (popularityDays <= 0) {
+            throw new IllegalArgumentException("热度统计天数必须大于0");
+        }
+        this.popularityDays = popularityDays;
+    }
+    
+    /**
+     * 应用启动后装载全部在售商品及其近期销量
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDate today = LocalDate.now();
+        Map<String, Long> popularity = new HashMap<>();
+        // 各币种分别汇总，按商品合计数量
+        for (SalesBucketEntity bucket : salesBucketMapper.sumByKey(SalesBucketEntity.PRODUCT,
+                today.minusDays(popularityDays - 1L), today, Integer.MAX_VALUE)) {
+            popularity.merge(bucket.getBucketKey(), bucket.getPaidQuantity(), Long::sum);
+        }
+        List<ProductEntity> products = productMapper.findByAvailableTrue();
+        
+        lock.writeLock().lock();
+        try {
+            for (ProductEntity product : products) {
+                String id = product.getId().toString();
+                if (removedWhileLoading.contains(id)) {
+                    continue;
+                }
+                if (!trie.contains(id)) {
+                    trie.put(id, NGramAnalyzer.normalize(product.getName()), product.getName());
+                }
+                trie.addWeight(id, popularity.getOrDefault(id, 0L));
+            }
+            removedWhileLoading.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void update(Product product) {
+        String id = product.getId().value();
+        String name = product.getName();
+        boolean available = product.isAvailable();
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (available) {
+                    removedWhileLoading.remove(id);
+                    trie.put(id, NGramAnalyzer.normalize(name), name);
+                } else {
+                    if (!ready) {
+                        removedWhileLoading.add(id);
+                    }
+                    trie.remove(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+    
+    @Override
+    public void recordPaid(Order order) {
+        Map<String, Long> quantities = new HashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.productId().value(), (long) item.quantity(), Long::sum);
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                quantities.forEach(trie::addWeight);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+    
+    @Override
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("返回数量必须在1-" + MAX_LIMIT + "之间");
+        }
+        String normalized = NGramAnalyzer.normalize(prefix).stripLeading();
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            return trie.suggest(normalized, limit).stream()
+                .map(suggestion -> new ProductSuggestionDto(suggestion.id(), suggestion.label(),
+                    suggestion.weight()))
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 事务提交后执行；没有活动事务时立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
\ No newline at end of file
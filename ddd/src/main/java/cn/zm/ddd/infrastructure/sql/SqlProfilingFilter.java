@@ -0,0 +1,72 @@
+package cn.zm.ddd.infrastructure.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 请求级SQL汇总过滤器
+ * 
+ * 请求开始时绑定SqlRequestProfile，结束时：
+ * 1. 同一语句执行次数超过阈值视为N+1查询，累加ddd.sql.n.plus.one计数并输出告警日志
+ * 2. 出现慢查询或执行失败的语句时以告警级别输出本次请求的SQL汇总
+ * 3. 其余请求的汇总只在DEBUG级别输出
+ */
+@Slf4j
+@Component
+public class SqlProfilingFilter extends OncePerRequestFilter {
+    
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    
+    public SqlProfilingFilter(MeterRegistry meterRegistry,
+                              @Value("${ddd.sql.profiling.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "指标注册表不能为空");
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlRequestProfile profile = SqlRequestProfile.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestProfile.end();
+            report(request, profile);
+        }
+    }
+    
+    private void report(HttpServletRequest request, SqlRequestProfile profile) {
+        if (profile.isEmpty()) {
+            return;
+        }
+        
+        List<String> repeated = profile.repeatedStatements(nPlusOneThreshold);
+        repeated.forEach(statement -> Counter.builder("ddd.sql.n.plus.one")
+            .tag("statement", statement)
+            .register(meterRegistry)
+            .increment());
+        
+        if (!repeated.isEmpty()) {
+            log.warn("疑似N+1查询 {} {}，重复执行超过{}次的语句{}，{}", request.getMethod(), request.getRequestURI(),
+                nPlusOneThreshold, repeated, profile.summary());
+        } else if (profile.slowStatements() > 0 || profile.failedStatements() > 0) {
+            log.warn("包含{}条慢SQL、{}条失败SQL {} {}，{}", profile.slowStatements(), profile.failedStatements(),
+                request.getMethod(), request.getRequestURI(), profile.summary());
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} {} {}", request.getMethod(), request.getRequestURI(), profile.summary());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,238 @@
+package cn.zm.ddd.infrastructure.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchExecutorException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * SQL执行剖析拦截器
+ * 
+ * 记录每个映射语句的执行耗时（ddd.sql）和影响/返回行数（ddd.sql.rows），
+ * 超过阈值的慢查询计数（ddd.sql.slow）并输出告警日志，
+ * 执行失败的语句计数（ddd.sql.failed），失败语句的耗时同样计入ddd.sql，
+ * 同时把统计累加到当前请求的SqlRequestProfile中，供请求结束时汇总和检测N+1查询。
+ * 取代StdOutImpl逐条打印SQL，热点路径上不再同步写标准输出
+ * 
+ * 批处理执行器的update只是加入批次（返回BATCH_UPDATE_RETURN_VALUE），不计为一次执行；
+ * 批次在flushStatements时真正执行，每个批次（同一语句的一组参数）记为一次执行，
+ * 行数为批内影响行数之和，耗时按批次数平摊本次刷新的总耗时
+ */
+@Slf4j
+@Component
+@Intercepts({
+    @Signature(type = Executor.class, method = "update",
+        args = {MappedStatement.class, Object.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+            CacheKey.class, BoundSql.class}),
+    @Signature(type = Executor.class, method = "flushStatements", args = {})
+})
+public class SqlProfilingInterceptor implements Interceptor {
+    
+    private static final String FLUSH_STATEMENTS = "flushStatements";
+    
+    private final MeterRegistry meterRegistry;
+    private final long slowQueryThresholdNanos;
+    private final Map<String, StatementMeters> meters = new ConcurrentHashMap<>();
+    
+    public SqlProfilingInterceptor(MeterRegistry meterRegistry,
+                                   @Value("${ddd.sql.profiling.slow-query-threshold-ms:100}") long slowQueryThresholdMs) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "指标注册表不能为空");
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMs);
+    }
+    
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (FLUSH_STATEMENTS.equals(invocation.getMethod().getName())) {
+            return interceptFlush(invocation);
+        }
+        
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        Object parameter = invocation.getArgs()[1];
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            StatementMeters statementMeters = meters(statement);
+            if (!(result instanceof Integer updated && updated == BatchExecutor.BATCH_UPDATE_RETURN_VALUE)) {
+                record(statementMeters, nanos, rowCount(result), failed,
+                    () -> statement.getBoundSql(parameter).getSql());
+            }
+        }
+    }
+    
+    /**
+     * 批处理刷新：逐个批次记录，批次执行失败时已成功的批次照常记录，失败的批次记为失败。
+     * 批次中的语句加入批次时已经过update拦截，失败语句的指标可按语句ID找到
+     */
+    private Object interceptFlush(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        List<BatchResult> executed = List.of();
+        BatchExecutorException failure = null;
+        try {
+            @SuppressWarnings("unchecked")
+            List<BatchResult> results = (List<BatchResult>) invocation.proceed();
+            executed = results;
+            return results;
+        } catch (InvocationTargetException e) {
+            // Invocation.proceed反射调用执行器，执行器抛出的异常包在InvocationTargetException中
+            if (e.getCause() instanceof BatchExecutorException batchFailure) {
+                executed = batchFailure.getSuccessfulBatchResults();
+                failure = batchFailure;
+            }
+            throw e;
+        } finally {
+            StatementMeters failed = failure != null ? meters.get(failure.getFailingStatementId()) : null;
+            int batches = executed.size() + (failed != null ? 1 : 0);
+            if (batches > 0) {
+                long nanos = (System.nanoTime() - start) / batches;
+                for (BatchResult batch : executed) {
+                    record(meters(batch.getMappedStatement()), nanos, rowCount(batch.getUpdateCounts()), false,
+                        batch::getSql);
+                }
+                if (failed != null) {
+                    record(failed, nanos, -1, true, failure::getFailingSqlStatement);
+                }
+            }
+        }
+    }
+    
+    private StatementMeters meters(MappedStatement statement) {
+        return meters.computeIfAbsent(statement.getId(), id -> new StatementMeters(statement));
+    }
+    
+    private void record(StatementMeters statementMeters, long nanos, long rows, boolean failed,
+                        Supplier<String> sql) {
+        boolean slow = nanos >= slowQueryThresholdNanos;
+        statementMeters.record(nanos, rows, slow, failed);
+        
+        if (slow) {
+            log.warn("慢SQL {} 耗时{}ms，行数{}：{}", statementMeters.name, TimeUnit.NANOSECONDS.toMillis(nanos),
+                rows, compact(sql.get()));
+        }
+        
+        SqlRequestProfile profile = SqlRequestProfile.current();
+        if (profile != null) {
+            profile.record(statementMeters.name, nanos, rows, slow, failed);
+        }
+    }
+    
+    /**
+     * 查询返回结果行数，更新返回影响行数；执行失败时行数未知记为-1
+     */
+    private static long rowCount(Object result) {
+        if (result instanceof List<?> list) {
+            return list.size();
+        }
+        if (result instanceof Integer updated && updated >= 0) {
+            return updated;
+        }
+        return -1;
+    }
+    
+    /**
+     * 批内各组参数的影响行数之和；驱动只返回SUCCESS_NO_INFO时行数未知记为-1
+     */
+    private static long rowCount(int[] updateCounts) {
+        long rows = -1;
+        for (int count : updateCounts) {
+            if (count >= 0) {
+                rows = Math.max(rows, 0) + count;
+            }
+        }
+        return rows;
+    }
+    
+    private static String compact(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+    
+    /**
+     * 语句名取Mapper简单类名加方法名，如OrderItemMapper.findByOrderId
+     */
+    static String shortName(String statementId) {
+        int method = statementId.lastIndexOf('.');
+        int mapper = method > 0 ? statementId.lastIndexOf('.', method - 1) : -1;
+        return statementId.substring(mapper + 1);
+    }
+    
+    /**
+     * 单个映射语句的指标
+     */
+    private final class StatementMeters {
+        
+        private final String name;
+        private final Timer timer;
+        private final DistributionSummary rows;
+        private final Counter slow;
+        private final Counter failed;
+        
+        StatementMeters(MappedStatement statement) {
+            this.name = shortName(statement.getId());
+            String command = statement.getSqlCommandType().name();
+            this.timer = Timer.builder("ddd.sql")
+                .tag("statement", name)
+                .tag("command", command)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+            this.rows = DistributionSummary.builder("ddd.sql.rows")
+                .tag("statement", name)
+                .tag("command", command)
+                .register(meterRegistry);
+            this.slow = Counter.builder("ddd.sql.slow")
+                .tag("statement", name)
+                .register(meterRegistry);
+            this.failed = Counter.builder("ddd.sql.failed")
+                .tag("statement", name)
+                .register(meterRegistry);
+        }
+        
+        void record(long nanos, long rowCount, boolean slowQuery, boolean failedStatement) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            if (rowCount >= 0) {
+                rows.record(rowCount);
+            }
+            if (slowQuery) {
+                slow.increment();
+            }
+            if (failedStatement) {
+                failed.increment();
+            }
+        }
+    }
+}
\ No newline at end of file
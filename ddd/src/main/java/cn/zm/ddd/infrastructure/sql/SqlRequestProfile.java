@@ -0,0 +1,110 @@
+package cn.zm.ddd.infrastructure.sql;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 单个请求内的SQL执行统计
+ * 
+ * 由SqlProfilingFilter在请求开始时绑定到当前线程，拦截器把每条语句的耗时和行数累加进来，
+ * 请求结束时据此输出汇总日志并检测同一语句重复执行（N+1查询）
+ */
+final class SqlRequestProfile {
+    
+    private static final ThreadLocal<SqlRequestProfile> CURRENT = new ThreadLocal<>();
+    
+    private final Map<String, StatementStats> statements = new LinkedHashMap<>();
+    private int slowStatements;
+    private int failedStatements;
+    
+    static SqlRequestProfile begin() {
+        SqlRequestProfile profile = new SqlRequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+    
+    static void end() {
+        CURRENT.remove();
+    }
+    
+    /**
+     * 当前线程的请求统计，不在请求内执行（如后台刷新任务）时为null
+     */
+    static SqlRequestProfile current() {
+        return CURRENT.get();
+    }
+    
+    void record(String statement, long nanos, long rows, boolean slow, boolean failed) {
+        statements.computeIfAbsent(statement, key -> new StatementStats()).add(nanos, rows, failed);
+        if (slow) {
+            slowStatements++;
+        }
+        if (failed) {
+            failedStatements++;
+        }
+    }
+    
+    boolean isEmpty() {
+        return statements.isEmpty();
+    }
+    
+    int slowStatements() {
+        return slowStatements;
+    }
+    
+    int failedStatements() {
+        return failedStatements;
+    }
+    
+    /**
+     * 执行次数超过阈值的语句
+     */
+    List<String> repeatedStatements(int threshold) {
+        return statements.entrySet().stream()
+            .filter(entry -> entry.getValue().count > threshold)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+    
+    /**
+     * 汇总：总条数、总耗时，以及每条语句的次数、耗时和行数
+     */
+    String summary() {
+        int count = 0;
+        long nanos = 0;
+        for (StatementStats stats : statements.values()) {
+            count += stats.count;
+            nanos += stats.nanos;
+        }
+        
+        return String.format("共%d条SQL，耗时%.2fms：", count, toMillis(nanos)) + statements.entrySet().stream()
+            .map(entry -> String.format("%s×%d(%.2fms, %d行%s)", entry.getKey(), entry.getValue().count,
+                toMillis(entry.getValue().nanos), entry.getValue().rows,
+                entry.getValue().failed > 0 ? ", 失败" + entry.getValue().failed + "次" : ""))
+            .collect(Collectors.joining(", "));
+    }
+    
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+    
+    private static final class StatementStats {
+        
+        private int count;
+        private long nanos;
+        private long rows;
+        private int failed;
+        
+        void add(long nanos, long rows, boolean failed) {
+            this.count++;
+            this.nanos += nanos;
+            this.rows += Math.max(rows, 0);
+            if (failed) {
+                this.failed++;
+            }
+        }
+    }
+}
\ No newline at end of file
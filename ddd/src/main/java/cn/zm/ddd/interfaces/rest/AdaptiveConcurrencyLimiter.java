@@ -0,0 +1,131 @@
+package cn.zm.ddd.interfaces.rest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 自适应并发上限（梯度算法）
+ * 
+ * 一个实例即一个舱壁：在途请求数达到当前上限时立即拒绝，不排队等待。
+ * 上限根据请求耗时自动调整，按采样窗口（至少100ms且至少10个请求）更新一次：
+ * 1. 长期基线：各窗口平均耗时的指数移动平均，代表无排队时的耗时
+ * 2. 梯度：tolerance * 长期基线 / 本窗口平均耗时，取值[0.5, 1]，耗时上涨说明请求开始排队，上限按梯度收缩
+ * 3. 在梯度收缩后的上限上再加sqrt(上限)的余量，耗时平稳时上限逐步增长，直到耗时开始上涨
+ * 4. 窗口内最大在途数不到上限一半时，耗时不反映上限是否合适，上限保持不变
+ */
+final class AdaptiveConcurrencyLimiter {
+    
+    private static final long MIN_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    /**
+     * 长期基线的平滑系数，约等于最近600个窗口的移动平均
+     */
+    private static final double BASELINE_ALPHA = 2.0 / 601;
+    /**
+     * 新上限的平滑系数，避免单个窗口的抖动让上限大幅波动
+     */
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile int limit;
+    
+    private final Lock lock = new ReentrantLock();
+    private double estimatedLimit;
+    private double baselineNanos;
+    private long windowStart = System.nanoTime();
+    private long windowSumNanos;
+    private int windowSamples;
+    private int windowMaxInflight;
+    
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("并发上限范围无效：[" + minLimit + ", " + maxLimit + "]");
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("延迟容忍倍数不能小于1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+    
+    /**
+     * 尝试占用一个并发名额
+     * 
+     * @return 占用后的在途请求数，达到上限时返回-1
+     */
+    int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+    
+    /**
+     * 释放名额并记录本次请求的耗时
+     * 
+     * @param elapsedNanos 请求耗时
+     * @param inflightAtAcquire 占用名额时的在途请求数
+     */
+    void release(long elapsedNanos, int inflightAtAcquire) {
+        inflight.decrementAndGet();
+        lock.lock();
+        try {
+            sample(elapsedNanos, inflightAtAcquire, System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int limit() {
+        return limit;
+    }
+    
+    int inflight() {
+        return inflight.get();
+    }
+    
+    private void sample(long elapsedNanos, int inflightAtAcquire, long now) {
+        windowSumNanos += elapsedNanos;
+        windowSamples++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightAtAcquire);
+        if (windowSamples < MIN_WINDOW_SAMPLES || now - windowStart < MIN_WINDOW_NANOS) {
+            return;
+        }
+        
+        double shortNanos = Math.max(1.0, (double) windowSumNanos / windowSamples);
+        int maxInflight = windowMaxInflight;
+        windowStart = now;
+        windowSumNanos = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+        
+        baselineNanos = baselineNanos == 0 ? shortNanos : baselineNanos + BASELINE_ALPHA * (shortNanos - baselineNanos);
+        // 负载回落后基线远高于当前耗时，加快基线回落，否则过载期间抬高的基线会让上限长时间偏大
+        if (baselineNanos / shortNanos > 2) {
+            baselineNanos *= 0.95;
+        }
+        if (maxInflight < estimatedLimit / 2) {
+            return;
+        }
+        
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * baselineNanos / shortNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
\ No newline at end of file
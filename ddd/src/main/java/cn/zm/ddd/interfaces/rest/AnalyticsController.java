@@ -0,0 +1,133 @@
+package cn.zm.ddd.interfaces.rest;
+
+import cn.zm.ddd.application.analytics.BestSellerTracker;
+import cn.zm.ddd.application.analytics.BestSellerWindow;
+import cn.zm.ddd.application.dto.BestSellersDto;
+import cn.zm.ddd.application.dto.SalesStatsDto;
+import cn.zm.ddd.application.query.SalesAnalyticsQueryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 销售统计REST控制器
+ * 
+ * 日期参数格式为yyyy-MM-dd，缺省时统计截至今天的最近30天
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    
+    private static final int DEFAULT_DAYS = 30;
+    
+    private final SalesAnalyticsQueryService salesAnalyticsQueryService;
+    private final BestSellerTracker bestSellerTracker;
+    
+    public AnalyticsController(SalesAnalyticsQueryService salesAnalyticsQueryService,
+                               BestSellerTracker bestSellerTracker) {
+        this.salesAnalyticsQueryService = Objects.requireNonNull(
+            salesAnalyticsQueryService, "销售统计查询服务不能为空");
+        this.bestSellerTracker = Objects.requireNonNull(
+            bestSellerTracker, "热销商品跟踪器不能为空");
+    }
+    
+    /**
+     * 全站逐日销售统计
+     */
+    @GetMapping("/sales/daily")
+    public ResponseEntity<ApiResponse<List<SalesStatsDto>>> getDailySales(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        
+        LocalDate end = parseDate(to, LocalDate.now());
+        List<SalesStatsDto> stats = salesAnalyticsQueryService.findDaily(startDate(from, end), end);
+        
+        return ResponseEntity.ok(ApiResponse.success("查询成功", stats));
+    }
+    
+    /**
+     * 各客户类型销售合计
+     */
+    @GetMapping("/sales/customer-types")
+    public ResponseEntity<ApiResponse<List<SalesStatsDto>>> getCustomerTypeSales(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        
+        LocalDate end = parseDate(to, LocalDate.now());
+        List<SalesStatsDto> stats = salesAnalyticsQueryService.findByCustomerType(startDate(from, end), end);
+        
+        return ResponseEntity.ok(ApiResponse.success("查询成功", stats));
+    }
+    
+    /**
+     * 净收入最高的商品
+     */
+    @GetMapping("/sales/products")
+    public ResponseEntity<ApiResponse<List<SalesStatsDto>>> getTopProductSales(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        LocalDate end = parseDate(to, LocalDate.now());
+        List<SalesStatsDto> stats = salesAnalyticsQueryService.findTopProducts(startDate(from, end), end, limit);
+        
+        return ResponseEntity.ok(ApiResponse.success("查询成功", stats));
+    }
+    
+    /**
+     * 单个商品逐日销售统计
+     */
+    @GetMapping("/sales/products/{productId}")
+    public ResponseEntity<ApiResponse<List<SalesStatsDto>>> getProductDailySales(
+            @PathVariable String productId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        
+        LocalDate end = parseDate(to, LocalDate.now());
+        List<SalesStatsDto> stats = salesAnalyticsQueryService.findProductDaily(
+            productId, startDate(from, end), end);
+        
+        return ResponseEntity.ok(ApiResponse.success("查询成功", stats));
+    }
+    
+    /**
+     * 滑动窗口内的热销商品（近似统计，附误差上界）
+     */
+    @GetMapping("/best-sellers")
+    public ResponseEntity<ApiResponse<BestSellersDto>> getBestSellers(
+            @RequestParam(defaultValue = "HOUR") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        BestSellersDto bestSellers = bestSellerTracker.topProducts(parseWindow(window), limit);
+        
+        return ResponseEntity.ok(ApiResponse.success("查询成功", bestSellers));
+    }
+    
+    private static BestSellerWindow parseWindow(String value) {
+        try {
+            return BestSellerWindow.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("统计窗口只能是HOUR或DAY: " + value);
+        }
+    }
+    
+    private static LocalDate startDate(String from, LocalDate end) {
+        return parseDate(from, end.minusDays(DEFAULT_DAYS - 1));
+    }
+    
+    private static LocalDate parseDate(String value, LocalDate defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("日期格式不正确，应为yyyy-MM-dd: " + value);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package cn.zm.ddd.interfaces.rest;
+
+import cn.zm.ddd.application.dto.BulkResultDto;
+import cn.zm.ddd.application.dto.BulkResultDto.ItemResult;
+import cn.zm.ddd.application.service.BulkCommandExecutor;
+import cn.zm.ddd.shared.exception.BusinessRuleException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 批量请求转换
+ * 
+ * 逐项把请求转换为命令，格式错误的项记为失败而不是让整个请求返回400，
+ * 其余命令交给应用服务，再把结果的位置映射回原请求并与转换失败项合并
+ */
+final class BulkRequests {
+    
+    private BulkRequests() {
+    }
+    
+    static <Q, C, R> BulkResultDto<R> execute(List<Q> requests, Function<Q, C> toCommand,
+                                              Function<List<C>, BulkResultDto<R>> service) {
+        return execute(requests, toCommand, (commands, requestIndex) -> service.apply(commands));
+    }
+    
+    /**
+     * 应用服务的错误消息需要引用其他项时使用，服务额外得到命令位置到原请求位置的映射
+     */
+    static <Q, C, R> BulkResultDto<R> execute(List<Q> requests, Function<Q, C> toCommand,
+                                              BiFunction<List<C>, IntUnaryOperator, BulkResultDto<R>> service) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("批量请求不能为空");
+        }
+        if (requests.size() > BulkCommandExecutor.MAX_ITEMS) {
+            throw new BusinessRuleException("一次最多批量处理" + BulkCommandExecutor.MAX_ITEMS + "条记录");
+        }
+        
+        List<ItemResult<R>> items = new ArrayList<>(requests.size());
+        List<C> commands = new ArrayList<>(requests.size());
+        int[] positions = new int[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            Q request = requests.get(i);
+            if (request == null) {
+                items.add(ItemResult.failure(i, "请求项不能为空"));
+                continue;
+            }
+            try {
+                commands.add(toCommand.apply(request));
+                positions[commands.size() - 1] = i;
+            } catch (IllegalArgumentException e) {
+                items.add(ItemResult.failure(i, e.getMessage()));
+            }
+        }
+        
+        if (!commands.isEmpty()) {
+            service.apply(commands, index -> positions[index]).items()
+                .forEach(item -> items.add(item.withIndex(positions[item.index()])));
+        }
+        return BulkResultDto.of(items);
+    }
+    
+    /**
+     * 批量结果的响应消息
+     */
+    static String message(BulkResultDto<?> result) {
+        return "批量创建完成：成功" + result.succeeded() + "条，失败" + result.failed() + "条";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package cn.zm.ddd.interfaces.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 接口并发限制过滤器
+ * 
+ * 按EndpointGroup把/api请求分为读、写、批量三组，每组是一个独立的舱壁，使用各自的自适应并发上限：
+ * 1. 在途请求数未达上限时放行，请求结束后以耗时调整上限（见AdaptiveConcurrencyLimiter）
+ * 2. 达到上限时立即响应503并带上Retry-After，不让请求在线程池或连接池中排队，过载时延迟不会持续恶化
+ * 
+ * 指标：
+ * - ddd.web.concurrency.limit：各组当前并发上限
+ * - ddd.web.concurrency.inflight：各组在途请求数
+ * - ddd.web.concurrency.rejected：各组被拒绝的请求数
+ * 
+ * 排在HTTP请求观测过滤器之后，被拒绝的请求同样计入http.server.requests
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    static final String LIMIT_GAUGE = "ddd.web.concurrency.limit";
+    static final String INFLIGHT_GAUGE = "ddd.web.concurrency.inflight";
+    static final String REJECTED_COUNTER = "ddd.web.concurrency.rejected";
+    
+    private static final String REJECTED_MESSAGE = "系统繁忙，请稍后重试";
+    
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejections = new EnumMap<>(EndpointGroup.class);
+    
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  ObjectMapper objectMapper,
+                                  @Value("${ddd.web.concurrency.enabled:true}") boolean enabled,
+                                  @Value("${ddd.web.concurrency.retry-after-seconds:1}") int retryAfterSeconds,
+                                  @Value("${ddd.web.concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${ddd.web.concurrency.min-limit:4}") int minLimit,
+                                  @Value("${ddd.web.concurrency.tolerance:1.5}") double tolerance,
+                                  @Value("${ddd.web.concurrency.read.max-limit:200}") int readMaxLimit,
+                                  @Value("${ddd.web.concurrency.write.max-limit:100}") int writeMaxLimit,
+                                  @Value("${ddd.web.concurrency.bulk.max-limit:4}") int bulkMaxLimit) {
+        Objects.requireNonNull(meterRegistry, "指标注册表不能为空");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "JSON序列化器不能为空");
+        if (retryAfterSeconds < 0) {
+            throw new IllegalArgumentException("Retry-After秒数不能为负数");
+        }
+        this.enabled = enabled;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        
+        Map<EndpointGroup, Integer> maxLimits = Map.of(
+            EndpointGroup.READ, readMaxLimit,
+            EndpointGroup.WRITE, writeMaxLimit,
+            EndpointGroup.BULK, bulkMaxLimit);
+        for (EndpointGroup group : EndpointGroup.values()) {
+            int maxLimit = maxLimits.get(group);
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                initialLimit, Math.min(minLimit, maxLimit), maxLimit, tolerance);
+            limiters.put(group, limiter);
+            Gauge.builder(LIMIT_GAUGE, limiter, AdaptiveConcurrencyLimiter::limit)
+                .tag("group", group.key())
+                .register(meterRegistry);
+            Gauge.builder(INFLIGHT_GAUGE, limiter, AdaptiveConcurrencyLimiter::inflight)
+                .tag("group", group.key())
+                .register(meterRegistry);
+            rejections.put(group, Counter.builder(REJECTED_COUNTER)
+                .tag("group", group.key())
+                .register(meterRegistry));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointGroup group = EndpointGroup.of(request.getMethod(), path);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        AdaptiveConcurrencyLimiter limiter = limiters.get(group);
+        int inflight = limiter.tryAcquire();
+        if (inflight < 0) {
+            rejections.get(group).increment();
+            log.debug("{}组并发已达上限{}，拒绝请求：{} {}", group.key(), limiter.limit(), request.getMethod(), path);
+            reject(response);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start, inflight);
+        }
+    }
+    
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(objectMapper.writeValueAsString(ApiResponse.error(REJECTED_MESSAGE)));
+    }
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package cn.zm.ddd.interfaces.rest;
 
 import cn.hutool.core.util.StrUtil;
 import cn.zm.ddd.application.command.CreateCustomerCommand;
+import cn.zm.ddd.application.dto.BulkResultDto;
 import cn.zm.ddd.application.dto.CustomerDto;
 import cn.zm.ddd.application.query.CustomerQuery;
 import cn.zm.ddd.application.service.CustomerApplicationService;
@@ -12,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -40,21 +42,27 @@ public class CustomerController {
 
         System.out.printf("接收创建客户请求: %s", request.getName());
 
-        // 使用Hutool验证请求参数
-        validateCreateCustomerRequest(request);
-
-        CreateCustomerCommand command = new CreateCustomerCommand(
-                request.getName(),
-                request.getEmail(),
-                request.getCustomerType()
-        );
-
-        CustomerDto customerDto = customerApplicationService.createCustomer(command);
+        CustomerDto customerDto = customerApplicationService.createCustomer(toCommand(request));
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("客户创建成功", customerDto));
     }
 
+    /**
+     * 批量创建客户，逐项返回结果，单项失败不影响其他项
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkResultDto<CustomerDto>>> createCustomers(
+            @RequestBody List<CreateCustomerRequest> requests) {
+
+        log.info("接收批量创建客户请求: {}条", requests == null ? 0 : requests.size());
+
+        BulkResultDto<CustomerDto> result = BulkRequests.execute(
+                requests, this::toCommand, customerApplicationService::createCustomers);
+
+        return ResponseEntity.ok(ApiResponse.success(BulkRequests.message(result), result));
+    }
+
     /**
      * 根据ID查询客户
      */
@@ -142,6 +150,20 @@ public class CustomerController {
         return ResponseEntity.ok(ApiResponse.success("客户已激活", customerDto));
     }
 
+    /**
+     * 验证创建客户请求并转换为命令
+     */
+    private CreateCustomerCommand toCommand(CreateCustomerRequest request) {
+        // 使用Hutool验证请求参数
+        validateCreateCustomerRequest(request);
+
+        return new CreateCustomerCommand(
+                request.getName(),
+                request.getEmail(),
+                request.getCustomerType()
+        );
+    }
+
     /**
      * 验证创建客户请求参数
      */
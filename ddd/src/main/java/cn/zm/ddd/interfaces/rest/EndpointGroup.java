@@ -0,0 +1,49 @@
+package cn.zm.ddd.interfaces.rest;
+
+/**
+ * 并发隔离的接口分组
+ * 
+ * 每组使用独立的自适应并发上限，写接口过载时只会拒绝写请求，不会占满读请求的名额
+ */
+enum EndpointGroup {
+    
+    /**
+     * 查询接口（GET/HEAD）
+     */
+    READ("read"),
+    
+    /**
+     * 单条写接口，如下单、添加商品、支付
+     */
+    WRITE("write"),
+    
+    /**
+     * 批量接口（路径含/bulk），单个请求处理成百上千条记录
+     */
+    BULK("bulk");
+    
+    private static final String API_PREFIX = "/api/";
+    
+    private final String key;
+    
+    EndpointGroup(String key) {
+        this.key = key;
+    }
+    
+    String key() {
+        return key;
+    }
+    
+    /**
+     * 按请求方法和路径（不含上下文路径）分组，/api以外的路径（监控端点、接口文档等）不限流，返回null
+     */
+    static EndpointGroup of(String method, String path) {
+        if (!path.startsWith(API_PREFIX)) {
+            return null;
+        }
+        if (path.endsWith("/bulk") || path.contains("/bulk/")) {
+            return BULK;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? READ : WRITE;
+    }
+}
\ No newline at end of file
@@ -2,13 +2,19 @@ package cn.zm.ddd.interfaces.rest;
 
 import cn.zm.ddd.application.command.AddProductToOrderCommand;
 import cn.zm.ddd.application.command.CreateOrderCommand;
+import cn.zm.ddd.application.dto.BulkResultDto;
+import cn.zm.ddd.application.dto.BulkTransitionResultDto;
 import cn.zm.ddd.application.dto.OrderDto;
+import cn.zm.ddd.application.dto.OrderSummaryDto;
 import cn.zm.ddd.application.query.OrderQuery;
+import cn.zm.ddd.application.query.OrderSummaryQueryService;
+import cn.zm.ddd.application.service.BulkCommandExecutor;
 import cn.zm.ddd.application.service.OrderApplicationService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -21,10 +27,14 @@ import java.util.Optional;
 public class OrderController {
     
     private final OrderApplicationService orderApplicationService;
+    private final OrderSummaryQueryService orderSummaryQueryService;
     
-    public OrderController(OrderApplicationService orderApplicationService) {
+    public OrderController(OrderApplicationService orderApplicationService,
+                           OrderSummaryQueryService orderSummaryQueryService) {
         this.orderApplicationService = Objects.requireNonNull(
             orderApplicationService, "订单应用服务不能为空");
+        this.orderSummaryQueryService = Objects.requireNonNull(
+            orderSummaryQueryService, "订单摘要查询服务不能为空");
     }
     
     /**
@@ -41,6 +51,51 @@ public class OrderController {
             .body(ApiResponse.success("订单创建成功", orderDto));
     }
     
+    /**
+     * 批量创建订单，逐项返回结果，单项失败不影响其他项
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkResultDto<OrderDto>>> createOrders(
+            @RequestBody List<CreateOrderRequest> requests) {
+        
+        BulkResultDto<OrderDto> result = BulkRequests.execute(requests,
+            request -> new CreateOrderCommand(request.customerId()),
+            orderApplicationService::createOrders);
+        
+        return ResponseEntity.ok(ApiResponse.success(BulkRequests.message(result), result));
+    }
+    
+    /**
+     * 批量发货，返回已发货和被拒绝的订单
+     */
+    @PostMapping("/bulk/ship")
+    public ResponseEntity<ApiResponse<BulkTransitionResultDto>> shipOrders(
+            @RequestBody BulkShipRequest request) {
+        
+        if (request.orderIds() == null || request.orderIds().isEmpty()) {
+            throw new IllegalArgumentException("订单ID列表不能为空");
+        }
+        BulkTransitionResultDto result = orderApplicationService.shipOrders(request.orderIds());
+        
+        return ResponseEntity.ok(ApiResponse.success(transitionMessage("批量发货", result), result));
+    }
+    
+    /**
+     * 批量取消超时未支付的订单（创建时间早于createdBefore），返回已取消和被拒绝的订单
+     * 
+     * 一次最多取消limit个，结果数达到limit时可再次调用
+     */
+    @PostMapping("/bulk/cancel-pending")
+    public ResponseEntity<ApiResponse<BulkTransitionResultDto>> cancelPendingOrders(
+            @RequestBody CancelPendingOrdersRequest request) {
+        
+        int limit = request.limit() != null ? request.limit() : BulkCommandExecutor.MAX_ITEMS;
+        BulkTransitionResultDto result = orderApplicationService.cancelPendingOrdersCreatedBefore(
+            request.createdBefore(), limit);
+        
+        return ResponseEntity.ok(ApiResponse.success(transitionMessage("批量取消", result), result));
+    }
+    
     /**
      * 查询订单
      */
@@ -60,13 +115,13 @@ public class OrderController {
     }
     
     /**
-     * 查询客户订单
+     * 查询客户订单列表（订单摘要读模型，不含订单项明细）
      */
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<ApiResponse<List<OrderDto>>> getCustomerOrders(
+    public ResponseEntity<ApiResponse<List<OrderSummaryDto>>> getCustomerOrders(
             @PathVariable String customerId) {
         
-        List<OrderDto> orders = orderApplicationService.findCustomerOrders(customerId);
+        List<OrderSummaryDto> orders = orderSummaryQueryService.findByCustomerId(customerId);
         
         return ResponseEntity.ok(ApiResponse.success("查询成功", orders));
     }
@@ -134,19 +189,50 @@ public class OrderController {
         
         return ResponseEntity.ok(ApiResponse.success("订单已取消", orderDto));
     }
+    
+    /**
+     * 退款
+     */
+    @PostMapping("/{orderId}/refund")
+    public ResponseEntity<ApiResponse<OrderDto>> refundOrder(
+            @PathVariable String orderId) {
+        
+        OrderDto orderDto = orderApplicationService.refundOrder(orderId);
+        
+        return ResponseEntity.ok(ApiResponse.success("订单已退款", orderDto));
+    }
+    
+    private static String transitionMessage(String action, BulkTransitionResultDto result) {
+        return action + "完成：成功" + result.succeeded().size() + "个，拒绝" + result.rejected().size() + "个";
+    }
 }
-
+    
 /**
  * 创建订单请求
  */
 record CreateOrderRequest(
     String customerId
 ) {}
-
+    
 /**
  * 添加商品到订单请求
  */
 record AddProductToOrderRequest(
     String productId,
     int quantity
+) {}
+    
+/**
+ * 批量发货请求
+ */
+record BulkShipRequest(
+    List<String> orderIds
+) {}
+    
+/**
+ * 批量取消待支付订单请求
+ */
+record CancelPendingOrdersRequest(
+    LocalDateTime createdBefore,
+    Integer limit
 ) {}
\ No newline at end of file
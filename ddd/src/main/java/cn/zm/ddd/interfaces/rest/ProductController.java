@@ -1,7 +1,9 @@
 package cn.zm.ddd.interfaces.rest;
 
 import cn.zm.ddd.application.command.CreateProductCommand;
+import cn.zm.ddd.application.dto.BulkResultDto;
 import cn.zm.ddd.application.dto.ProductDto;
+import cn.zm.ddd.application.dto.ProductSuggestionDto;
 import cn.zm.ddd.application.service.ProductApplicationService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -33,20 +35,25 @@ public class ProductController {
     public ResponseEntity<ApiResponse<ProductDto>> createProduct(
             @RequestBody CreateProductRequest request) {
         
-        CreateProductCommand command = new CreateProductCommand(
-            request.name(),
-            request.description(),
-            request.price(),
-            request.currency(),
-            request.stockQuantity()
-        );
-        
-        ProductDto productDto = productApplicationService.createProduct(command);
+        ProductDto productDto = productApplicationService.createProduct(toCommand(request));
         
         return ResponseEntity.status(HttpStatus.CREATED)
             .body(ApiResponse.success("商品创建成功", productDto));
     }
     
+    /**
+     * 批量创建商品，逐项返回结果，单项失败不影响其他项
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkResultDto<ProductDto>>> createProducts(
+            @RequestBody List<CreateProductRequest> requests) {
+        
+        BulkResultDto<ProductDto> result = BulkRequests.execute(
+            requests, this::toCommand, productApplicationService::createProducts);
+        
+        return ResponseEntity.ok(ApiResponse.success(BulkRequests.message(result), result));
+    }
+    
     /**
      * 查询商品
      */
@@ -64,6 +71,18 @@ public class ProductController {
         }
     }
     
+    /**
+     * 批量查询商品，如 /api/products?ids=id1,id2
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<ProductDto>>> getProducts(
+            @RequestParam List<String> ids) {
+        
+        List<ProductDto> products = productApplicationService.findProducts(ids);
+        
+        return ResponseEntity.ok(ApiResponse.success("查询成功", products));
+    }
+    
     /**
      * 查询所有可用商品
      */
@@ -79,13 +98,27 @@ public class ProductController {
      */
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<ProductDto>>> searchProducts(
-            @RequestParam String name) {
+            @RequestParam String name,
+            @RequestParam(defaultValue = "20") int limit) {
         
-        List<ProductDto> products = productApplicationService.searchProducts(name);
+        List<ProductDto> products = productApplicationService.searchProducts(name, limit);
         
         return ResponseEntity.ok(ApiResponse.success("搜索成功", products));
     }
     
+    /**
+     * 商品输入联想，如 /api/products/suggest?prefix=air
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<ProductSuggestionDto>>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<ProductSuggestionDto> suggestions = productApplicationService.suggestProducts(prefix, limit);
+        
+        return ResponseEntity.ok(ApiResponse.success("查询成功", suggestions));
+    }
+    
     /**
      * 更新商品信息
      */
@@ -138,6 +171,16 @@ public class ProductController {
         
         return ResponseEntity.ok(ApiResponse.success("商品已下架", productDto));
     }
+    
+    private CreateProductCommand toCommand(CreateProductRequest request) {
+        return new CreateProductCommand(
+            request.name(),
+            request.description(),
+            request.price(),
+            request.currency(),
+            request.stockQuantity()
+        );
+    }
 }
 
 /**
@@ -11,37 +11,54 @@ import java.util.UUID;
  * 3. 自生成 - 提供生成新ID的方法
  * 4. 验证 - 确保ID的有效性
  */
-public record EntityId(String value) {
+public record EntityId(UUID uuid) {
     
     public EntityId {
-        if (value == null || value.isBlank()) {
+        if (uuid == null) {
             throw new IllegalArgumentException("实体ID不能为空");
         }
-        
-        // 验证UUID格式
-        try {
-            UUID.fromString(value);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("实体ID格式不正确: " + value);
-        }
     }
     
     /**
-     * 生成新的实体ID
+     * 生成新的实体ID（时间有序UUID）
      */
     public static EntityId generate() {
-        return new EntityId(UUID.randomUUID().toString());
+        return new EntityId(TimeOrderedUuidGenerator.generate());
     }
     
     /**
-     * 从字符串创建实体ID
+     * 从字符串创建实体ID，校验UUID格式
      */
     public static EntityId of(String value) {
-        return new EntityId(value);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("实体ID不能为空");
+        }
+        return new EntityId(UuidCodec.parse(value, "实体ID格式不正确"));
+    }
+    
+    /**
+     * 从UUID创建实体ID
+     */
+    public static EntityId of(UUID uuid) {
+        return new EntityId(uuid);
+    }
+    
+    /**
+     * 小写的标准字符串形式，按需生成
+     */
+    public String value() {
+        return uuid.toString();
+    }
+    
+    /**
+     * 转换为UUID，用于二进制存储
+     */
+    public UUID toUuid() {
+        return uuid;
     }
     
     @Override
     public String toString() {
-        return value;
+        return value();
     }
 }
\ No newline at end of file
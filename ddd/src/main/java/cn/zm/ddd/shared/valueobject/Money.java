@@ -3,25 +3,46 @@ package cn.zm.ddd.shared.valueobject;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Currency;
+import java.util.Objects;
 
 /**
  * 金额值对象
  * 
  * DDD值对象的典型实现，包含：
- * 1. 不可变性 - 使用final字段和record
+ * 1. 不可变性 - 使用final字段
  * 2. 自验证 - 构造时验证业务规则
  * 3. 业务行为 - 提供金额计算方法
  * 4. 类型安全 - 避免直接使用BigDecimal造成的错误
+ * 
+ * 金额统一保留2位小数，内部以long类型的最小货币单位（分）存储，
+ * 加减、乘数量、乘比率和比较都在long上完成，不产生BigDecimal中间对象；
+ * 舍入规则与按BigDecimal计算后setScale(2, HALF_UP)完全一致
  */
-public record Money(BigDecimal amount, Currency currency) {
+public final class Money {
+    
+    private static final int SCALE = 2;
+    private static final Currency CNY = Currency.getInstance("CNY");
+    private static final Currency USD = Currency.getInstance("USD");
+    /**
+     * 10的幂，用于按比率的小数位数做整数除法
+     */
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+        1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+        10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+        10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
     
-    public Money {
+    private final long minorUnits;
+    private final Currency currency;
+    
+    public Money(BigDecimal amount, Currency currency) {
         // 验证金额不能为null且不能为负数
         if (amount == null) {
             throw new IllegalArgumentException("金额不能为空");
         }
         
-        if (amount.compareTo(BigDecimal.ZERO) < 0) {
+        if (amount.signum() < 0) {
             throw new IllegalArgumentException("金额不能为负数: " + amount);
         }
         
@@ -30,28 +51,52 @@ public record Money(BigDecimal amount, Currency currency) {
         }
         
         // 统一精度到2位小数
-        amount = amount.setScale(2, RoundingMode.HALF_UP);
+        try {
+            this.minorUnits = amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("金额超出范围: " + amount);
+        }
+        this.currency = currency;
+    }
+    
+    private Money(long minorUnits, Currency currency) {
+        if (minorUnits < 0) {
+            throw new IllegalArgumentException("金额不能为负数: " + BigDecimal.valueOf(minorUnits, SCALE));
+        }
+        
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+    
+    /**
+     * 以最小货币单位（分）创建金额
+     */
+    public static Money ofMinorUnits(long minorUnits, Currency currency) {
+        if (currency == null) {
+            throw new IllegalArgumentException("货币类型不能为空");
+        }
+        return new Money(minorUnits, currency);
     }
     
     /**
      * 创建人民币金额
      */
     public static Money cny(BigDecimal amount) {
-        return new Money(amount, Currency.getInstance("CNY"));
+        return new Money(amount, CNY);
     }
     
     /**
      * 创建美元金额
      */
     public static Money usd(BigDecimal amount) {
-        return new Money(amount, Currency.getInstance("USD"));
+        return new Money(amount, USD);
     }
     
     /**
      * 创建零金额
      */
     public static Money zero(Currency currency) {
-        return new Money(BigDecimal.ZERO, currency);
+        return ofMinorUnits(0, currency);
     }
     
     /**
@@ -61,7 +106,7 @@ public record Money(BigDecimal amount, Currency currency) {
         if (!this.currency.equals(other.currency)) {
             throw new IllegalArgumentException("不能对不同货币进行运算");
         }
-        return new Money(this.amount.add(other.amount), this.currency);
+        return new Money(Math.addExact(this.minorUnits, other.minorUnits), this.currency);
     }
     
     /**
@@ -71,14 +116,55 @@ public record Money(BigDecimal amount, Currency currency) {
         if (!this.currency.equals(other.currency)) {
             throw new IllegalArgumentException("不能对不同货币进行运算");
         }
-        return new Money(this.amount.subtract(other.amount), this.currency);
+        return new Money(Math.subtractExact(this.minorUnits, other.minorUnits), this.currency);
+    }
+    
+    /**
+     * 金额乘以数量
+     */
+    public Money multiply(int quantity) {
+        return new Money(Math.multiplyExact(this.minorUnits, quantity), this.currency);
     }
     
     /**
-     * 金额乘法
+     * 金额乘法（如乘以折扣率），结果按HALF_UP舍入到分
      */
     public Money multiply(BigDecimal multiplier) {
-        return new Money(this.amount.multiply(multiplier), this.currency);
+        return new Money(multiplyMinorUnits(this.minorUnits, multiplier), this.currency);
+    }
+    
+    /**
+     * 以分为单位的金额乘以比率，按HALF_UP舍入到分
+     */
+    public static long multiplyMinorUnits(long minorUnits, BigDecimal multiplier) {
+        int scale = multiplier.scale();
+        if (scale >= 0 && scale < POWERS_OF_TEN.length && multiplier.precision() <= 18) {
+            return multiplyMinorUnits(minorUnits, multiplier.unscaledValue().longValue(), scale);
+        }
+        
+        return BigDecimal.valueOf(minorUnits)
+            .multiply(multiplier)
+            .setScale(0, RoundingMode.HALF_UP)
+            .longValueExact();
+    }
+    
+    /**
+     * 以分为单位的金额乘以比率 unscaledRate × 10^-scale，按HALF_UP舍入到分
+     * 
+     * 乘积在long范围内时只做整数运算，溢出时退回BigDecimal计算
+     */
+    public static long multiplyMinorUnits(long minorUnits, long unscaledRate, int scale) {
+        long high = Math.multiplyHigh(minorUnits, unscaledRate);
+        long product = minorUnits * unscaledRate;
+        // 乘积未溢出时high只是product的符号扩展
+        if (high == (product >> 63)) {
+            return divideHalfUp(product, POWERS_OF_TEN[scale]);
+        }
+        
+        return BigDecimal.valueOf(minorUnits)
+            .multiply(BigDecimal.valueOf(unscaledRate, scale))
+            .setScale(0, RoundingMode.HALF_UP)
+            .longValueExact();
     }
     
     /**
@@ -88,18 +174,60 @@ public record Money(BigDecimal amount, Currency currency) {
         if (!this.currency.equals(other.currency)) {
             throw new IllegalArgumentException("不能比较不同货币的金额");
         }
-        return this.amount.compareTo(other.amount) > 0;
+        return this.minorUnits > other.minorUnits;
     }
     
     /**
      * 检查是否为零
      */
     public boolean isZero() {
-        return this.amount.compareTo(BigDecimal.ZERO) == 0;
+        return this.minorUnits == 0;
+    }
+    
+    /**
+     * 金额（保留2位小数）
+     */
+    public BigDecimal amount() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+    
+    /**
+     * 以最小货币单位（分）表示的金额
+     */
+    public long minorUnits() {
+        return minorUnits;
+    }
+    
+    public Currency currency() {
+        return currency;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money other)) return false;
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(minorUnits, currency);
     }
     
     @Override
     public String toString() {
-        return String.format("%s %s", currency.getCurrencyCode(), amount);
+        return String.format("%s %s", currency.getCurrencyCode(), amount());
+    }
+    
+    /**
+     * 整数除法并按HALF_UP（远离零方向的四舍五入）舍入
+     */
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
     }
 }
\ No newline at end of file
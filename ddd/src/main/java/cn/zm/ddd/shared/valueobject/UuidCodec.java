@@ -0,0 +1,118 @@
+package cn.zm.ddd.shared.valueobject;
+
+import java.util.UUID;
+
+/**
+ * UUID编解码
+ * 
+ * 只接受8-4-4-4-12的标准字符串格式，单次遍历完成校验和解析，
+ * 不使用正则也不依赖异常做格式判断
+ */
+public final class UuidCodec {
+    
+    private static final int LENGTH = 36;
+    
+    private UuidCodec() {
+    }
+    
+    /**
+     * 是否为标准格式的UUID字符串（大小写均可）
+     */
+    public static boolean isValid(String value) {
+        if (value == null || value.length() != LENGTH) {
+            return false;
+        }
+        
+        for (int i = 0; i < LENGTH; i++) {
+            char c = value.charAt(i);
+            if (isDashPosition(i) ? c != '-' : hexValue(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 解析标准字符串形式的UUID
+     * 
+     * @throws IllegalArgumentException 格式不正确
+     */
+    public static UUID parse(String value) {
+        return parse(value, "UUID格式不正确");
+    }
+    
+    /**
+     * 解析标准字符串形式的UUID，格式不正确时以message开头报告
+     * 
+     * @throws IllegalArgumentException 格式不正确
+     */
+    public static UUID parse(String value, String message) {
+        if (!isValid(value)) {
+            throw new IllegalArgumentException(message + ": " + value);
+        }
+        
+        long mostSigBits = 0;
+        long leastSigBits = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            if (isDashPosition(i)) {
+                continue;
+            }
+            
+            int digit = hexValue(value.charAt(i));
+            if (i < 19) {
+                mostSigBits = (mostSigBits << 4) | digit;
+            } else {
+                leastSigBits = (leastSigBits << 4) | digit;
+            }
+        }
+        return new UUID(mostSigBits, leastSigBits);
+    }
+    
+    /**
+     * UUID转16字节大端序二进制
+     */
+    public static byte[] toBytes(UUID uuid) {
+        byte[] bytes = new byte[16];
+        long mostSigBits = uuid.getMostSignificantBits();
+        long leastSigBits = uuid.getLeastSignificantBits();
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (mostSigBits >>> (56 - 8 * i));
+            bytes[8 + i] = (byte) (leastSigBits >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+    
+    /**
+     * 16字节大端序二进制转UUID
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("UUID二进制长度必须为16字节，实际为" + bytes.length);
+        }
+        
+        long mostSigBits = 0;
+        long leastSigBits = 0;
+        for (int i = 0; i < 8; i++) {
+            mostSigBits = (mostSigBits << 8) | (bytes[i] & 0xFF);
+            leastSigBits = (leastSigBits << 8) | (bytes[8 + i] & 0xFF);
+        }
+        return new UUID(mostSigBits, leastSigBits);
+    }
+    
+    private static boolean isDashPosition(int index) {
+        return index == 8 || index == 13 || index == 18 || index == 23;
+    }
+    
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
\ No newline at end of file
@@ -1,8 +1,9 @@
 -- MyBatis-Plus版本的数据库表结构定义
+-- 主键和外键使用BINARY(16)保存时间有序的UUID，按生成顺序追加到索引末尾
 
 -- 客户表
 CREATE TABLE IF NOT EXISTS customers (
-    id VARCHAR(36) PRIMARY KEY,
+    id BINARY(16) PRIMARY KEY,
     name VARCHAR(50) NOT NULL,
     email VARCHAR(100) NOT NULL UNIQUE,
     customer_type VARCHAR(20) NOT NULL,
@@ -13,7 +14,7 @@ CREATE TABLE IF NOT EXISTS customers (
 
 -- 商品表
 CREATE TABLE IF NOT EXISTS products (
-    id VARCHAR(36) PRIMARY KEY,
+    id BINARY(16) PRIMARY KEY,
     name VARCHAR(100) NOT NULL,
     description VARCHAR(500),
     price DECIMAL(19,2) NOT NULL,
@@ -26,8 +27,8 @@ CREATE TABLE IF NOT EXISTS products (
 
 -- 订单表
 CREATE TABLE IF NOT EXISTS orders (
-    id VARCHAR(36) PRIMARY KEY,
-    customer_id VARCHAR(36) NOT NULL,
+    id BINARY(16) PRIMARY KEY,
+    customer_id BINARY(16) NOT NULL,
     status VARCHAR(20) NOT NULL,
     total_amount DECIMAL(19,2) NOT NULL,
     currency VARCHAR(3) NOT NULL,
@@ -39,8 +40,8 @@ CREATE TABLE IF NOT EXISTS orders (
 -- 订单项表
 CREATE TABLE IF NOT EXISTS order_items (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
-    order_id VARCHAR(36) NOT NULL,
-    product_id VARCHAR(36) NOT NULL,
+    order_id BINARY(16) NOT NULL,
+    product_id BINARY(16) NOT NULL,
     product_name VARCHAR(100) NOT NULL,
     unit_price DECIMAL(19,2) NOT NULL,
     currency VARCHAR(3) NOT NULL,
@@ -49,11 +50,47 @@ CREATE TABLE IF NOT EXISTS order_items (
     FOREIGN KEY (product_id) REFERENCES products(id)
 );
 
+-- 订单摘要读模型（订单列表查询使用，随订单保存同步写入）
+CREATE TABLE IF NOT EXISTS order_summary (
+    order_id BINARY(16) PRIMARY KEY,
+    customer_id BINARY(16) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(19,2) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    item_count INTEGER NOT NULL,
+    total_quantity INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    last_modified_at TIMESTAMP NOT NULL
+);
+
+-- 销售统计汇总（订单支付、退款、取消时按天增量累加，统计查询不扫描订单表）
+-- dimension为DAY（全站，bucket_key固定为ALL）、CUSTOMER_TYPE（客户类型）或PRODUCT（商品ID）
+CREATE TABLE IF NOT EXISTS sales_bucket (
+    dimension VARCHAR(20) NOT NULL,
+    sale_date DATE NOT NULL,
+    bucket_key VARCHAR(64) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    label VARCHAR(100),
+    paid_orders BIGINT NOT NULL DEFAULT 0,
+    paid_quantity BIGINT NOT NULL DEFAULT 0,
+    paid_amount DECIMAL(19,2) NOT NULL DEFAULT 0,
+    refunded_orders BIGINT NOT NULL DEFAULT 0,
+    refunded_quantity BIGINT NOT NULL DEFAULT 0,
+    refunded_amount DECIMAL(19,2) NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    cancelled_quantity BIGINT NOT NULL DEFAULT 0,
+    cancelled_amount DECIMAL(19,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (dimension, sale_date, bucket_key, currency)
+);
+
 -- 创建索引以提高查询性能
 CREATE INDEX IF NOT EXISTS idx_customers_email ON customers(email);
 CREATE INDEX IF NOT EXISTS idx_products_name ON products(name);
 CREATE INDEX IF NOT EXISTS idx_products_available ON products(available);
 CREATE INDEX IF NOT EXISTS idx_orders_customer_id ON orders(customer_id);
 CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created ON orders(status, created_at);
 CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);
-CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items(product_id);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items(product_id);
+CREATE INDEX IF NOT EXISTS idx_order_summary_customer_created ON order_summary(customer_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_sales_bucket_key_date ON sales_bucket(dimension, bucket_key, sale_date);
\ No newline at end of file
@@ -0,0 +1,93 @@
+package cn.zm.ddd.infrastructure.analytics;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 滑动窗口热销统计误差测试
+ * 
+ * 合成两天的带时间戳销量流，在后一半的多个时间点把查询结果与同一窗口内的精确销量对比：
+ * 1. 窗口总销量与精确值一致
+ * 2. 每个商品 保证值 <= 真实值 <= 估计值，且 估计值 - 真实值 <= maxError
+ * 3. maxError <= 窗口总销量 / capacity
+ * 4. 真实销量超过maxError的商品全部出现在结果中
+ */
+class SlidingTopKTest {
+    
+    private static final long WINDOW_MILLIS = Duration.ofDays(1).toMillis();
+    private static final int SLOTS = 24;
+    private static final long STREAM_MILLIS = Duration.ofDays(2).toMillis();
+    private static final int EVENTS = 200_000;
+    private static final int PRODUCTS = 5_000;
+    private static final int CHECKPOINTS = 6;
+    
+    @ParameterizedTest(name = "zipf({0})，{1}个计数器")
+    @CsvSource({"1.2, 100", "1.0, 200", "0.0, 500"})
+    void windowEstimatesStayWithinErrorBounds(double exponent, int capacity) {
+        ZipfStream stream = new ZipfStream(PRODUCTS, exponent, 7);
+        SlidingTopK sketch = new SlidingTopK(WINDOW_MILLIS, SLOTS, capacity);
+        int[] products = new int[EVENTS];
+        int[] quantities = new int[EVENTS];
+        long[] timestamps = new long[EVENTS];
+        int checkpointStep = EVENTS / 2 / CHECKPOINTS;
+        
+        for (int i = 0; i < EVENTS; i++) {
+            products[i] = stream.nextProduct();
+            quantities[i] = stream.nextQuantity();
+            timestamps[i] = i * STREAM_MILLIS / EVENTS;
+            sketch.add(ZipfStream.key(products[i]), ZipfStream.key(products[i]), quantities[i], timestamps[i]);
+            
+            if (i + 1 >= EVENTS / 2 && (i + 1) % checkpointStep == 0) {
+                SlidingTopK.Snapshot snapshot = sketch.top(Integer.MAX_VALUE, timestamps[i]);
+                verifyWindow(snapshot, capacity,
+                    exactCounts(products, quantities, timestamps, snapshot.fromMillis(), i));
+            }
+        }
+    }
+    
+    private static void verifyWindow(SlidingTopK.Snapshot snapshot, int capacity, long[] exact) {
+        long exactTotal = 0;
+        for (long count : exact) {
+            exactTotal += count;
+        }
+        assertEquals(exactTotal, snapshot.total());
+        assertTrue(snapshot.maxError() <= snapshot.total() / capacity,
+            "误差上界" + snapshot.maxError() + "超过N/k=" + snapshot.total() / capacity);
+        
+        Set<String> reported = new HashSet<>();
+        for (SlidingTopK.Estimate estimate : snapshot.top()) {
+            long actual = exact[Integer.parseInt(estimate.key().substring("product-".length()))];
+            assertTrue(estimate.guaranteed() <= actual && actual <= estimate.estimate(),
+                estimate.key() + "真实值" + actual + "不在[" + estimate.guaranteed() + ", " + estimate.estimate() + "]内");
+            assertTrue(estimate.estimate() - actual <= snapshot.maxError(),
+                estimate.key() + "偏差" + (estimate.estimate() - actual) + "超过误差上界" + snapshot.maxError());
+            reported.add(estimate.key());
+        }
+        for (int product = 0; product < PRODUCTS; product++) {
+            if (exact[product] > snapshot.maxError()) {
+                assertTrue(reported.contains(ZipfStream.key(product)),
+                    "漏报" + ZipfStream.key(product) + "，真实值" + exact[product] + "超过误差上界" + snapshot.maxError());
+            }
+        }
+    }
+    
+    /**
+     * 窗口[from, 第last个事件]内每个商品的精确销量
+     */
+    private static long[] exactCounts(int[] products, int[] quantities, long[] timestamps, long from, int last) {
+        long[] counts = new long[PRODUCTS];
+        for (int i = 0; i <= last; i++) {
+            if (timestamps[i] >= from) {
+                counts[products[i]] += quantities[i];
+            }
+        }
+        return counts;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package cn.zm.ddd.infrastructure.analytics;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Space-Saving误差界测试
+ * 
+ * 与精确计数对比：每个计数器满足 count - error <= 真实值 <= count，
+ * 最小计数不超过 总量/capacity，真实值超过该值的商品一定被保留
+ */
+class SpaceSavingTest {
+    
+    private static final int EVENTS = 200_000;
+    private static final int PRODUCTS = 5_000;
+    
+    @ParameterizedTest(name = "zipf({0})，{1}个计数器")
+    @CsvSource({"1.2, 100", "1.0, 200", "0.8, 500", "0.0, 500"})
+    void countsStayWithinErrorBounds(double exponent, int capacity) {
+        ZipfStream stream = new ZipfStream(PRODUCTS, exponent, 42);
+        SpaceSaving sketch = new SpaceSaving(capacity);
+        long[] exact = new long[PRODUCTS];
+        for (int i = 0; i < EVENTS; i++) {
+            int product = stream.nextProduct();
+            int quantity = stream.nextQuantity();
+            exact[product] += quantity;
+            sketch.add(ZipfStream.key(product), ZipfStream.key(product), quantity);
+        }
+        
+        long total = 0;
+        for (long count : exact) {
+            total += count;
+        }
+        assertEquals(total, sketch.total());
+        assertTrue(sketch.minCount() <= total / capacity,
+            "最小计数" + sketch.minCount() + "超过N/k=" + total / capacity);
+        
+        Set<String> tracked = new HashSet<>();
+        sketch.forEach(counter -> {
+            long actual = exact[Integer.parseInt(counter.key().substring("product-".length()))];
+            assertTrue(counter.count() - counter.error() <= actual && actual <= counter.count(),
+                counter.key() + "真实值" + actual + "不在[" + (counter.count() - counter.error()) + ", "
+                    + counter.count() + "]内");
+            tracked.add(counter.key());
+        });
+        for (int product = 0; product < PRODUCTS; product++) {
+            if (exact[product] > sketch.minCount()) {
+                assertTrue(tracked.contains(ZipfStream.key(product)),
+                    "漏掉热销商品" + ZipfStream.key(product) + "，真实值" + exact[product]);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package cn.zm.ddd.infrastructure.analytics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 按Zipf分布抽样商品下标的合成销量流，指数为0时为均匀分布（近似统计最不利的情况）
+ */
+final class ZipfStream {
+    
+    private final double[] cdf;
+    private final Random random;
+    
+    ZipfStream(int products, double exponent, long seed) {
+        this.cdf = new double[products];
+        this.random = new Random(seed);
+        double sum = 0;
+        for (int i = 0; i < products; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < products; i++) {
+            cdf[i] /= sum;
+        }
+    }
+    
+    int nextProduct() {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+    
+    int nextQuantity() {
+        return 1 + random.nextInt(3);
+    }
+    
+    static String key(int product) {
+        return "product-" + product;
+    }
+}
\ No newline at end of file
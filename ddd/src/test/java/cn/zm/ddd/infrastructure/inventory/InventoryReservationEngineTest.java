@@ -0,0 +1,112 @@
+package cn.zm.ddd.infrastructure.inventory;
+
+import cn.zm.ddd.domain.model.product.Product;
+import cn.zm.ddd.domain.model.product.ProductId;
+import cn.zm.ddd.domain.repository.ProductRepository;
+import cn.zm.ddd.infrastructure.mapper.ProductMapper;
+import cn.zm.ddd.infrastructure.persistence.ProductEntity;
+import cn.zm.ddd.shared.valueobject.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 内存库存引擎并发测试
+ * 
+ * 通过仓储在启用引擎的应用中抢购同一商品，校验成功预留总量等于初始库存、
+ * 写回后数据库库存为0，以及事务回滚时预留被归还、删除回滚时未写回的预留不丢失。
+ * 后台刷新间隔设得很长，由测试显式调用flush控制写回时机
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-engine-test;DB_CLOSE_DELAY=-1",
+        "ddd.inventory.engine.enabled=true",
+        "ddd.inventory.engine.stripes=8",
+        "ddd.inventory.engine.flush-interval-ms=600000"
+    })
+class InventoryReservationEngineTest {
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductMapper productMapper;
+    
+    @Autowired
+    private InventoryReservationEngine engine;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void concurrentReservationsMatchInitialStock() throws InterruptedException {
+        int initial = 2_000;
+        ProductId productId = createProduct("并发抢购商品", initial);
+        
+        long reserved = StripedStockTest.race(() -> productRepository.reserveStock(productId, 1) ? 1 : 0,
+            () -> engine.available(productId));
+        
+        assertEquals(initial, reserved);
+        assertEquals(0, engine.available(productId));
+        assertFalse(productRepository.reserveStock(productId, 1));
+        
+        engine.flush();
+        assertEquals(0, stockInDatabase(productId));
+        
+        // 补货后可继续预留
+        productRepository.increaseStock(productId, 5);
+        assertEquals(5, engine.available(productId));
+    }
+    
+    @Test
+    void rolledBackReservationIsReleased() {
+        ProductId productId = createProduct("回滚商品", 10);
+        assertTrue(productRepository.reserveStock(productId, 3));
+        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(productRepository.reserveStock(productId, 4));
+            status.setRollbackOnly();
+        });
+        
+        assertEquals(7, engine.available(productId));
+        engine.flush();
+        assertEquals(7, stockInDatabase(productId));
+    }
+    
+    @Test
+    void rolledBackDeleteKeepsUnflushedReservations() {
+        ProductId productId = createProduct("删除回滚商品", 10);
+        assertTrue(productRepository.reserveStock(productId, 3));
+        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.deleteById(productId);
+            status.setRollbackOnly();
+        });
+        
+        assertEquals(7, engine.available(productId));
+        engine.flush();
+        assertEquals(7, stockInDatabase(productId));
+        assertFalse(productRepository.reserveStock(productId, 8));
+    }
+    
+    private ProductId createProduct(String name, int stock) {
+        Product product = Product.create(name, "库存测试", Money.cny(BigDecimal.TEN), stock);
+        productMapper.insert(ProductEntity.from(product));
+        return product.getId();
+    }
+    
+    private int stockInDatabase(ProductId productId) {
+        return productMapper.selectById(productId.toUuid()).getStockQuantity();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package cn.zm.ddd.infrastructure.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分段库存并发测试
+ * 
+ * 多个线程同时抢购直到库存耗尽，成功预留的总量必须恰好等于初始库存（不超卖也不少卖），
+ * 可用库存任一时刻都不为负
+ */
+class StripedStockTest {
+    
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 50;
+    
+    @Test
+    void concurrentReservationsNeverOversell() throws InterruptedException {
+        for (int round = 0; round < ROUNDS; round++) {
+            int initial = ThreadLocalRandom.current().nextInt(1, 2_000);
+            StripedStock stock = new StripedStock(8, initial);
+            AtomicLong minAvailable = new AtomicLong(Long.MAX_VALUE);
+            
+            long reserved = race(() -> {
+                int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+                int taken = stock.tryReserve(quantity) ? quantity : stock.tryReserve(1) ? 1 : 0;
+                minAvailable.accumulateAndGet(stock.available(), Math::min);
+                return taken;
+            }, stock::available);
+            
+            assertEquals(initial, reserved, "第" + round + "轮预留总量与初始库存不一致");
+            assertEquals(0, stock.available(), "第" + round + "轮库存未耗尽");
+            assertTrue(minAvailable.get() >= 0, "第" + round + "轮出现负库存：" + minAvailable.get());
+        }
+    }
+    
+    @Test
+    void concurrentReserveAndReleaseKeepTotalsBalanced() throws InterruptedException {
+        int initial = 1_000;
+        StripedStock stock = new StripedStock(8, initial);
+        AtomicLong held = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                await(start);
+                int mine = 0;
+                for (int j = 0; j < 5_000; j++) {
+                    int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+                    if (mine >= quantity && ThreadLocalRandom.current().nextBoolean()) {
+                        stock.release(quantity);
+                        mine -= quantity;
+                    } else if (stock.tryReserve(quantity)) {
+                        mine += quantity;
+                    }
+                }
+                held.addAndGet(mine);
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(initial, stock.available() + held.get());
+    }
+    
+    @Test
+    void rejectsInvalidQuantities() {
+        StripedStock stock = new StripedStock(4, 10);
+        
+        assertThrows(IllegalArgumentException.class, () -> stock.tryReserve(0));
+        assertThrows(IllegalArgumentException.class, () -> stock.release(-1));
+        assertThrows(IllegalArgumentException.class, () -> new StripedStock(4, -1));
+    }
+    
+    /**
+     * 所有线程同时开始抢购，直到库存耗尽，返回成功预留的总量
+     */
+    static long race(IntSupplier attempt, LongSupplier remaining) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong reserved = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                await(start);
+                // 至少尝试一次，库存引擎在首次预留时才加载库存
+                do {
+                    reserved.addAndGet(attempt.getAsInt());
+                } while (remaining.getAsLong() > 0);
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return reserved.get();
+    }
+    
+    private static void await(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
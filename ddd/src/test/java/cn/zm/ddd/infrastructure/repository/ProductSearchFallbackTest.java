@@ -0,0 +1,93 @@
+package cn.zm.ddd.infrastructure.repository;
+
+import cn.zm.ddd.domain.model.product.Product;
+import cn.zm.ddd.infrastructure.cache.BoundedCache;
+import cn.zm.ddd.infrastructure.inventory.InventoryReservationEngine;
+import cn.zm.ddd.infrastructure.mapper.ProductMapper;
+import cn.zm.ddd.infrastructure.persistence.ProductEntity;
+import cn.zm.ddd.infrastructure.search.ProductSearchIndex;
+import cn.zm.ddd.shared.valueobject.Money;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 商品搜索回退路径一致性测试
+ * 
+ * 同一份数据分别交给装载完成的内存索引和未就绪索引（LIKE查询后打分）搜索，
+ * 结果的顺序和limit截断必须一致。数据库无法对已存储的文本做NFKC规范化，
+ * 这里存储的名称和描述都是半角，全角只出现在查询中
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = "spring.datasource.url=jdbc:h2:mem:product-search-test;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductSearchFallbackTest {
+    
+    @Autowired
+    private ProductMapper productMapper;
+    
+    @Autowired
+    private UnitOfWork unitOfWork;
+    
+    @Autowired
+    private InventoryReservationEngine inventoryEngine;
+    
+    private ProductRepositoryImpl indexed;
+    private ProductRepositoryImpl fallback;
+    
+    @BeforeAll
+    void setUp() {
+        createProduct("苹果手机 iPhone 15", "苹果公司最新款智能手机");
+        createProduct("华为手机 Mate 60", "国产旗舰智能手机");
+        createProduct("小米电视", "65英寸4K智能电视");
+        createProduct("手机", "通用手机");
+        createProduct("手机壳", "适用于苹果手机");
+        createProduct("𠀀𠀁茶具", "扩展B区汉字的茶具套装");
+        createProduct("𠀂杯", "与𠀀共用高位代理的汉字");
+        createProduct("Sony耳机", "降噪耳机");
+        
+        ProductSearchIndex index = new ProductSearchIndex();
+        productMapper.selectList(null).forEach(entity ->
+            index.load(entity.getId().toString(), entity.getName(), entity.getDescription()));
+        index.markReady();
+        indexed = repository(index);
+        fallback = repository(new ProductSearchIndex());
+    }
+    
+    @ParameterizedTest(name = "\"{0}\" limit={1}")
+    @CsvSource({
+        "手机, 20", "手机, 3", "手机, 1", "智能, 2", "苹果 手机, 20", "手机 华为, 5",
+        "ｉＰｈｏｎｅ, 5", "ＳＯＮＹ, 5", "𠀀, 20", "𠀁茶, 5", "电, 20", "机, 4",
+        "pro, 20", "pro, 2", "a, 20", "a, 3"
+    })
+    void fallbackMatchesIndexRankingAndLimit(String query, int limit) {
+        List<String> expected = ids(indexed.search(query, limit));
+        assertFalse(expected.isEmpty(), query);
+        assertEquals(expected, ids(fallback.search(query, limit)), query);
+    }
+    
+    private ProductRepositoryImpl repository(ProductSearchIndex index) {
+        return new ProductRepositoryImpl(productMapper, unitOfWork, inventoryEngine,
+            new BoundedCache<>("search-test", 100, Duration.ofMinutes(1)), index);
+    }
+    
+    private void createProduct(String name, String description) {
+        Product product = Product.create(name, description, Money.cny(BigDecimal.TEN), 10);
+        productMapper.insert(ProductEntity.from(product));
+    }
+    
+    private static List<String> ids(List<Product> products) {
+        return products.stream().map(product -> product.getId().value()).toList();
+    }
+}
\ No newline at end of file
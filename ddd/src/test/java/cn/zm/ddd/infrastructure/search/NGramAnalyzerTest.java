@@ -0,0 +1,35 @@
+package cn.zm.ddd.infrastructure.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * n-gram切分测试
+ * 
+ * 全角字符规范化为半角小写，增补平面汉字按码点切分不产生孤立的代理字符，二元组不跨越空白
+ */
+class NGramAnalyzerTest {
+    
+    @Test
+    void normalizesFullWidthToHalfWidthLowerCase() {
+        assertEquals("iphone 15 pro", NGramAnalyzer.normalize("ＩＰｈｏｎｅ　１５ Pro"));
+        assertEquals(List.of("iphone", "15", "pro"), NGramAnalyzer.terms(NGramAnalyzer.normalize("ＩＰｈｏｎｅ　１５ Pro")));
+    }
+    
+    @Test
+    void splitsSupplementaryCharactersByCodePoint() {
+        assertEquals(Set.of("𠀀", "𠀁", "茶", "𠀀𠀁", "𠀁茶"), NGramAnalyzer.grams("𠀀𠀁茶"));
+        assertEquals(Set.of("𠀀𠀁", "𠀁茶"), NGramAnalyzer.queryGrams("𠀀𠀁茶"));
+        assertEquals(Set.of("𠀀"), NGramAnalyzer.queryGrams("𠀀"));
+    }
+    
+    @Test
+    void bigramsDoNotCrossWhitespace() {
+        assertEquals(Set.of("手", "机", "手机", "壳"), NGramAnalyzer.grams("手机 壳"));
+        assertEquals(Set.of("a", "b", "c", "d", "ab", "cd"), NGramAnalyzer.grams("ab  cd"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package cn.zm.ddd.infrastructure.search;
+
+import cn.zm.ddd.infrastructure.search.PrefixTrie.Suggestion;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 前缀树增量维护测试
+ * 
+ * 对前缀树和一份朴素模型执行同一串随机的新增、改名、删除和增减热度操作，
+ * 每步之后对所有可能的前缀比较suggest结果与在全部条目上暴力排序的结果。
+ * 键由少量互为前缀的词拼成，且允许同一个词重复出现，让多条后缀路径共享节点、
+ * 同一条目经多个后缀落在同一子树中，并频繁触发缓存挤出、重算和空节点摘除
+ */
+class PrefixTrieTest {
+    
+    private static final int TOP_K = 4;
+    private static final int OPERATIONS = 3_000;
+    private static final int IDS = 24;
+    private static final String[] WORDS = {"a", "ab", "abc", "b", "ba", "pro", "pr"};
+    private static final Comparator<ModelEntry> RANKING = Comparator.comparingLong(ModelEntry::weight).reversed()
+        .thenComparingInt(entry -> entry.key().length())
+        .thenComparing(ModelEntry::key)
+        .thenComparing(ModelEntry::id);
+    
+    @ParameterizedTest(name = "seed={0}")
+    @ValueSource(longs = {1, 2, 3, 42, 2024})
+    void suggestionsMatchBruteForceRanking(long seed) {
+        Random random = new Random(seed);
+        PrefixTrie trie = new PrefixTrie(TOP_K);
+        Map<String, ModelEntry> model = new HashMap<>();
+        
+        for (int step = 0; step < OPERATIONS; step++) {
+            String id = "p" + random.nextInt(IDS);
+            ModelEntry current = model.get(id);
+            // 操作前的键也要检查，条目删除或改名后这些前缀不应再返回该条目
+            TreeSet<String> prefixes = new TreeSet<>(List.of("", "x", "abcd", "pro pro pro pro"));
+            if (current != null) {
+                addPrefixes(prefixes, current.key());
+            }
+            int operation = random.nextInt(10);
+            String description;
+            if (operation < 3 || current == null) {
+                // 新增，或对已有条目改名（保留热度）
+                String key = randomKey(random);
+                trie.put(id, key, key.toUpperCase());
+                model.put(id, new ModelEntry(id, key, key.toUpperCase(), current == null ? 0 : current.weight()));
+                description = "put " + id + " \"" + key + "\"";
+            } else if (operation < 4) {
+                // 同名更新只改展示名称
+                String label = current.key() + "#" + step;
+                trie.put(id, current.key(), label);
+                model.put(id, new ModelEntry(id, current.key(), label, current.weight()));
+                description = "relabel " + id;
+            } else if (operation < 5) {
+                trie.remove(id);
+                model.remove(id);
+                description = "remove " + id;
+            } else {
+                long delta = random.nextInt(7) - 2;
+                trie.addWeight(id, delta);
+                model.put(id, new ModelEntry(id, current.key(), current.label(), current.weight() + delta));
+                description = "addWeight " + id + " " + delta;
+            }
+            
+            assertEquals(model.size(), trie.size(), description);
+            model.values().forEach(entry -> addPrefixes(prefixes, entry.key()));
+            for (String prefix : prefixes) {
+                for (int limit : new int[] {1, TOP_K + 2}) {
+                    assertEquals(bruteForce(model, prefix, limit), trie.suggest(prefix, limit),
+                        "第" + step + "步（" + description + "）后前缀\"" + prefix + "\"，limit=" + limit);
+                }
+            }
+        }
+    }
+    
+    private static String randomKey(Random random) {
+        int words = random.nextInt(1, 4);
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                key.append(' ');
+            }
+            key.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return key.toString();
+    }
+    
+    /**
+     * 加入键的各后缀的全部前缀
+     */
+    private static void addPrefixes(TreeSet<String> prefixes, String key) {
+        for (String suffix : suffixes(key)) {
+            for (int i = 1; i <= suffix.length(); i++) {
+                prefixes.add(suffix.substring(0, i));
+            }
+        }
+    }
+    
+    private static List<Suggestion> bruteForce(Map<String, ModelEntry> model, String prefix, int limit) {
+        return model.values().stream()
+            .filter(entry -> suffixes(entry.key()).stream().anyMatch(suffix -> suffix.startsWith(prefix)))
+            .sorted(RANKING)
+            .limit(Math.min(limit, TOP_K))
+            .map(entry -> new Suggestion(entry.id(), entry.label(), entry.weight()))
+            .toList();
+    }
+    
+    /**
+     * 完整键及每个空格之后的后缀，测试中的键只用单个空格分隔
+     */
+    private static List<String> suffixes(String key) {
+        List<String> suffixes = new ArrayList<>();
+        suffixes.add(key);
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) == ' ') {
+                suffixes.add(key.substring(i + 1));
+            }
+        }
+        return suffixes;
+    }
+    
+    private record ModelEntry(String id, String key, String label, long weight) {
+    }
+}
\ No newline at end of file
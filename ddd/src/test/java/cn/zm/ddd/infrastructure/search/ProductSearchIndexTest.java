@@ -0,0 +1,110 @@
+package cn.zm.ddd.infrastructure.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 商品搜索索引测试
+ * 
+ * 覆盖中日韩文字的子串匹配、全角查询、增补平面汉字、单字查询和多词AND匹配，
+ * 并校验索引的排序和limit截断与对全部商品直接打分排序（数据库回退路径的规则）一致
+ */
+class ProductSearchIndexTest {
+    
+    private static final List<Item> ITEMS = List.of(
+        new Item("p1", "苹果手机 iPhone 15", "苹果公司最新款智能手机"),
+        new Item("p2", "华为手机 Mate 60", "国产旗舰智能手机"),
+        new Item("p3", "小米电视", "65英寸4K智能电视"),
+        new Item("p4", "手机", "通用手机"),
+        new Item("p5", "手机壳", "适用于苹果手机"),
+        new Item("p6", "𠀀𠀁茶具", "扩展B区汉字的茶具套装"),
+        new Item("p7", "𠀂杯", "与𠀀共用高位代理的汉字"),
+        new Item("p8", "ab cd", "空白分隔"),
+        new Item("p9", "ＳＯＮＹ耳机", "全角名称的耳机"));
+    
+    private ProductSearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        ITEMS.forEach(item -> index.load(item.id(), item.name(), item.description()));
+        index.markReady();
+    }
+    
+    @ParameterizedTest(name = "\"{0}\" -> {1}")
+    @CsvSource(delimiter = '|', value = {
+        // 中文子串，包括跨越常用词边界的子串
+        "手机|p4 p5 p2 p1",
+        "果手|p1 p5",
+        "智能|p1 p2 p3",
+        "英寸4k|p3",
+        // 全角查询与半角文本、半角查询与全角文本
+        "ｉＰｈｏｎｅ　１５|p1",
+        "ＭＡＴＥ|p2",
+        "sony|p9",
+        // 增补平面汉字按码点切分，不会与共用高位代理的字混淆
+        "𠀁茶|p6",
+        "𠀀|p6 p7",
+        "𠀂|p7",
+        // 单字查询
+        "电|p3",
+        "壳|p5",
+        // 多词AND匹配
+        "手机 华为|p2",
+        "苹果 手机|p1 p5",
+        "手机 电视|",
+        // 二元组不跨越空白
+        "bc|",
+        "ab|p8",
+        "cd|p8"
+    })
+    void matchesCjkAndNormalizedText(String query, String expected) {
+        List<String> ids = index.search(query, 10);
+        List<String> expectedIds = expected == null ? List.of() : List.of(expected.split(" "));
+        assertEquals(Set.copyOf(expectedIds), Set.copyOf(ids), query);
+        assertEquals(expectedIds.size(), ids.size(), query);
+    }
+    
+    @Test
+    void ranksExactNameBeforePrefixContainsAndDescription() {
+        // 名称完全相同 > 名称前缀 > 名称包含（名称短的优先） > 仅描述包含
+        assertEquals(List.of("p4", "p5", "p2", "p1"), index.search("手机", 10));
+    }
+    
+    @Test
+    void limitKeepsHighestRanked() {
+        assertEquals(List.of("p4", "p5"), index.search("手机", 2));
+        assertEquals(List.of("p4"), index.search("手机", 1));
+    }
+    
+    @Test
+    void removedAndRenamedProductsAreNotFound() {
+        index.remove("p4");
+        index.put("p5", "保护套", "适用于苹果手机");
+        assertEquals(List.of("p2", "p1", "p5"), index.search("手机", 10));
+        assertTrue(index.search("壳", 10).isEmpty());
+    }
+    
+    @ParameterizedTest(name = "\"{0}\" limit={1}")
+    @CsvSource({
+        "手机, 10", "手机, 3", "手机, 1", "智能, 2", "苹果, 10", "苹果 手机, 1",
+        "耳机, 5", "ｓｏｎｙ, 5", "𠀀, 1", "茶, 10", "a, 10", "机, 4"
+    })
+    void rankingAndLimitMatchDirectScoring(String query, int limit) {
+        List<String> expected = ProductSearchIndex.rank(query, ITEMS, Item::name, Item::description, limit).stream()
+            .map(Item::id)
+            .toList();
+        assertEquals(expected, index.search(query, limit));
+    }
+    
+    private record Item(String id, String name, String description) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package cn.zm.ddd.shared.valueobject;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 金额舍入测试
+ * 
+ * 以分为单位的乘法与BigDecimal相乘后setScale(0, HALF_UP)逐一对比，
+ * 覆盖恰好.5的进位、负数金额和比率、long乘积溢出后的回退，
+ * 以及精度超过18位、小数位数为负或超过18位的比率
+ */
+class MoneyTest {
+    
+    private static final int SAMPLES = 200_000;
+    
+    @ParameterizedTest(name = "{0} × {1} = {2}")
+    @CsvSource({
+        "5, 0.1, 1",
+        "-5, 0.1, -1",
+        "5, -0.1, -1",
+        "-5, -0.1, 1",
+        "15, 0.1, 2",
+        "-15, 0.1, -2",
+        "25, 0.1, 3",
+        "-25, 0.1, -3",
+        "4, 0.1, 0",
+        "-4, 0.1, 0",
+        "1, 0.5, 1",
+        "-1, 0.5, -1",
+        "3, 0.05, 0",
+        "10, 0.05, 1",
+        "-10, 0.05, -1",
+        "999, 0.001, 1",
+        "-499, 0.001, 0",
+        "-500, 0.001, -1"
+    })
+    void roundsHalfAwayFromZero(long minorUnits, BigDecimal rate, long expected) {
+        assertEquals(expected, Money.multiplyMinorUnits(minorUnits, rate));
+        assertEquals(expected, Money.multiplyMinorUnits(minorUnits, rate.unscaledValue().longValue(), rate.scale()));
+    }
+    
+    @Test
+    void randomSignedProductsMatchBigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            long minorUnits = random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L);
+            BigDecimal rate = BigDecimal.valueOf(random.nextLong(-1_000_000L, 1_000_000L), random.nextInt(8));
+            assertMatchesBigDecimal(minorUnits, rate);
+        }
+    }
+    
+    @Test
+    void exactTiesMatchBigDecimal() {
+        Random random = new Random(7);
+        for (int i = 0; i < SAMPLES; i++) {
+            // 比率为 k + 0.5 除以 10^scale 的形式，与奇数金额相乘后容易落在恰好.5上
+            int scale = random.nextInt(1, 6);
+            long unscaledRate = random.nextLong(-10_000L, 10_000L) * 10 + 5;
+            long minorUnits = random.nextLong(-1_000_000L, 1_000_000L) | 1;
+            assertMatchesBigDecimal(minorUnits, BigDecimal.valueOf(unscaledRate, scale));
+        }
+    }
+    
+    @ParameterizedTest(name = "{0} × {1}")
+    @CsvSource({
+        "3074457345618258602, 0.25",
+        "-3074457345618258602, 0.25",
+        "9223372036854775807, 0.5",
+        "-9223372036854775807, 0.5",
+        "4611686018427387905, 1.5",
+        "-4611686018427387905, -1.5",
+        "92233720368547758, 99.99",
+        "-92233720368547758, 99.99"
+    })
+    void overflowingProductFallsBackToBigDecimal(long minorUnits, BigDecimal rate) {
+        assertMatchesBigDecimal(minorUnits, rate);
+    }
+    
+    @ParameterizedTest(name = "{0} × {1}")
+    @CsvSource({
+        "123456789, 0.1234567890123456789",
+        "-123456789, 0.1234567890123456789",
+        "1000000, 0.00000000000000000005",
+        "7, 0.5000000000000000000",
+        "-7, 0.5000000000000000000",
+        "7, 1E+2",
+        "-7, 1E+2",
+        "15, 5E-1",
+        "-15, 5E-1"
+    })
+    void unusualRateScalesMatchBigDecimal(long minorUnits, BigDecimal rate) {
+        assertMatchesBigDecimal(minorUnits, rate);
+    }
+    
+    @Test
+    void moneyMultiplyRoundsToCents() {
+        assertEquals(new BigDecimal("0.01"),
+            Money.cny(new BigDecimal("0.05")).multiply(new BigDecimal("0.1")).amount());
+        assertEquals(new BigDecimal("189.91"),
+            Money.cny(new BigDecimal("199.90")).multiply(new BigDecimal("0.95")).amount());
+        assertEquals(new BigDecimal("0.13"), Money.cny(new BigDecimal("0.125")).amount());
+    }
+    
+    private static void assertMatchesBigDecimal(long minorUnits, BigDecimal rate) {
+        long expected = BigDecimal.valueOf(minorUnits).multiply(rate)
+            .setScale(0, RoundingMode.HALF_UP)
+            .longValueExact();
+        assertEquals(expected, Money.multiplyMinorUnits(minorUnits, rate), minorUnits + " × " + rate);
+        if (rate.scale() >= 0 && rate.scale() <= 18 && rate.precision() <= 18) {
+            assertEquals(expected, Money.multiplyMinorUnits(minorUnits, rate.unscaledValue().longValue(), rate.scale()),
+                minorUnits + " × " + rate);
+        }
+    }
+}
\ No newline at end of file